@@ -0,0 +1,171 @@
+package com.vinuni.circularmarket.config;
+
+import com.vinuni.circularmarket.service.ContentVersions;
+import com.vinuni.circularmarket.service.ListingService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Conditional GET for the public read endpoints. Looks up the version of the requested resource
+ * in ContentVersions, answers 304 Not Modified before the controller runs when the client's
+ * If-None-Match still matches, and otherwise sends ETag and Cache-Control: no-cache so clients
+ * and proxies revalidate instead of re-downloading.
+ */
+@Component
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConditionalGetInterceptor.class);
+
+    /**
+     * Request attribute holding the ETag the request was validated against, so controllers serving
+     * from a local cache can check that the cached body is not older than the validator
+     */
+    public static final String VALIDATOR_ATTRIBUTE = "com.vinuni.circularmarket.config.ConditionalGetInterceptor.validator";
+
+    private final List<Route> routes = new ArrayList<>();
+
+    public ConditionalGetInterceptor(ContentVersions versions) {
+        // The default browse pages already carry the strong ETag of their pre-serialized snapshot
+        route("/api/listings", true, vars -> versions.listingCollections(),
+              request -> !isDefaultBrowsePage(request, true));
+        route("/api/listings/category/{categoryId:\\d+}", true, vars -> versions.listingCollections(),
+              request -> !isDefaultBrowsePage(request, false));
+        route("/api/listings/filter", true, vars -> versions.listingCollections());
+        route("/api/listings/search", true, vars -> versions.listingCollections());
+        // Instant search, suggestions and listing rating averages come from per-instance in-memory
+        // indexes that other instances' writes do not reach, so a database validator cannot vouch for them
+        route("/api/listings/{listingId:\\d+}", true, vars -> versions.listing(id(vars, "listingId")));
+
+        route("/api/categories", true, vars -> versions.categories());
+        route("/api/categories/paged", true, vars -> versions.categories());
+        route("/api/categories/search", true, vars -> versions.categories());
+        route("/api/categories/{categoryId:\\d+}", true, vars -> versions.categories());
+        route("/api/categories/with-counts", true, vars -> versions.categoriesWithCounts());
+
+        route("/api/comments/listings/{listingId:\\d+}", false,
+              vars -> versions.listingComments(id(vars, "listingId")));
+        route("/api/comments/listings/{listingId:\\d+}/top-level", false,
+              vars -> versions.listingComments(id(vars, "listingId")));
+        route("/api/comments/listings/{listingId:\\d+}/count", false,
+              vars -> versions.listingComments(id(vars, "listingId")));
+        route("/api/comments/{parentId:\\d+}/replies", false,
+              vars -> versions.commentReplies(id(vars, "parentId")));
+
+        route("/api/reviews/listings/{listingId:\\d+}", false,
+              vars -> versions.listingReviews(id(vars, "listingId")));
+        route("/api/reviews/sellers/{sellerId:\\d+}/average-rating", false,
+              vars -> versions.sellerRating(id(vars, "sellerId")));
+
+        route("/api/users/{userId:\\d+}", true, vars -> versions.user(id(vars, "userId")));
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod())) {
+            return true;
+        }
+
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (Route route : routes) {
+            PathPattern.PathMatchInfo match = route.pattern.matchAndExtract(path);
+            if (match == null) {
+                continue;
+            }
+            if (!route.applies.test(request)) {
+                return true;
+            }
+
+            ContentVersions.Version version;
+            try {
+                version = route.version.apply(match.getUriVariables());
+            } catch (Exception e) {
+                // Without a version the request is simply served unconditionally
+                logger.debug("Could not compute version for {}: {}", request.getRequestURI(), e.getMessage());
+                return true;
+            }
+            if (version == null) {
+                return true;
+            }
+
+            request.setAttribute(VALIDATOR_ATTRIBUTE, version.getEtag());
+            response.setHeader(HttpHeaders.CACHE_CONTROL, route.shared ? "no-cache" : "private, no-cache");
+            return !new ServletWebRequest(request, response).checkNotModified(version.getEtag());
+        }
+        return true;
+    }
+
+    private void route(String pattern, boolean shared, Function<Map<String, String>, ContentVersions.Version> version) {
+        route(pattern, shared, version, request -> true);
+    }
+
+    private void route(String pattern, boolean shared, Function<Map<String, String>, ContentVersions.Version> version,
+                       Predicate<HttpServletRequest> applies) {
+        routes.add(new Route(PathPatternParser.defaultInstance.parse(pattern), shared, version, applies));
+    }
+
+    private static Long id(Map<String, String> vars, String name) {
+        return Long.valueOf(vars.get(name));
+    }
+
+    /**
+     * Whether the controller will answer from the pre-serialized default browse page
+     */
+    private static boolean isDefaultBrowsePage(HttpServletRequest request, boolean sortable) {
+        if (request.getParameter("cursor") != null
+                || !isIntParam(request, "page", 0)
+                || !isIntParam(request, "size", ListingService.DEFAULT_BROWSE_PAGE_SIZE)) {
+            return false;
+        }
+        if (!sortable) {
+            return true;
+        }
+        String sortBy = request.getParameter("sortBy");
+        String sortDir = request.getParameter("sortDir");
+        return (sortBy == null || "createdAt".equals(sortBy))
+                && (sortDir == null || sortDir.equalsIgnoreCase("desc"));
+    }
+
+    private static boolean isIntParam(HttpServletRequest request, String name, int defaultValue) {
+        String value = request.getParameter(name);
+        if (value == null) {
+            return true;
+        }
+        try {
+            return Integer.parseInt(value.trim()) == defaultValue;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static final class Route {
+        private final PathPattern pattern;
+        // Public responses may be stored by shared caches; the others are per user
+        private final boolean shared;
+        private final Function<Map<String, String>, ContentVersions.Version> version;
+        private final Predicate<HttpServletRequest> applies;
+
+        private Route(PathPattern pattern, boolean shared,
+                      Function<Map<String, String>, ContentVersions.Version> version,
+                      Predicate<HttpServletRequest> applies) {
+            this.pattern = pattern;
+            this.shared = shared;
+            this.version = version;
+            this.applies = applies;
+        }
+    }
+}
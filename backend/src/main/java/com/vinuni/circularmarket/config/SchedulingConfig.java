@@ -0,0 +1,10 @@
+package com.vinuni.circularmarket.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+    // Scheduled jobs are declared on the services with @Scheduled
+}
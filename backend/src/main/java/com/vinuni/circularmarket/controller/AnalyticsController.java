@@ -2,8 +2,12 @@ package com.vinuni.circularmarket.controller;
 
 import com.vinuni.circularmarket.dto.AnalyticsDTO;
 import com.vinuni.circularmarket.service.AnalyticsService;
+import com.vinuni.circularmarket.service.AuditLogService;
+import com.vinuni.circularmarket.service.OrderService;
+import com.vinuni.circularmarket.service.PerformanceMetricsService;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -20,9 +24,18 @@ import java.util.Map;
 public class AnalyticsController {
 
     private final AnalyticsService analyticsService;
+    private final PerformanceMetricsService performanceMetricsService;
+    private final AuditLogService auditLogService;
+    private final OrderService orderService;
 
-    public AnalyticsController(AnalyticsService analyticsService) {
+    public AnalyticsController(AnalyticsService analyticsService,
+                               PerformanceMetricsService performanceMetricsService,
+                               AuditLogService auditLogService,
+                               OrderService orderService) {
         this.analyticsService = analyticsService;
+        this.performanceMetricsService = performanceMetricsService;
+        this.auditLogService = auditLogService;
+        this.orderService = orderService;
     }
 
     /**
@@ -41,6 +54,32 @@ public class AnalyticsController {
         }
     }
 
+    /**
+     * Get the admin activity feed, newest first, one keyset page at a time
+     * @param beforeTime nextBeforeTime of the previous page (omit for the first page)
+     * @param beforeId nextBeforeId of the previous page (omit for the first page)
+     * @param limit page size
+     * @return activities and the cursor of the next page
+     */
+    @GetMapping("/activities")
+    public ResponseEntity<?> getActivityFeed(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeTime,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        try {
+            return ResponseEntity.ok(analyticsService.getActivityFeed(beforeTime, beforeId, limit));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "Failed to retrieve activity feed");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
     /**
      * Get user registration statistics by date range
      * @param startDate start date
@@ -111,18 +150,10 @@ public class AnalyticsController {
     @GetMapping("/system/health")
     public ResponseEntity<?> getSystemHealth() {
         try {
-            Map<String, Object> health = new HashMap<>();
-            health.put("status", "UP");
-            health.put("timestamp", LocalDateTime.now());
-            health.put("version", "1.0.0");
-            health.put("uptime", "System running"); // In real implementation, calculate actual uptime
-
-            // Database connectivity check
-            health.put("database", "CONNECTED");
-
-            // External services status
-            health.put("externalServices", "ALL_OPERATIONAL");
-
+            Map<String, Object> health = performanceMetricsService.getHealth();
+            if ("DOWN".equals(health.get("status"))) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(health);
+            }
             return ResponseEntity.ok(health);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
@@ -132,21 +163,37 @@ public class AnalyticsController {
     }
 
     /**
-     * Get audit logs (recent system activities)
+     * Get audit logs, newest first, one keyset page at a time
      * @param limit number of log entries to return
-     * @return recent audit logs
+     * @param action action filter (CREATE, UPDATE, DELETE)
+     * @param entityType entity type filter (LISTING, USER, CATEGORY)
+     * @param entityId entity ID filter
+     * @param actor actor email filter
+     * @param from earliest timestamp
+     * @param to latest timestamp
+     * @param beforeTime nextBeforeTime of the previous page (omit for the first page)
+     * @param beforeId nextBeforeId of the previous page (omit for the first page)
+     * @return audit logs and the cursor of the next page
      */
     @GetMapping("/audit/logs")
-    public ResponseEntity<?> getAuditLogs(@RequestParam(defaultValue = "50") int limit) {
+    public ResponseEntity<?> getAuditLogs(
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) Long entityId,
+            @RequestParam(required = false) String actor,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeTime,
+            @RequestParam(required = false) Long beforeId) {
         try {
-            // In a real implementation, this would query an audit log table
-            // For now, return placeholder data
-            Map<String, Object> response = new HashMap<>();
-            response.put("logs", new java.util.ArrayList<>());
-            response.put("total", 0);
-            response.put("limit", limit);
-
+            Map<String, Object> response = auditLogService.getAuditLogs(action, entityType, entityId, actor,
+                                                                        from, to, beforeTime, beforeId, limit);
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", "Failed to retrieve audit logs");
@@ -161,18 +208,60 @@ public class AnalyticsController {
     @GetMapping("/performance/metrics")
     public ResponseEntity<?> getPerformanceMetrics() {
         try {
-            Map<String, Object> metrics = new HashMap<>();
-            metrics.put("responseTime", "150ms"); // Average response time
-            metrics.put("throughput", "100 req/sec"); // Requests per second
-            metrics.put("errorRate", "0.1%"); // Error rate
-            metrics.put("memoryUsage", "256MB/1GB"); // Memory usage
-            metrics.put("cpuUsage", "15%"); // CPU usage
-
-            return ResponseEntity.ok(metrics);
+            return ResponseEntity.ok(performanceMetricsService.getMetrics());
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", "Failed to retrieve performance metrics");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Get performance metrics in the Prometheus text exposition format
+     * @return metrics for scraping
+     */
+    @GetMapping(value = "/performance/metrics/prometheus", produces = "text/plain;version=0.0.4;charset=utf-8")
+    public ResponseEntity<?> getPrometheusMetrics() {
+        try {
+            return ResponseEntity.ok(performanceMetricsService.getPrometheusText());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .contentType(MediaType.TEXT_PLAIN)
+                    .body("# Failed to retrieve performance metrics\n");
+        }
+    }
+
+    /**
+     * Get how order transitions are executed
+     * @return map with the current mode (jpa or procedure)
+     */
+    @GetMapping("/performance/order-transition-mode")
+    public ResponseEntity<?> getOrderTransitionMode() {
+        Map<String, String> response = new HashMap<>();
+        response.put("mode", orderService.getTransitionMode());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Switch how order transitions are executed, e.g. to compare both modes under the same load
+     * @param mode jpa (conditional JPA updates) or procedure (stored procedures)
+     * @return map with the new mode
+     */
+    @PutMapping("/performance/order-transition-mode")
+    public ResponseEntity<?> setOrderTransitionMode(@RequestParam String mode) {
+        try {
+            orderService.setTransitionMode(mode);
+            Map<String, String> response = new HashMap<>();
+            response.put("mode", orderService.getTransitionMode());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "Failed to change order transition mode");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+}
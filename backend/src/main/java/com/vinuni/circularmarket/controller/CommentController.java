@@ -1,5 +1,6 @@
 package com.vinuni.circularmarket.controller;
 
+import com.vinuni.circularmarket.dto.BulkCommentDeleteResultDTO;
 import com.vinuni.circularmarket.dto.CommentDTO;
 import com.vinuni.circularmarket.dto.CreateCommentRequest;
 import com.vinuni.circularmarket.model.User;
@@ -295,10 +296,14 @@ public class CommentController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
             }
 
-            int deletedCount = commentService.bulkDeleteComments(commentIds);
+            BulkCommentDeleteResultDTO result = commentService.bulkDeleteComments(commentIds);
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Bulk delete completed");
-            response.put("deletedCount", deletedCount);
+            response.put("deletedCount", result.getDeletedIds().size());
+            response.put("repliesDeleted", result.getRepliesDeleted());
+            response.put("totalDeleted", result.getTotalDeleted());
+            response.put("deletedIds", result.getDeletedIds());
+            response.put("notFoundIds", result.getNotFoundIds());
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
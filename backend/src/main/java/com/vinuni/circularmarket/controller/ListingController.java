@@ -1,6 +1,10 @@
 package com.vinuni.circularmarket.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vinuni.circularmarket.config.ConditionalGetInterceptor;
+import com.vinuni.circularmarket.dto.BrowsePageSnapshot;
 import com.vinuni.circularmarket.dto.CreateListingRequest;
+import com.vinuni.circularmarket.dto.ListingCursor;
 import com.vinuni.circularmarket.dto.ListingDTO;
 import com.vinuni.circularmarket.dto.UpdateListingRequest;
 import com.vinuni.circularmarket.model.ListingStatus;
@@ -11,19 +15,29 @@ import com.vinuni.circularmarket.service.ListingService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -35,9 +49,11 @@ public class ListingController {
     private static final Logger logger = LoggerFactory.getLogger(ListingController.class);
 
     private final ListingService listingService;
+    private final ObjectMapper objectMapper;
 
-    public ListingController(ListingService listingService) {
+    public ListingController(ListingService listingService, ObjectMapper objectMapper) {
         this.listingService = listingService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -46,6 +62,10 @@ public class ListingController {
      * @param size page size
      * @param sortBy sort field
      * @param sortDir sort direction
+     * @param cursor keyset cursor (switches to cursor mode when present; empty for the first page)
+     * @param includeTotal whether cursor mode should also count all matching listings
+     * @param ifNoneMatch ETag of the default page the client already has
+     * @param validator ETag the conditional GET check validated the request against (absent if none)
      * @return paginated available listings
      */
     @GetMapping
@@ -53,9 +73,26 @@ public class ListingController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "12") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortDir) {
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestAttribute(name = ConditionalGetInterceptor.VALIDATOR_ATTRIBUTE, required = false) String validator) {
 
         try {
+            if (cursor == null && page == 0 && size == ListingService.DEFAULT_BROWSE_PAGE_SIZE
+                    && isKeysetSort(sortBy, sortDir)) {
+                return snapshotResponse(listingService.getDefaultBrowsePage(null), ifNoneMatch);
+            }
+
+            if (cursor != null) {
+                if (!isKeysetSort(sortBy, sortDir)) {
+                    return keysetSortError();
+                }
+                return ResponseEntity.ok(buildCursorResponse(null, null, null, null, null, null,
+                                                             cursor, size, includeTotal));
+            }
+
             logger.debug("Starting getAvailableListings request: page={}, size={}, sortBy={}, sortDir={}", page, size, sortBy, sortDir);
 
             Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
@@ -63,7 +100,7 @@ public class ListingController {
 
             logger.debug("Created pageable: {}", pageable);
 
-            Page<ListingDTO> listingsPage = listingService.getAvailableListings(pageable);
+            Page<ListingDTO> listingsPage = listingService.getAvailableListings(pageable, validator);
 
             logger.debug("Got listings page with {} items", listingsPage.getTotalElements());
 
@@ -83,6 +120,10 @@ public class ListingController {
             logger.debug("Created response with {} listings", listingsPage.getContent().size());
 
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
         } catch (Exception e) {
             logger.error("Failed to retrieve listings", e);
             Map<String, String> error = new HashMap<>();
@@ -94,12 +135,15 @@ public class ListingController {
     /**
      * Get listing by ID (public endpoint)
      * @param listingId the listing ID
+     * @param validator ETag the conditional GET check validated the request against (absent if none)
      * @return listing data or error
      */
     @GetMapping("/{listingId}")
-    public ResponseEntity<?> getListingById(@PathVariable Long listingId) {
+    public ResponseEntity<?> getListingById(
+            @PathVariable Long listingId,
+            @RequestAttribute(name = ConditionalGetInterceptor.VALIDATOR_ATTRIBUTE, required = false) String validator) {
         try {
-            Optional<ListingDTO> listing = listingService.getListingById(listingId);
+            Optional<ListingDTO> listing = listingService.getListingById(listingId, validator);
             if (listing.isPresent()) {
                 return ResponseEntity.ok(listing.get());
             } else {
@@ -119,6 +163,7 @@ public class ListingController {
      * @param query search query
      * @param page page number
      * @param size page size
+     * @param mode search mode: auto (FULLTEXT when available), fulltext (relevance order, error if unavailable) or like
      * @return paginated search results
      */
     @GetMapping("/search")
@@ -127,7 +172,8 @@ public class ListingController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "12") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortDir) {
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(defaultValue = "auto") String mode) {
 
         try {
             if (query == null || query.trim().isEmpty()) {
@@ -136,9 +182,38 @@ public class ListingController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
             }
 
-            Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
-            Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
-            Page<ListingDTO> listingsPage = listingService.searchListings(query.trim(), pageable);
+            if (!mode.equalsIgnoreCase("auto") && !mode.equalsIgnoreCase("fulltext") && !mode.equalsIgnoreCase("like")) {
+                Map<String, String> error = new HashMap<>();
+                error.put("message", "Invalid search mode. Must be auto, fulltext, or like");
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+            }
+
+            if (mode.equalsIgnoreCase("fulltext")) {
+                // An explicit FULLTEXT request is not silently answered with LIKE results
+                if (!listingService.hasFullTextTerms(query.trim())) {
+                    Map<String, String> error = new HashMap<>();
+                    error.put("message", "FULLTEXT search needs at least one word of 3 or more characters");
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+                }
+                if (!listingService.isFullTextIndexAvailable()) {
+                    Map<String, String> error = new HashMap<>();
+                    error.put("message", "FULLTEXT search is not available right now, use mode=auto or mode=like");
+                    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+                }
+            }
+
+            // In auto mode FULLTEXT falls back to LIKE when the index is missing or the query has no
+            // indexable words; the response's mode field reports which one ran
+            boolean fullText = !mode.equalsIgnoreCase("like") && listingService.canUseFullTextSearch(query.trim());
+
+            Page<ListingDTO> listingsPage;
+            if (fullText) {
+                listingsPage = listingService.searchListingsFullText(query.trim(), PageRequest.of(page, size));
+            } else {
+                Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+                Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
+                listingsPage = listingService.searchListings(query.trim(), pageable);
+            }
 
             Map<String, Object> response = new HashMap<>();
             response.put("listings", listingsPage.getContent());
@@ -146,6 +221,7 @@ public class ListingController {
             response.put("totalItems", listingsPage.getTotalElements());
             response.put("totalPages", listingsPage.getTotalPages());
             response.put("query", query);
+            response.put("mode", fullText ? "fulltext" : "like");
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -155,6 +231,107 @@ public class ListingController {
         }
     }
 
+    /**
+     * Instant search over available listings using the in-memory search index (public endpoint).
+     * Text, category, condition and price are matched in memory; the last word is prefix-matched.
+     * @param query search text
+     * @param categoryId category filter
+     * @param condition condition filter
+     * @param minPrice minimum price
+     * @param maxPrice maximum price
+     * @param page page number
+     * @param size page size
+     * @return paginated search results, newest first
+     */
+    @GetMapping("/search/instant")
+    public ResponseEntity<?> instantSearchListings(
+            @RequestParam String query,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) ListingCondition condition,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "12") int size) {
+
+        try {
+            if (query == null || query.trim().isEmpty()) {
+                Map<String, String> error = new HashMap<>();
+                error.put("message", "Search query is required");
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+            }
+
+            if (!listingService.isSearchIndexReady()) {
+                Map<String, String> error = new HashMap<>();
+                error.put("message", "Search index is not ready, use /api/listings/search");
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+            }
+
+            Page<ListingDTO> listingsPage = listingService.searchListingsIndexed(query.trim(), categoryId, condition,
+                                                                                minPrice, maxPrice, PageRequest.of(page, size));
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("listings", listingsPage.getContent());
+            response.put("currentPage", listingsPage.getNumber());
+            response.put("totalItems", listingsPage.getTotalElements());
+            response.put("totalPages", listingsPage.getTotalPages());
+            response.put("query", query);
+
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "Search failed");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
+    /**
+     * Search-as-you-type suggestions for listing titles and categories (public endpoint).
+     * Answered from memory without querying the database.
+     * @param prefix the text typed so far
+     * @param limit maximum suggestions per group
+     * @return title and category suggestions
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggestListings(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "8") int limit) {
+
+        try {
+            if (prefix == null || prefix.isBlank()) {
+                Map<String, String> error = new HashMap<>();
+                error.put("message", "Prefix is required");
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+            }
+
+            if (limit < 1 || limit > 20) {
+                Map<String, String> error = new HashMap<>();
+                error.put("message", "Limit must be between 1 and 20");
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+            }
+
+            if (!listingService.isSuggestionIndexReady()) {
+                Map<String, String> error = new HashMap<>();
+                error.put("message", "Suggestions are not available yet");
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("prefix", prefix);
+            response.put("listings", listingService.suggestTitles(prefix, limit));
+            response.put("categories", listingService.suggestCategories(prefix, limit));
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "Failed to retrieve suggestions");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
     /**
      * Filter listings with advanced criteria (public endpoint)
      * @param categoryId category filter
@@ -164,6 +341,8 @@ public class ListingController {
      * @param listingType type filter
      * @param page page number
      * @param size page size
+     * @param cursor keyset cursor (switches to cursor mode when present; empty for the first page)
+     * @param includeTotal whether cursor mode should also count all matching listings
      * @return filtered listings
      */
     @GetMapping("/filter")
@@ -176,7 +355,9 @@ public class ListingController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "12") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortDir) {
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
 
         try {
             // Convert string parameters to enums
@@ -202,6 +383,14 @@ public class ListingController {
                 }
             }
 
+            if (cursor != null) {
+                if (!isKeysetSort(sortBy, sortDir)) {
+                    return keysetSortError();
+                }
+                return ResponseEntity.ok(buildCursorResponse(categoryId, minPrice, maxPrice, condition, listingType,
+                                                             null, cursor, size, includeTotal));
+            }
+
             Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
             Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
             Page<ListingDTO> listingsPage = listingService.filterListings(categoryId, minPrice, maxPrice,
@@ -214,6 +403,10 @@ public class ListingController {
             response.put("totalPages", listingsPage.getTotalPages());
 
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", "Filter failed: " + e.getMessage());
@@ -225,14 +418,24 @@ public class ListingController {
      * Get recent listings (public endpoint)
      * @param page page number
      * @param size page size
+     * @param cursor keyset cursor (switches to cursor mode when present; empty for the first page)
+     * @param includeTotal whether cursor mode should also count all matching listings
      * @return recent listings
      */
     @GetMapping("/recent")
     public ResponseEntity<?> getRecentListings(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "12") int size) {
+            @RequestParam(defaultValue = "12") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
 
         try {
+            if (cursor != null) {
+                return ResponseEntity.ok(buildCursorResponse(null, null, null, null, null,
+                                                             listingService.recentListingsThreshold(),
+                                                             cursor, size, includeTotal));
+            }
+
             Pageable pageable = PageRequest.of(page, size);
             Page<ListingDTO> listingsPage = listingService.getRecentListings(pageable);
 
@@ -243,6 +446,10 @@ public class ListingController {
             response.put("totalPages", listingsPage.getTotalPages());
 
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", "Failed to retrieve recent listings");
@@ -251,21 +458,40 @@ public class ListingController {
     }
 
     /**
-     * Get listings by category (public endpoint)
+     * Get listings by category, newest first (public endpoint)
      * @param categoryId the category ID
      * @param page page number
      * @param size page size
+     * @param cursor keyset cursor (switches to cursor mode when present; empty for the first page)
+     * @param includeTotal whether cursor mode should also count all matching listings
+     * @param ifNoneMatch ETag of the default page the client already has
+     * @param validator ETag the conditional GET check validated the request against (absent if none)
      * @return listings in category
      */
     @GetMapping("/category/{categoryId}")
     public ResponseEntity<?> getListingsByCategory(
             @PathVariable Long categoryId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "12") int size) {
+            @RequestParam(defaultValue = "12") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestAttribute(name = ConditionalGetInterceptor.VALIDATOR_ATTRIBUTE, required = false) String validator) {
 
         try {
-            Pageable pageable = PageRequest.of(page, size);
-            Page<ListingDTO> listingsPage = listingService.getListingsByCategory(categoryId, pageable);
+            if (cursor == null && page == 0 && size == ListingService.DEFAULT_BROWSE_PAGE_SIZE) {
+                return snapshotResponse(listingService.getDefaultBrowsePage(categoryId), ifNoneMatch);
+            }
+
+            if (cursor != null) {
+                Map<String, Object> response = buildCursorResponse(categoryId, null, null, null, null, null,
+                                                                   cursor, size, includeTotal);
+                response.put("categoryId", categoryId);
+                return ResponseEntity.ok(response);
+            }
+
+            Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+            Page<ListingDTO> listingsPage = listingService.getListingsByCategory(categoryId, pageable, validator);
 
             Map<String, Object> response = new HashMap<>();
             response.put("listings", listingsPage.getContent());
@@ -275,6 +501,10 @@ public class ListingController {
             response.put("categoryId", categoryId);
 
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", "Failed to retrieve listings by category");
@@ -356,6 +586,10 @@ public class ListingController {
             Map<String, String> error = new HashMap<>();
             error.put("message", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (OptimisticLockingFailureException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "Listing was changed by someone else, please reload and try again");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", "Failed to update listing");
@@ -382,6 +616,10 @@ public class ListingController {
             Map<String, String> error = new HashMap<>();
             error.put("message", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (OptimisticLockingFailureException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "Listing was changed by someone else, please reload and try again");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", "Failed to delete listing");
@@ -427,6 +665,58 @@ public class ListingController {
         }
     }
 
+    /**
+     * Admin endpoint to export all listings with a status as newline-delimited JSON.
+     * Listings are streamed from the database in chunks instead of being loaded into memory at once.
+     * @param status listing status to export
+     * @param chunkSize number of listings fetched per database round trip
+     * @return NDJSON stream of listings or error
+     */
+    @GetMapping("/admin/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> exportListingsByStatus(
+            @RequestParam ListingStatus status,
+            @RequestParam(defaultValue = "500") int chunkSize) {
+
+        if (chunkSize < 1 || chunkSize > 5000) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "Chunk size must be between 1 and 5000");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            listingService.streamListingsByStatus(status, chunkSize, listing -> {
+                try {
+                    outputStream.write(objectMapper.writeValueAsBytes(listing));
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            outputStream.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    /**
+     * Admin endpoint to get listing cache statistics
+     * @return hit, miss and eviction counters for listing details and browse pages
+     */
+    @GetMapping("/admin/cache-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getCacheStats() {
+        try {
+            return ResponseEntity.ok(listingService.getCacheStats());
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "Failed to retrieve cache statistics");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
     /**
      * Admin endpoint to force update listing status (moderation)
      * @param listingId the listing ID
@@ -459,6 +749,10 @@ public class ListingController {
             Map<String, String> error = new HashMap<>();
             error.put("message", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (OptimisticLockingFailureException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "Listing was changed by someone else, please reload and try again");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", "Failed to update listing status");
@@ -483,6 +777,10 @@ public class ListingController {
             Map<String, String> error = new HashMap<>();
             error.put("message", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (OptimisticLockingFailureException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "Listing was changed by someone else, please reload and try again");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", "Failed to delete listing");
@@ -523,6 +821,68 @@ public class ListingController {
         }
     }
 
+    /**
+     * Helper method to send a pre-serialized browse page, or 304 if the client already has it
+     */
+    private ResponseEntity<?> snapshotResponse(BrowsePageSnapshot snapshot, String ifNoneMatch) {
+        if (snapshot.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(snapshot.getEtag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.getBody());
+    }
+
+    /**
+     * Helper method to build a keyset-paginated listings response.
+     * Listings are ordered by createdAt desc, listingId desc; the total is only counted on request.
+     * @throws IllegalArgumentException if the cursor is invalid
+     */
+    private Map<String, Object> buildCursorResponse(Long categoryId, BigDecimal minPrice, BigDecimal maxPrice,
+                                                    ListingCondition condition, ListingType listingType,
+                                                    LocalDateTime createdSince, String cursor, int size,
+                                                    boolean includeTotal) {
+        ListingCursor after = ListingCursor.decode(cursor);
+        Slice<ListingDTO> slice = listingService.getAvailableListingsAfter(categoryId, minPrice, maxPrice,
+                                                                           condition, listingType, createdSince,
+                                                                           after, size);
+
+        List<ListingDTO> listings = slice.getContent();
+        Map<String, Object> response = new HashMap<>();
+        response.put("listings", listings);
+        response.put("pageSize", slice.getSize());
+        response.put("hasMore", slice.hasNext());
+        response.put("nextCursor", slice.hasNext() && !listings.isEmpty()
+                ? ListingCursor.after(listings.get(listings.size() - 1)).encode()
+                : null);
+        if (includeTotal) {
+            response.put("totalItems", listingService.countAvailableListings(categoryId, minPrice, maxPrice,
+                                                                             condition, listingType, createdSince));
+        }
+        return response;
+    }
+
+    /**
+     * Helper method to check that the requested sort matches the keyset order (createdAt desc)
+     */
+    private boolean isKeysetSort(String sortBy, String sortDir) {
+        return "createdAt".equals(sortBy) && sortDir.equalsIgnoreCase("desc");
+    }
+
+    /**
+     * Helper method to build the error returned when cursor mode is combined with another sort
+     */
+    private ResponseEntity<?> keysetSortError() {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", "Cursor pagination only supports sortBy=createdAt and sortDir=desc");
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
     /**
      * Helper method to get current user ID from security context
      * Extracts user ID from the authenticated User entity in SecurityContext
@@ -537,4 +897,4 @@ public class ListingController {
         }
         throw new IllegalStateException("User not authenticated");
     }
-}
\ No newline at end of file
+}
@@ -2,9 +2,16 @@ package com.vinuni.circularmarket.controller;
 
 import com.vinuni.circularmarket.dto.CreateOrderRequest;
 import com.vinuni.circularmarket.dto.OrderDTO;
+import com.vinuni.circularmarket.model.OrderStatus;
 import com.vinuni.circularmarket.model.User;
+import com.vinuni.circularmarket.service.DuplicateActiveOrderException;
+import com.vinuni.circularmarket.service.OrderAdmissionRejectedException;
 import com.vinuni.circularmarket.service.OrderService;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -12,6 +19,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,6 +31,8 @@ import java.util.Optional;
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5174", "http://localhost:8010", "https://leon-uninterdicted-traci.ngrok-free.dev"})
 public class OrderController {
 
+    private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
+
     private final OrderService orderService;
 
     public OrderController(OrderService orderService) {
@@ -45,10 +55,18 @@ public class OrderController {
             Map<String, String> error = new HashMap<>();
             error.put("message", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (DuplicateActiveOrderException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        } catch (OrderAdmissionRejectedException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(error);
         } catch (Exception e) {
-            // Log the actual error for debugging
-            System.err.println("ERROR creating order: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Failed to create order for listing {}", request.getListingId(), e);
             Map<String, String> error = new HashMap<>();
             error.put("message", "Failed to create order: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
@@ -114,6 +132,62 @@ public class OrderController {
         }
     }
 
+    /**
+     * Get one page of the buyer's order history, newest first
+     * @param status status filter (optional)
+     * @param beforeTime order date of the last order of the previous page (optional)
+     * @param beforeId ID of the last order of the previous page (optional)
+     * @param limit page size
+     * @return orders and the cursor of the next page
+     */
+    @GetMapping("/my-orders/history")
+    public ResponseEntity<?> getMyOrderHistory(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeTime,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            Long buyerId = getCurrentUserId();
+            return ResponseEntity.ok(orderService.getOrderHistory(buyerId, false, status, beforeTime, beforeId, limit));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "Failed to retrieve your orders");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
+    /**
+     * Get one page of the orders on the seller's listings, newest first
+     * @param status status filter (optional)
+     * @param beforeTime order date of the last order of the previous page (optional)
+     * @param beforeId ID of the last order of the previous page (optional)
+     * @param limit page size
+     * @return orders and the cursor of the next page
+     */
+    @GetMapping("/sales/history")
+    public ResponseEntity<?> getMySalesHistory(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeTime,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            Long sellerId = getCurrentUserId();
+            return ResponseEntity.ok(orderService.getOrderHistory(sellerId, true, status, beforeTime, beforeId, limit));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "Failed to retrieve your sales");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
     /**
      * Confirm an order (seller action)
      * @param orderId the order ID
@@ -1,5 +1,6 @@
 package com.vinuni.circularmarket.controller;
 
+import com.vinuni.circularmarket.dto.BulkUserUpdateResultDTO;
 import com.vinuni.circularmarket.dto.UserDTO;
 import com.vinuni.circularmarket.model.UserRole;
 import com.vinuni.circularmarket.model.UserStatus;
@@ -258,19 +259,8 @@ public class UserController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
             }
 
-            for (Long userId : userIds) {
-                try {
-                    userService.updateUserStatus(userId, com.vinuni.circularmarket.model.UserStatus.active);
-                } catch (Exception e) {
-                    // Log error but continue with other users
-                    System.err.println("Failed to activate user " + userId + ": " + e.getMessage());
-                }
-            }
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("message", "Bulk activation completed");
-            response.put("processed", userIds.size());
-            return ResponseEntity.ok(response);
+            BulkUserUpdateResultDTO result = userService.bulkUpdateUserStatus(userIds, UserStatus.active);
+            return ResponseEntity.ok(bulkResponse("Bulk activation completed", result));
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", "Bulk activation failed");
@@ -293,19 +283,8 @@ public class UserController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
             }
 
-            for (Long userId : userIds) {
-                try {
-                    userService.updateUserStatus(userId, com.vinuni.circularmarket.model.UserStatus.inactive);
-                } catch (Exception e) {
-                    // Log error but continue with other users
-                    System.err.println("Failed to deactivate user " + userId + ": " + e.getMessage());
-                }
-            }
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("message", "Bulk deactivation completed");
-            response.put("processed", userIds.size());
-            return ResponseEntity.ok(response);
+            BulkUserUpdateResultDTO result = userService.bulkUpdateUserStatus(userIds, UserStatus.inactive);
+            return ResponseEntity.ok(bulkResponse("Bulk deactivation completed", result));
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", "Bulk deactivation failed");
@@ -328,19 +307,8 @@ public class UserController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
             }
 
-            for (Long userId : userIds) {
-                try {
-                    userService.updateUserRole(userId, com.vinuni.circularmarket.model.UserRole.admin);
-                } catch (Exception e) {
-                    // Log error but continue with other users
-                    System.err.println("Failed to promote user " + userId + ": " + e.getMessage());
-                }
-            }
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("message", "Bulk promotion completed");
-            response.put("processed", userIds.size());
-            return ResponseEntity.ok(response);
+            BulkUserUpdateResultDTO result = userService.bulkUpdateUserRole(userIds, UserRole.admin);
+            return ResponseEntity.ok(bulkResponse("Bulk promotion completed", result));
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", "Bulk promotion failed");
@@ -363,19 +331,8 @@ public class UserController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
             }
 
-            for (Long userId : userIds) {
-                try {
-                    userService.updateUserRole(userId, com.vinuni.circularmarket.model.UserRole.student);
-                } catch (Exception e) {
-                    // Log error but continue with other users
-                    System.err.println("Failed to demote user " + userId + ": " + e.getMessage());
-                }
-            }
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("message", "Bulk demotion completed");
-            response.put("processed", userIds.size());
-            return ResponseEntity.ok(response);
+            BulkUserUpdateResultDTO result = userService.bulkUpdateUserRole(userIds, UserRole.student);
+            return ResponseEntity.ok(bulkResponse("Bulk demotion completed", result));
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", "Bulk demotion failed");
@@ -408,4 +365,23 @@ public class UserController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Build the response of a bulk operation
+     * @param message summary message
+     * @param result per-ID outcome
+     * @return response body
+     */
+    private Map<String, Object> bulkResponse(String message, BulkUserUpdateResultDTO result) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", message);
+        response.put("processed", result.getRequested());
+        response.put("updated", result.getUpdated());
+        response.put("unchanged", result.getUnchanged());
+        response.put("notFound", result.getNotFound());
+        response.put("updatedIds", result.getUpdatedIds());
+        response.put("unchangedIds", result.getUnchangedIds());
+        response.put("notFoundIds", result.getNotFoundIds());
+        return response;
+    }
+}
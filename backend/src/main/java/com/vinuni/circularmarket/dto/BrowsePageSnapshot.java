@@ -0,0 +1,60 @@
+package com.vinuni.circularmarket.dto;
+
+import org.springframework.util.DigestUtils;
+
+import java.util.List;
+
+/**
+ * A browse page response serialized once to UTF-8 JSON, with a strong ETag over the bytes.
+ * Kept by the listing cache so hot browse requests are answered without DTO conversion or serialization.
+ */
+public class BrowsePageSnapshot {
+
+    private final byte[] body;
+    private final String etag;
+    private final List<Long> listingIds;
+
+    public BrowsePageSnapshot(byte[] body, List<Long> listingIds) {
+        this.body = body;
+        this.etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+        this.listingIds = List.copyOf(listingIds);
+    }
+
+    /**
+     * Check whether a listing appears on this page
+     * @param listingId the listing ID
+     * @return true if the listing is part of the page
+     */
+    public boolean containsListing(Long listingId) {
+        return listingIds.contains(listingId);
+    }
+
+    /**
+     * Check an If-None-Match header against this snapshot's ETag
+     * @param ifNoneMatch header value (may list several ETags, be weak or be *)
+     * @return true if the client already has this version
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+}
@@ -0,0 +1,65 @@
+package com.vinuni.circularmarket.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-ID outcome of a bulk comment moderation delete
+ */
+public class BulkCommentDeleteResultDTO {
+
+    private int requested;
+    private List<Long> deletedIds = new ArrayList<>();
+    private List<Long> notFoundIds = new ArrayList<>();
+    private int repliesDeleted; // replies removed together with the requested comments
+    private int totalDeleted;
+
+    // Default constructor
+    public BulkCommentDeleteResultDTO() {}
+
+    // Constructor with requested count
+    public BulkCommentDeleteResultDTO(int requested) {
+        this.requested = requested;
+    }
+
+    // Getters and setters
+    public int getRequested() {
+        return requested;
+    }
+
+    public void setRequested(int requested) {
+        this.requested = requested;
+    }
+
+    public List<Long> getDeletedIds() {
+        return deletedIds;
+    }
+
+    public void setDeletedIds(List<Long> deletedIds) {
+        this.deletedIds = deletedIds;
+    }
+
+    public List<Long> getNotFoundIds() {
+        return notFoundIds;
+    }
+
+    public void setNotFoundIds(List<Long> notFoundIds) {
+        this.notFoundIds = notFoundIds;
+    }
+
+    public int getRepliesDeleted() {
+        return repliesDeleted;
+    }
+
+    public void setRepliesDeleted(int repliesDeleted) {
+        this.repliesDeleted = repliesDeleted;
+    }
+
+    public int getTotalDeleted() {
+        return totalDeleted;
+    }
+
+    public void setTotalDeleted(int totalDeleted) {
+        this.totalDeleted = totalDeleted;
+    }
+}
@@ -0,0 +1,68 @@
+package com.vinuni.circularmarket.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-ID outcome of a bulk user status or role change
+ */
+public class BulkUserUpdateResultDTO {
+
+    private int requested;
+    private List<Long> updatedIds = new ArrayList<>();
+    private List<Long> unchangedIds = new ArrayList<>(); // already had the target status/role
+    private List<Long> notFoundIds = new ArrayList<>();
+
+    // Default constructor
+    public BulkUserUpdateResultDTO() {}
+
+    // Constructor with requested count
+    public BulkUserUpdateResultDTO(int requested) {
+        this.requested = requested;
+    }
+
+    // Getters and setters
+    public int getRequested() {
+        return requested;
+    }
+
+    public void setRequested(int requested) {
+        this.requested = requested;
+    }
+
+    public List<Long> getUpdatedIds() {
+        return updatedIds;
+    }
+
+    public void setUpdatedIds(List<Long> updatedIds) {
+        this.updatedIds = updatedIds;
+    }
+
+    public List<Long> getUnchangedIds() {
+        return unchangedIds;
+    }
+
+    public void setUnchangedIds(List<Long> unchangedIds) {
+        this.unchangedIds = unchangedIds;
+    }
+
+    public List<Long> getNotFoundIds() {
+        return notFoundIds;
+    }
+
+    public void setNotFoundIds(List<Long> notFoundIds) {
+        this.notFoundIds = notFoundIds;
+    }
+
+    public int getUpdated() {
+        return updatedIds.size();
+    }
+
+    public int getUnchanged() {
+        return unchangedIds.size();
+    }
+
+    public int getNotFound() {
+        return notFoundIds.size();
+    }
+}
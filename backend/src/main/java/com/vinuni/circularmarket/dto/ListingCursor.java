@@ -0,0 +1,71 @@
+package com.vinuni.circularmarket.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset pagination cursor for listing browse endpoints.
+ * Encodes the (createdAt, listingId) position of the last listing on a page.
+ */
+public class ListingCursor {
+
+    private final LocalDateTime createdAt;
+    private final Long listingId;
+
+    public ListingCursor(LocalDateTime createdAt, Long listingId) {
+        this.createdAt = createdAt;
+        this.listingId = listingId;
+    }
+
+    /**
+     * Build the cursor pointing after the given listing
+     * @param listing the last listing of a page
+     * @return cursor for the next page
+     */
+    public static ListingCursor after(ListingDTO listing) {
+        return new ListingCursor(listing.getCreatedAt(), listing.getListingId());
+    }
+
+    /**
+     * Decode a cursor token received from a client
+     * @param token the encoded cursor (blank means first page)
+     * @return decoded cursor, or null for the first page
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static ListingCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new ListingCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                                     Long.parseLong(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Encode this cursor as a URL-safe token
+     * @return encoded cursor
+     */
+    public String encode() {
+        String raw = createdAt + "|" + listingId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getListingId() {
+        return listingId;
+    }
+}
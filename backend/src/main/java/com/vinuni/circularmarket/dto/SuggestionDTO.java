@@ -0,0 +1,33 @@
+package com.vinuni.circularmarket.dto;
+
+public class SuggestionDTO {
+
+    private Long id;
+    private String text;
+
+    // Default constructor
+    public SuggestionDTO() {}
+
+    // Constructor with all fields
+    public SuggestionDTO(Long id, String text) {
+        this.id = id;
+        this.text = text;
+    }
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+}
@@ -0,0 +1,108 @@
+package com.vinuni.circularmarket.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the append-only admin activity feed
+ */
+@Entity
+@Table(name = "ActivityLog",
+       indexes = @Index(name = "idx_activity_occurred", columnList = "occurred_at, activity_id"))
+public class ActivityLog {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "activity_id")
+    private Long activityId;
+
+    @Column(name = "activity_type", nullable = false, length = 32)
+    private String activityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "actor_name", length = 100)
+    private String actorName;
+
+    @Column(name = "description", nullable = false, length = 255)
+    private String description;
+
+    @Column(name = "details", length = 255)
+    private String details;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    // Default constructor
+    public ActivityLog() {}
+
+    // Constructor with parameters
+    public ActivityLog(String activityType, Long entityId, String actorName, String description,
+                       String details, LocalDateTime occurredAt) {
+        this.activityType = activityType;
+        this.entityId = entityId;
+        this.actorName = actorName;
+        this.description = description;
+        this.details = details;
+        this.occurredAt = occurredAt;
+    }
+
+    // Getters and setters
+    public Long getActivityId() {
+        return activityId;
+    }
+
+    public void setActivityId(Long activityId) {
+        this.activityId = activityId;
+    }
+
+    public String getActivityType() {
+        return activityType;
+    }
+
+    public void setActivityType(String activityType) {
+        this.activityType = activityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+
+    public String getActorName() {
+        return actorName;
+    }
+
+    public void setActorName(String actorName) {
+        this.actorName = actorName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getDetails() {
+        return details;
+    }
+
+    public void setDetails(String details) {
+        this.details = details;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+}
@@ -0,0 +1,101 @@
+package com.vinuni.circularmarket.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One audited create/update/delete operation (written by AuditLogService, read by the admin audit endpoint)
+ */
+@Entity
+@Table(name = "AuditLog",
+       indexes = {
+           @Index(name = "idx_audit_occurred", columnList = "occurred_at, audit_id"),
+           @Index(name = "idx_audit_entity", columnList = "entity_type, entity_id, occurred_at"),
+           @Index(name = "idx_audit_actor", columnList = "actor, occurred_at")
+       })
+public class AuditLog {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "audit_id")
+    private Long auditId;
+
+    @Column(name = "occurred_at", nullable = false, columnDefinition = "DATETIME(3)")
+    private LocalDateTime occurredAt;
+
+    @Column(name = "actor", nullable = false, length = 255)
+    private String actor;
+
+    @Column(name = "action", nullable = false, length = 16)
+    private String action;
+
+    @Column(name = "entity_type", nullable = false, length = 32)
+    private String entityType;
+
+    @Column(name = "entity_id")
+    private Long entityId;
+
+    @Column(name = "details", length = 500)
+    private String details;
+
+    // Default constructor
+    public AuditLog() {}
+
+    // Getters and setters
+    public Long getAuditId() {
+        return auditId;
+    }
+
+    public void setAuditId(Long auditId) {
+        this.auditId = auditId;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+
+    public String getActor() {
+        return actor;
+    }
+
+    public void setActor(String actor) {
+        this.actor = actor;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+
+    public String getDetails() {
+        return details;
+    }
+
+    public void setDetails(String details) {
+        this.details = details;
+    }
+}
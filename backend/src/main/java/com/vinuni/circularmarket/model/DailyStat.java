@@ -0,0 +1,91 @@
+package com.vinuni.circularmarket.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One per-day analytics fact (registrations, orders per status, revenue), written by the rollup job
+ */
+@Entity
+@Table(name = "DailyStat",
+       uniqueConstraints = @UniqueConstraint(name = "uq_daily_stat", columnNames = {"metric", "stat_date", "dimension"}))
+public class DailyStat {
+
+    public static final String REGISTRATIONS = "registrations";
+    public static final String ORDERS = "orders";
+    public static final String REVENUE = "revenue";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "daily_stat_id")
+    private Long dailyStatId;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Column(name = "metric", nullable = false, length = 32)
+    private String metric;
+
+    @Column(name = "dimension", nullable = false, length = 32)
+    private String dimension = "";
+
+    @Column(name = "stat_count", nullable = false)
+    private Long statCount = 0L;
+
+    @Column(name = "stat_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal statAmount = BigDecimal.ZERO;
+
+    // Default constructor
+    public DailyStat() {}
+
+    // Getters and setters
+    public Long getDailyStatId() {
+        return dailyStatId;
+    }
+
+    public void setDailyStatId(Long dailyStatId) {
+        this.dailyStatId = dailyStatId;
+    }
+
+    public LocalDate getStatDate() {
+        return statDate;
+    }
+
+    public void setStatDate(LocalDate statDate) {
+        this.statDate = statDate;
+    }
+
+    public String getMetric() {
+        return metric;
+    }
+
+    public void setMetric(String metric) {
+        this.metric = metric;
+    }
+
+    public String getDimension() {
+        return dimension;
+    }
+
+    public void setDimension(String dimension) {
+        this.dimension = dimension;
+    }
+
+    public Long getStatCount() {
+        return statCount;
+    }
+
+    public void setStatCount(Long statCount) {
+        this.statCount = statCount;
+    }
+
+    public BigDecimal getStatAmount() {
+        return statAmount;
+    }
+
+    public void setStatAmount(BigDecimal statAmount) {
+        this.statAmount = statAmount;
+    }
+}
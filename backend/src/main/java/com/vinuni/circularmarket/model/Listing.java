@@ -59,6 +59,11 @@ public class Listing {
     @Column(name = "status", nullable = false)
     private ListingStatus status = ListingStatus.AVAILABLE;
 
+    // Denormalized comment total, maintained by CommentService with single-statement updates
+    @Min(value = 0, message = "Comment count cannot be negative")
+    @Column(name = "comment_count", nullable = false, updatable = false)
+    private Integer commentCount = 0;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -67,6 +72,11 @@ public class Listing {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    // Optimistic lock: entity writes fail instead of overwriting a concurrent change
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // One-to-many relationships
     @OneToMany(mappedBy = "listing", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Order> orders = new ArrayList<>();
@@ -163,6 +173,14 @@ public class Listing {
         this.status = status;
     }
 
+    public Integer getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(Integer commentCount) {
+        this.commentCount = commentCount;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -179,6 +197,14 @@ public class Listing {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public List<Order> getOrders() {
         return orders;
     }
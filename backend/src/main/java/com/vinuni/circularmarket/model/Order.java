@@ -52,6 +52,11 @@ public class Order {
     @Column(name = "returned_at")
     private LocalDateTime returnedAt;
 
+    // Optimistic lock: entity writes fail instead of overwriting a concurrent change
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // One-to-one relationship with Review
     @OneToOne(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Review review;
@@ -157,6 +162,14 @@ public class Order {
         this.returnedAt = returnedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Review getReview() {
         return review;
     }
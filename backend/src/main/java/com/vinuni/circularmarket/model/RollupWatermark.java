@@ -0,0 +1,58 @@
+package com.vinuni.circularmarket.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a rollup job: every day before nextDate has been rolled up
+ */
+@Entity
+@Table(name = "RollupWatermark")
+public class RollupWatermark {
+
+    @Id
+    @Column(name = "rollup_name", length = 64)
+    private String rollupName;
+
+    @Column(name = "next_date", nullable = false)
+    private LocalDate nextDate;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    // Default constructor
+    public RollupWatermark() {}
+
+    // Constructor with parameters
+    public RollupWatermark(String rollupName, LocalDate nextDate) {
+        this.rollupName = rollupName;
+        this.nextDate = nextDate;
+    }
+
+    // Getters and setters
+    public String getRollupName() {
+        return rollupName;
+    }
+
+    public void setRollupName(String rollupName) {
+        this.rollupName = rollupName;
+    }
+
+    public LocalDate getNextDate() {
+        return nextDate;
+    }
+
+    public void setNextDate(LocalDate nextDate) {
+        this.nextDate = nextDate;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
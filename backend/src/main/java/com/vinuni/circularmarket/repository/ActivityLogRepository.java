@@ -0,0 +1,37 @@
+package com.vinuni.circularmarket.repository;
+
+import com.vinuni.circularmarket.model.ActivityLog;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ActivityLogRepository extends JpaRepository<ActivityLog, Long> {
+
+    /**
+     * Find the newest activities
+     * @param pageable page size (page number is ignored by callers, always 0)
+     * @return activities, newest first
+     */
+    @Query("SELECT a FROM ActivityLog a ORDER BY a.occurredAt DESC, a.activityId DESC")
+    List<ActivityLog> findLatest(Pageable pageable);
+
+    /**
+     * Find the activities older than a keyset cursor
+     * @param beforeTime timestamp of the last activity already returned
+     * @param beforeId ID of the last activity already returned
+     * @param pageable page size (page number is ignored by callers, always 0)
+     * @return activities, newest first
+     */
+    @Query("SELECT a FROM ActivityLog a " +
+           "WHERE a.occurredAt <= :beforeTime AND (a.occurredAt < :beforeTime OR a.activityId < :beforeId) " +
+           "ORDER BY a.occurredAt DESC, a.activityId DESC")
+    List<ActivityLog> findBefore(@Param("beforeTime") LocalDateTime beforeTime,
+                                 @Param("beforeId") Long beforeId,
+                                 Pageable pageable);
+}
@@ -0,0 +1,48 @@
+package com.vinuni.circularmarket.repository;
+
+import com.vinuni.circularmarket.model.AuditLog;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
+
+    /**
+     * Find audit entries matching optional filters, newest first, after an optional keyset cursor
+     * @param action action filter (null for any)
+     * @param entityType entity type filter (null for any)
+     * @param entityId entity ID filter (null for any)
+     * @param actor actor filter (null for any)
+     * @param from earliest timestamp (null for no bound)
+     * @param to latest timestamp (null for no bound)
+     * @param beforeTime timestamp of the last entry already returned (null for the first page)
+     * @param beforeId ID of the last entry already returned (null for the first page)
+     * @param pageable page size (page number is ignored by callers, always 0)
+     * @return audit entries, newest first
+     */
+    @Query("SELECT a FROM AuditLog a WHERE " +
+           "(:action IS NULL OR a.action = :action) " +
+           "AND (:entityType IS NULL OR a.entityType = :entityType) " +
+           "AND (:entityId IS NULL OR a.entityId = :entityId) " +
+           "AND (:actor IS NULL OR a.actor = :actor) " +
+           "AND (:fromTime IS NULL OR a.occurredAt >= :fromTime) " +
+           "AND (:toTime IS NULL OR a.occurredAt <= :toTime) " +
+           "AND (:beforeTime IS NULL OR (a.occurredAt <= :beforeTime " +
+           "     AND (a.occurredAt < :beforeTime OR a.auditId < :beforeId))) " +
+           "ORDER BY a.occurredAt DESC, a.auditId DESC")
+    List<AuditLog> findPage(@Param("action") String action,
+                            @Param("entityType") String entityType,
+                            @Param("entityId") Long entityId,
+                            @Param("actor") String actor,
+                            @Param("fromTime") LocalDateTime from,
+                            @Param("toTime") LocalDateTime to,
+                            @Param("beforeTime") LocalDateTime beforeTime,
+                            @Param("beforeId") Long beforeId,
+                            Pageable pageable);
+}
@@ -4,11 +4,14 @@ import com.vinuni.circularmarket.model.Comment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
@@ -20,6 +23,14 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
      */
     List<Comment> findByListing_ListingId(Long listingId);
 
+    /**
+     * Get the listing a comment belongs to
+     * @param commentId the comment ID
+     * @return optional listing ID
+     */
+    @Query("SELECT c.listing.listingId FROM Comment c WHERE c.commentId = :commentId")
+    Optional<Long> findListingIdByCommentId(@Param("commentId") Long commentId);
+
     /**
      * Find comments by listing ID with pagination
      * @param listingId the listing ID
@@ -35,6 +46,15 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
      */
     List<Comment> findByListing_ListingIdAndParentIsNullOrderByCreatedAtAsc(Long listingId);
 
+    /**
+     * Find every comment of a listing, replies at any depth included, with its author fetched
+     * @param listingId the listing ID
+     * @return comments of the listing, oldest first
+     */
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.listing.listingId = :listingId " +
+           "ORDER BY c.createdAt ASC, c.commentId ASC")
+    List<Comment> findAllByListingIdWithUser(@Param("listingId") Long listingId);
+
     /**
      * Find top-level comments by listing ID with pagination
      * @param listingId the listing ID
@@ -117,8 +137,23 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByListing_ListingIdAndUser_UserId(Long listingId, Long userId);
 
     /**
-     * Delete all replies to a comment (for cascade delete)
-     * @param parentId the parent comment ID
+     * Find comments and their whole reply subtrees in one recursive query
+     * @param commentIds the root comment IDs (one chunk)
+     * @return list of [comment_id, root_id, listing_id]; a comment under several roots appears once per root
+     */
+    @Query(value = "WITH RECURSIVE subtree (comment_id, root_id, listing_id) AS (" +
+                   "  SELECT c.comment_id, c.comment_id, c.listing_id FROM `Comment` c WHERE c.comment_id IN (:commentIds) " +
+                   "  UNION ALL " +
+                   "  SELECT r.comment_id, s.root_id, r.listing_id FROM `Comment` r JOIN subtree s ON r.parent_id = s.comment_id" +
+                   ") SELECT comment_id, root_id, listing_id FROM subtree", nativeQuery = true)
+    List<Object[]> findSubtrees(@Param("commentIds") Collection<Long> commentIds);
+
+    /**
+     * Delete many comments in one statement
+     * @param commentIds the comment IDs (one chunk)
+     * @return number of rows deleted
      */
-    void deleteByParent_CommentId(Long parentId);
-}
\ No newline at end of file
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM `Comment` WHERE comment_id IN (:commentIds)", nativeQuery = true)
+    int deleteAllByIdIn(@Param("commentIds") Collection<Long> commentIds);
+}
@@ -0,0 +1,92 @@
+package com.vinuni.circularmarket.repository;
+
+import com.vinuni.circularmarket.model.DailyStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyStatRepository extends JpaRepository<DailyStat, Long> {
+
+    /**
+     * Delete the rollup rows of a day range so it can be recomputed
+     * @param fromDate first day (inclusive)
+     * @param toDate last day (exclusive)
+     * @return number of rows deleted
+     */
+    @Modifying
+    @Query(value = "DELETE FROM `DailyStat` WHERE stat_date >= :fromDate AND stat_date < :toDate", nativeQuery = true)
+    int deleteRange(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    /**
+     * Roll up user registrations per day
+     * @param fromDate first day (inclusive)
+     * @param toDate last day (exclusive)
+     * @return number of rows inserted
+     */
+    @Modifying
+    @Query(value = "INSERT INTO `DailyStat` (stat_date, metric, dimension, stat_count, stat_amount) " +
+                   "SELECT DATE(u.created_at), 'registrations', '', COUNT(*), 0 FROM `User` u " +
+                   "WHERE u.created_at >= :fromDate AND u.created_at < :toDate " +
+                   "GROUP BY DATE(u.created_at)", nativeQuery = true)
+    int rollupRegistrations(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    /**
+     * Roll up orders per order day and current status
+     * @param fromDate first day (inclusive)
+     * @param toDate last day (exclusive)
+     * @return number of rows inserted
+     */
+    @Modifying
+    @Query(value = "INSERT INTO `DailyStat` (stat_date, metric, dimension, stat_count, stat_amount) " +
+                   "SELECT DATE(o.order_date), 'orders', o.status, COUNT(*), COALESCE(SUM(o.final_price), 0) FROM `Order` o " +
+                   "WHERE o.order_date >= :fromDate AND o.order_date < :toDate " +
+                   "GROUP BY DATE(o.order_date), o.status", nativeQuery = true)
+    int rollupOrders(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    /**
+     * Roll up completed-order revenue per completion day
+     * @param fromDate first day (inclusive)
+     * @param toDate last day (exclusive)
+     * @return number of rows inserted
+     */
+    @Modifying
+    @Query(value = "INSERT INTO `DailyStat` (stat_date, metric, dimension, stat_count, stat_amount) " +
+                   "SELECT DATE(o.completed_at), 'revenue', '', COUNT(*), COALESCE(SUM(o.final_price), 0) FROM `Order` o " +
+                   "WHERE o.status = 'completed' AND o.completed_at >= :fromDate AND o.completed_at < :toDate " +
+                   "GROUP BY DATE(o.completed_at)", nativeQuery = true)
+    int rollupRevenue(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    /**
+     * Daily counts of a metric, summed over its dimensions
+     * @param metric the metric name
+     * @param fromDate first day (inclusive)
+     * @param toDate last day (exclusive)
+     * @return list of [date, count] ordered by date
+     */
+    @Query("SELECT d.statDate, SUM(d.statCount) FROM DailyStat d " +
+           "WHERE d.metric = :metric AND d.statDate >= :fromDate AND d.statDate < :toDate " +
+           "GROUP BY d.statDate ORDER BY d.statDate")
+    List<Object[]> sumCountsByDate(@Param("metric") String metric,
+                                   @Param("fromDate") LocalDate fromDate,
+                                   @Param("toDate") LocalDate toDate);
+
+    /**
+     * Daily amounts of a metric, summed over its dimensions
+     * @param metric the metric name
+     * @param fromDate first day (inclusive)
+     * @param toDate last day (exclusive)
+     * @return list of [date, amount] ordered by date
+     */
+    @Query("SELECT d.statDate, SUM(d.statAmount) FROM DailyStat d " +
+           "WHERE d.metric = :metric AND d.statDate >= :fromDate AND d.statDate < :toDate " +
+           "GROUP BY d.statDate ORDER BY d.statDate")
+    List<Object[]> sumAmountsByDate(@Param("metric") String metric,
+                                    @Param("fromDate") LocalDate fromDate,
+                                    @Param("toDate") LocalDate toDate);
+}
@@ -6,18 +6,31 @@ import com.vinuni.circularmarket.model.ListingStatus;
 import com.vinuni.circularmarket.model.ListingType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ListingRepository extends JpaRepository<Listing, Long> {
 
+    /**
+     * Find all listings with pagination, fetching seller and category in the same query
+     * @param pageable pagination information
+     * @return page of listings
+     */
+    @Override
+    @EntityGraph(attributePaths = {"seller", "category"})
+    Page<Listing> findAll(Pageable pageable);
+
     /**
      * Find listings by seller ID
      * @param sellerId the seller ID
@@ -31,6 +44,7 @@ public interface ListingRepository extends JpaRepository<Listing, Long> {
      * @param pageable pagination information
      * @return page of listings by the seller
      */
+    @EntityGraph(attributePaths = {"seller", "category"})
     Page<Listing> findBySeller_UserId(Long sellerId, Pageable pageable);
 
     /**
@@ -47,6 +61,43 @@ public interface ListingRepository extends JpaRepository<Listing, Long> {
      */
     List<Listing> findByStatus(ListingStatus status);
 
+    /**
+     * Find the next chunk of listings with a status, keyset-paged by listing ID
+     * (used for streaming exports so memory stays bounded by the chunk size)
+     * @param status the listing status
+     * @param listingId only listings with a greater ID are returned
+     * @param pageable chunk size
+     * @return next chunk of listings ordered by listing ID
+     */
+    @EntityGraph(attributePaths = {"seller", "category"})
+    List<Listing> findByStatusAndListingIdGreaterThanOrderByListingIdAsc(ListingStatus status, Long listingId, Pageable pageable);
+
+    /**
+     * Find the next chunk of listings of any status, keyset-paged by listing ID (used to build the search index)
+     * @param listingId only listings with a greater ID are returned
+     * @param pageable chunk size
+     * @return next chunk of listings ordered by listing ID, with category loaded
+     */
+    @EntityGraph(attributePaths = {"category"})
+    List<Listing> findByListingIdGreaterThanOrderByListingIdAsc(Long listingId, Pageable pageable);
+
+    /**
+     * Get the comment count of a listing with a status (used to re-rank title suggestions)
+     * @param listingId the listing ID
+     * @param status the listing status
+     * @return one row of [listingId, commentCount], or no rows if the listing does not have the status
+     */
+    @Query("SELECT l.listingId, l.commentCount FROM Listing l WHERE l.listingId = :listingId AND l.status = :status")
+    List<Object[]> findCommentCountByIdAndStatus(@Param("listingId") Long listingId, @Param("status") ListingStatus status);
+
+    /**
+     * Get the comment counts of all listings with a status (used to re-rank title suggestions after reconciliation)
+     * @param status the listing status
+     * @return rows of [listingId, commentCount]
+     */
+    @Query("SELECT l.listingId, l.commentCount FROM Listing l WHERE l.status = :status")
+    List<Object[]> findCommentCountsByStatus(@Param("status") ListingStatus status);
+
     /**
      * Find listings by seller ID and status
      * @param sellerId the seller ID
@@ -70,11 +121,49 @@ public interface ListingRepository extends JpaRepository<Listing, Long> {
      * @param pageable pagination information
      * @return page of matching listings
      */
+    @EntityGraph(attributePaths = {"seller", "category"})
     @Query("SELECT l FROM Listing l WHERE l.status = 'AVAILABLE' AND " +
            "(LOWER(l.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(l.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
     Page<Listing> searchListings(@Param("searchTerm") String searchTerm, Pageable pageable);
 
+    /**
+     * Full-text search on title and description using the ft_listing_title_desc index.
+     * Returns only IDs ordered by relevance so the entities can be hydrated with an entity graph.
+     * @param booleanQuery MATCH ... AGAINST query in boolean mode syntax
+     * @param pageable pagination information (sorting is ignored; results are ordered by relevance)
+     * @return page of matching listing IDs, most relevant first
+     */
+    @Query(value = "SELECT l.listing_id FROM `Listing` l " +
+                   "WHERE l.status = 'available' AND " +
+                   "MATCH(l.title, l.description) AGAINST (:booleanQuery IN BOOLEAN MODE) " +
+                   "ORDER BY MATCH(l.title, l.description) AGAINST (:booleanQuery IN BOOLEAN MODE) DESC, " +
+                   "l.created_at DESC, l.listing_id DESC",
+           countQuery = "SELECT COUNT(*) FROM `Listing` l " +
+                        "WHERE l.status = 'available' AND " +
+                        "MATCH(l.title, l.description) AGAINST (:booleanQuery IN BOOLEAN MODE)",
+           nativeQuery = true)
+    Page<Long> searchListingIdsFullText(@Param("booleanQuery") String booleanQuery, Pageable pageable);
+
+    /**
+     * Count the Listing columns covered by a FULLTEXT index in the current schema
+     * (2 when ft_listing_title_desc or an equivalent index exists)
+     * @return number of title/description FULLTEXT index columns
+     */
+    @Query(value = "SELECT COUNT(DISTINCT COLUMN_NAME) FROM information_schema.STATISTICS " +
+                   "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'Listing' " +
+                   "AND INDEX_TYPE = 'FULLTEXT' AND COLUMN_NAME IN ('title', 'description')",
+           nativeQuery = true)
+    long countFullTextIndexColumns();
+
+    /**
+     * Find listings by IDs with seller and category loaded
+     * @param listingIds the listing IDs
+     * @return matching listings in no particular order
+     */
+    @EntityGraph(attributePaths = {"seller", "category"})
+    List<Listing> findByListingIdIn(Collection<Long> listingIds);
+
     /**
      * Advanced filtering with multiple criteria
      * @param categoryId category filter (optional)
@@ -99,12 +188,74 @@ public interface ListingRepository extends JpaRepository<Listing, Long> {
                                          @Param("listingType") ListingType listingType,
                                          Pageable pageable);
 
+    /**
+     * Keyset (seek) pagination over available listings, newest first.
+     * Rows are ordered by (createdAt, listingId) descending and the page starts strictly after the
+     * cursor, so the cost is the same at any depth and no COUNT query is issued.
+     * Served by idx_listing_status_created / idx_listing_status_category_created.
+     * @param categoryId category filter (optional)
+     * @param minPrice minimum price filter (optional)
+     * @param maxPrice maximum price filter (optional)
+     * @param condition condition filter (optional)
+     * @param listingType type filter (optional)
+     * @param createdSince only listings created at or after this time (optional)
+     * @param cursorCreatedAt createdAt of the last listing on the previous page (null for the first page)
+     * @param cursorListingId listingId of the last listing on the previous page (null for the first page)
+     * @param pageable page size (page number and sort are ignored)
+     * @return slice of listings after the cursor
+     */
+    @EntityGraph(attributePaths = {"seller", "category"})
+    @Query("SELECT l FROM Listing l WHERE l.status = 'AVAILABLE' " +
+           "AND (:categoryId IS NULL OR l.category.categoryId = :categoryId) " +
+           "AND (:minPrice IS NULL OR l.listPrice >= :minPrice) " +
+           "AND (:maxPrice IS NULL OR l.listPrice <= :maxPrice) " +
+           "AND (:condition IS NULL OR l.condition = :condition) " +
+           "AND (:listingType IS NULL OR l.listingType = :listingType) " +
+           "AND (:createdSince IS NULL OR l.createdAt >= :createdSince) " +
+           "AND (:cursorCreatedAt IS NULL OR (l.createdAt <= :cursorCreatedAt " +
+           "     AND (l.createdAt < :cursorCreatedAt OR l.listingId < :cursorListingId))) " +
+           "ORDER BY l.createdAt DESC, l.listingId DESC")
+    Slice<Listing> findAvailableListingsAfter(@Param("categoryId") Long categoryId,
+                                              @Param("minPrice") BigDecimal minPrice,
+                                              @Param("maxPrice") BigDecimal maxPrice,
+                                              @Param("condition") ListingCondition condition,
+                                              @Param("listingType") ListingType listingType,
+                                              @Param("createdSince") LocalDateTime createdSince,
+                                              @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                              @Param("cursorListingId") Long cursorListingId,
+                                              Pageable pageable);
+
+    /**
+     * Count available listings matching the same filters as findAvailableListingsAfter
+     * @param categoryId category filter (optional)
+     * @param minPrice minimum price filter (optional)
+     * @param maxPrice maximum price filter (optional)
+     * @param condition condition filter (optional)
+     * @param listingType type filter (optional)
+     * @param createdSince only listings created at or after this time (optional)
+     * @return number of matching listings
+     */
+    @Query("SELECT COUNT(l) FROM Listing l WHERE l.status = 'AVAILABLE' " +
+           "AND (:categoryId IS NULL OR l.category.categoryId = :categoryId) " +
+           "AND (:minPrice IS NULL OR l.listPrice >= :minPrice) " +
+           "AND (:maxPrice IS NULL OR l.listPrice <= :maxPrice) " +
+           "AND (:condition IS NULL OR l.condition = :condition) " +
+           "AND (:listingType IS NULL OR l.listingType = :listingType) " +
+           "AND (:createdSince IS NULL OR l.createdAt >= :createdSince)")
+    long countAvailableListings(@Param("categoryId") Long categoryId,
+                                @Param("minPrice") BigDecimal minPrice,
+                                @Param("maxPrice") BigDecimal maxPrice,
+                                @Param("condition") ListingCondition condition,
+                                @Param("listingType") ListingType listingType,
+                                @Param("createdSince") LocalDateTime createdSince);
+
     /**
      * Find listings by category with pagination
      * @param categoryId the category ID
      * @param pageable pagination information
      * @return page of listings in the category
      */
+    @EntityGraph(attributePaths = {"seller", "category"})
     Page<Listing> findByCategory_CategoryIdAndStatus(Long categoryId, ListingStatus status, Pageable pageable);
 
     /**
@@ -155,4 +306,75 @@ public interface ListingRepository extends JpaRepository<Listing, Long> {
      * @return number of listings with the specified status
      */
     long countByStatus(ListingStatus status);
-}
\ No newline at end of file
+
+    /**
+     * Count listings grouped by status in one query
+     * @return rows of [status, count]
+     */
+    @Query("SELECT l.status, COUNT(l) FROM Listing l GROUP BY l.status")
+    List<Object[]> countGroupedByStatus();
+
+    /**
+     * Adjust the denormalized comment count of a listing
+     * @param listingId the listing ID
+     * @param delta amount to add (negative to subtract)
+     * @return number of rows updated
+     */
+    @Modifying
+    @Query(value = "UPDATE `Listing` SET comment_count = GREATEST(CAST(comment_count AS SIGNED) + :delta, 0), " +
+                   "updated_at = updated_at WHERE listing_id = :listingId", nativeQuery = true)
+    int adjustCommentCount(@Param("listingId") Long listingId, @Param("delta") int delta);
+
+    /**
+     * Recalculate the denormalized comment count of a listing from the Comment table
+     * (pending deletes are flushed first so they are counted)
+     * @param listingId the listing ID
+     * @return number of rows updated
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE `Listing` SET comment_count = " +
+                   "(SELECT COUNT(*) FROM `Comment` c WHERE c.listing_id = :listingId), updated_at = updated_at " +
+                   "WHERE listing_id = :listingId", nativeQuery = true)
+    int syncCommentCount(@Param("listingId") Long listingId);
+
+    /**
+     * Repair drifted comment counts for all listings in one set-based statement
+     * @return number of listings whose count was corrected
+     */
+    @Modifying
+    @Query(value = "UPDATE `Listing` l " +
+                   "LEFT JOIN (SELECT listing_id, COUNT(*) AS cnt FROM `Comment` GROUP BY listing_id) c " +
+                   "ON c.listing_id = l.listing_id " +
+                   "SET l.comment_count = COALESCE(c.cnt, 0), l.updated_at = l.updated_at " +
+                   "WHERE l.comment_count <> COALESCE(c.cnt, 0)", nativeQuery = true)
+    int reconcileCommentCounts();
+
+    /**
+     * Recalculate the denormalized comment counts of several listings in one statement
+     * @param listingIds the listing IDs
+     * @return number of rows updated
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE `Listing` l " +
+                   "LEFT JOIN (SELECT listing_id, COUNT(*) AS cnt FROM `Comment` " +
+                   "           WHERE listing_id IN (:listingIds) GROUP BY listing_id) c " +
+                   "ON c.listing_id = l.listing_id " +
+                   "SET l.comment_count = COALESCE(c.cnt, 0), l.updated_at = l.updated_at " +
+                   "WHERE l.listing_id IN (:listingIds)", nativeQuery = true)
+    int syncCommentCounts(@Param("listingIds") Collection<Long> listingIds);
+
+    /**
+     * Change a listing's status only if it is still in one of the expected statuses; bumps the version
+     * so that a concurrent entity save of the same listing fails instead of restoring the old status
+     * @param listingId the listing ID
+     * @param expected the statuses the change may start from
+     * @param status the new status
+     * @return number of listings updated, 0 if the listing is in another status
+     */
+    @Modifying
+    @Query("UPDATE Listing l SET l.status = :status, l.version = l.version + 1 " +
+           "WHERE l.listingId = :listingId AND l.status IN :expected")
+    int compareAndSetStatus(@Param("listingId") Long listingId,
+                            @Param("expected") Collection<ListingStatus> expected,
+                            @Param("status") ListingStatus status);
+}
@@ -6,12 +6,15 @@ import com.vinuni.circularmarket.model.OrderStatus;
 import java.math.BigDecimal;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -89,6 +92,15 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @Query("SELECT o FROM Order o WHERE o.listing.seller.userId = :sellerId AND o.status = :status")
     List<Order> findBySeller_UserIdAndStatus(@Param("sellerId") Long sellerId, @Param("status") OrderStatus status);
 
+    /**
+     * Check whether a buyer has an order in one of the given statuses for a listing (uses idx_order_listing_status)
+     * @param listingId the listing ID
+     * @param buyerId the buyer ID
+     * @param statuses the statuses to look for
+     * @return true if such an order exists
+     */
+    boolean existsByListing_ListingIdAndBuyer_UserIdAndStatusIn(Long listingId, Long buyerId, Collection<OrderStatus> statuses);
+
     /**
      * Find active orders for a listing (requested or confirmed)
      * @param listingId the listing ID
@@ -136,6 +148,18 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      */
     long countByStatus(OrderStatus status);
 
+    /**
+     * Count orders and total their final prices per status in one query
+     * @param startDate start of the period for periodRevenue
+     * @param endDate end of the period for periodRevenue
+     * @return rows of [status, count, sum of finalPrice, count of non-null finalPrice,
+     *         sum of finalPrice completed within the period]
+     */
+    @Query("SELECT o.status, COUNT(o), COALESCE(SUM(o.finalPrice), 0), COUNT(o.finalPrice), " +
+           "COALESCE(SUM(CASE WHEN o.completedAt BETWEEN :startDate AND :endDate THEN o.finalPrice END), 0) " +
+           "FROM Order o GROUP BY o.status")
+    List<Object[]> getStatusTotals(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+
     /**
      * Find orders by date range
      * @param startDate the start date
@@ -149,7 +173,9 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      * @param currentDate the current date
      * @return list of orders to auto-complete
      */
-    @Query("SELECT o FROM Order o WHERE o.status = 'CONFIRMED' AND o.listing.listingType = 'LEND' AND o.borrowDueDate < :currentDate AND o.returnedAt IS NULL")
+    @Query("SELECT o FROM Order o JOIN FETCH o.listing l JOIN FETCH l.seller JOIN FETCH l.category JOIN FETCH o.buyer " +
+           "LEFT JOIN FETCH o.review " +
+           "WHERE o.status = 'CONFIRMED' AND l.listingType = 'LEND' AND o.borrowDueDate < :currentDate AND o.returnedAt IS NULL")
     List<Order> findAutoCompletableBorrowOrders(@Param("currentDate") LocalDateTime currentDate);
 
     /**
@@ -162,36 +188,55 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     long countBySeller_UserIdAndStatus(@Param("sellerId") Long sellerId, @Param("status") OrderStatus status);
 
     /**
-     * Count orders by listing ID and status in list
-     * @param listingId the listing ID
-     * @param statuses list of order statuses
-     * @return number of orders
+     * Rank student sellers by completed orders in one grouped query
+     * @param limit number of sellers to return
+     * @return rows of [user_id, full_name, email, total orders, completed orders, revenue, avg_rating, rating_count],
+     *         ordered by completed orders, then revenue
      */
-    @Query("SELECT COUNT(o) FROM Order o WHERE o.listing.listingId = :listingId AND o.status IN :statuses")
-    long countByListing_ListingIdAndStatusIn(@Param("listingId") Long listingId, @Param("statuses") java.util.List<OrderStatus> statuses);
+    @Query(value = "SELECT u.user_id, u.full_name, u.email, COUNT(*) AS total_orders, " +
+                   "SUM(o.status = 'completed') AS completed_orders, " +
+                   "COALESCE(SUM(CASE WHEN o.status = 'completed' " +
+                   "             THEN COALESCE(o.final_price, o.offer_price, 0) END), 0) AS revenue, " +
+                   "u.avg_rating, u.rating_count " +
+                   "FROM `Order` o " +
+                   "JOIN `Listing` l ON l.listing_id = o.listing_id " +
+                   "JOIN `User` u ON u.user_id = l.seller_id " +
+                   "WHERE u.role = 'student' " +
+                   "GROUP BY u.user_id " +
+                   "HAVING completed_orders > 0 " +
+                   "ORDER BY completed_orders DESC, revenue DESC, u.user_id " +
+                   "LIMIT :limit", nativeQuery = true)
+    List<Object[]> findTopSellers(@Param("limit") int limit);
 
     /**
-     * Calculate total revenue from completed orders
-     * @return total revenue
+     * Order totals of every seller, used to build the incremental leaderboard
+     * @return rows of [seller ID, total orders, completed orders, revenue]
      */
-    @Query("SELECT COALESCE(SUM(o.finalPrice), 0) FROM Order o WHERE o.status = 'COMPLETED'")
-    BigDecimal calculateTotalRevenue();
+    @Query("SELECT o.listing.seller.userId, COUNT(o), " +
+           "SUM(CASE WHEN o.status = 'COMPLETED' THEN 1 ELSE 0 END), " +
+           "COALESCE(SUM(CASE WHEN o.status = 'COMPLETED' THEN COALESCE(o.finalPrice, o.offerPrice) END), 0) " +
+           "FROM Order o GROUP BY o.listing.seller.userId")
+    List<Object[]> getSellerOrderTotals();
 
     /**
-     * Calculate revenue for a specific date range
-     * @param startDate start date
-     * @param endDate end date
-     * @return revenue for the period
+     * Order totals of one seller
+     * @param sellerId the seller ID
+     * @return zero or one row of [seller ID, total orders, completed orders, revenue]
      */
-    @Query("SELECT COALESCE(SUM(o.finalPrice), 0) FROM Order o WHERE o.status = 'COMPLETED' AND o.completedAt BETWEEN :startDate AND :endDate")
-    BigDecimal calculateRevenueForPeriod(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    @Query("SELECT o.listing.seller.userId, COUNT(o), " +
+           "SUM(CASE WHEN o.status = 'COMPLETED' THEN 1 ELSE 0 END), " +
+           "COALESCE(SUM(CASE WHEN o.status = 'COMPLETED' THEN COALESCE(o.finalPrice, o.offerPrice) END), 0) " +
+           "FROM Order o WHERE o.listing.seller.userId = :sellerId GROUP BY o.listing.seller.userId")
+    List<Object[]> getSellerOrderTotals(@Param("sellerId") Long sellerId);
 
     /**
-     * Calculate average order value
-     * @return average order value
+     * Count orders by listing ID and status in list
+     * @param listingId the listing ID
+     * @param statuses list of order statuses
+     * @return number of orders
      */
-    @Query("SELECT COALESCE(AVG(o.finalPrice), 0) FROM Order o WHERE o.status = 'COMPLETED'")
-    BigDecimal calculateAverageOrderValue();
+    @Query("SELECT COUNT(o) FROM Order o WHERE o.listing.listingId = :listingId AND o.status IN :statuses")
+    long countByListing_ListingIdAndStatusIn(@Param("listingId") Long listingId, @Param("statuses") java.util.List<OrderStatus> statuses);
 
     /**
      * Get order statistics by date range
@@ -210,4 +255,114 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      */
     @Query("SELECT DATE(o.completedAt) as date, COALESCE(SUM(o.finalPrice), 0) as revenue FROM Order o WHERE o.status = 'COMPLETED' AND o.completedAt BETWEEN :startDate AND :endDate GROUP BY DATE(o.completedAt) ORDER BY DATE(o.completedAt)")
     List<Object[]> getRevenueStatsByDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
-}
\ No newline at end of file
+
+    /**
+     * Get the date of the oldest order
+     * @return earliest order date, or null if there are no orders
+     */
+    @Query("SELECT MIN(o.orderDate) FROM Order o")
+    LocalDateTime findEarliestOrderDate();
+
+    /**
+     * Find the newest orders, fetching listing and buyer in the same query
+     * @param pageable page size
+     * @return orders, newest first
+     */
+    @EntityGraph(attributePaths = {"listing", "buyer"})
+    List<Order> findAllByOrderByOrderDateDesc(Pageable pageable);
+
+    /**
+     * One keyset page of a buyer's order history; listing, seller, buyer and review are fetched
+     * in the same query. Served by idx_order_buyer_date.
+     * @param buyerId the buyer ID
+     * @param status status filter (null for any)
+     * @param beforeTime order date of the last order of the previous page, null for the first page
+     * @param beforeId ID of the last order of the previous page, null for the first page
+     * @param pageable page size
+     * @return orders, newest first
+     */
+    @Query("SELECT o FROM Order o JOIN FETCH o.listing l JOIN FETCH l.seller JOIN FETCH o.buyer LEFT JOIN FETCH o.review " +
+           "WHERE o.buyer.userId = :buyerId " +
+           "AND (:status IS NULL OR o.status = :status) " +
+           "AND (:beforeTime IS NULL OR o.orderDate < :beforeTime " +
+           "     OR (o.orderDate = :beforeTime AND o.orderId < :beforeId)) " +
+           "ORDER BY o.orderDate DESC, o.orderId DESC")
+    List<Order> findBuyerHistory(@Param("buyerId") Long buyerId,
+                                 @Param("status") OrderStatus status,
+                                 @Param("beforeTime") LocalDateTime beforeTime,
+                                 @Param("beforeId") Long beforeId,
+                                 Pageable pageable);
+
+    /**
+     * One keyset page of the orders on a seller's listings; listing, seller, buyer and review are
+     * fetched in the same query. Served by idx_listing_seller and idx_order_listing_status.
+     * @param sellerId the seller ID
+     * @param status status filter (null for any)
+     * @param beforeTime order date of the last order of the previous page, null for the first page
+     * @param beforeId ID of the last order of the previous page, null for the first page
+     * @param pageable page size
+     * @return orders, newest first
+     */
+    @Query("SELECT o FROM Order o JOIN FETCH o.listing l JOIN FETCH l.seller JOIN FETCH o.buyer LEFT JOIN FETCH o.review " +
+           "WHERE l.seller.userId = :sellerId " +
+           "AND (:status IS NULL OR o.status = :status) " +
+           "AND (:beforeTime IS NULL OR o.orderDate < :beforeTime " +
+           "     OR (o.orderDate = :beforeTime AND o.orderId < :beforeId)) " +
+           "ORDER BY o.orderDate DESC, o.orderId DESC")
+    List<Order> findSellerHistory(@Param("sellerId") Long sellerId,
+                                  @Param("status") OrderStatus status,
+                                  @Param("beforeTime") LocalDateTime beforeTime,
+                                  @Param("beforeId") Long beforeId,
+                                  Pageable pageable);
+
+    /**
+     * Find an order with everything a status transition reads: listing, seller, category, buyer and review
+     * @param orderId the order ID
+     * @return optional order
+     */
+    @Query("SELECT o FROM Order o JOIN FETCH o.listing l JOIN FETCH l.seller JOIN FETCH l.category JOIN FETCH o.buyer " +
+           "LEFT JOIN FETCH o.review WHERE o.orderId = :orderId")
+    Optional<Order> findForTransition(@Param("orderId") Long orderId);
+
+    /**
+     * Get the current status of an order
+     * @param orderId the order ID
+     * @return optional status
+     */
+    @Query("SELECT o.status FROM Order o WHERE o.orderId = :orderId")
+    Optional<OrderStatus> findStatusById(@Param("orderId") Long orderId);
+
+    /**
+     * Move an order to a new status only if it is still in the expected status and, when given,
+     * still belongs to the buyer or to a listing of the seller
+     * @param orderId the order ID
+     * @param expected the status the transition starts from
+     * @param status the new status
+     * @param finalPrice the new final price
+     * @param confirmedAt the new confirmation time
+     * @param completedAt the new completion time
+     * @param borrowDueDate the new borrow due date
+     * @param returnedAt the new return time
+     * @param buyerId required buyer (null for any)
+     * @param sellerId required seller (null for any)
+     * @return number of orders updated, 0 if the order changed concurrently or is not owned
+     */
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :status, o.finalPrice = :finalPrice, o.confirmedAt = :confirmedAt, " +
+           "o.completedAt = :completedAt, o.borrowDueDate = :borrowDueDate, o.returnedAt = :returnedAt, " +
+           "o.version = o.version + 1 " +
+           "WHERE o.orderId = :orderId AND o.status = :expected " +
+           "AND (:buyerId IS NULL OR o.buyer.userId = :buyerId) " +
+           "AND (:sellerId IS NULL OR o.listing.listingId IN " +
+           "     (SELECT l.listingId FROM Listing l WHERE l.seller.userId = :sellerId))")
+    int compareAndSetStatus(@Param("orderId") Long orderId,
+                            @Param("expected") OrderStatus expected,
+                            @Param("status") OrderStatus status,
+                            @Param("finalPrice") BigDecimal finalPrice,
+                            @Param("confirmedAt") LocalDateTime confirmedAt,
+                            @Param("completedAt") LocalDateTime completedAt,
+                            @Param("borrowDueDate") LocalDateTime borrowDueDate,
+                            @Param("returnedAt") LocalDateTime returnedAt,
+                            @Param("buyerId") Long buyerId,
+                            @Param("sellerId") Long sellerId);
+}
@@ -86,6 +86,33 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     @Query("SELECT AVG(r.rating) FROM Review r WHERE r.order.listing.listingId = :listingId")
     Double findAverageRatingByListingId(@Param("listingId") Long listingId);
 
+    /**
+     * Count all reviews and average the per-listing average ratings in one query
+     * @return one row of [review count, average of listing averages (0 if no reviews)]
+     */
+    @Query(value = "SELECT COUNT(*), " +
+                   "(SELECT COALESCE(AVG(t.listing_avg), 0) FROM " +
+                   "   (SELECT AVG(r2.rating) AS listing_avg FROM `Review` r2 " +
+                   "    JOIN `Order` o ON o.order_id = r2.order_id GROUP BY o.listing_id) t) " +
+                   "FROM `Review`", nativeQuery = true)
+    List<Object[]> getReviewTotals();
+
+    /**
+     * Sum and count of ratings per listing, used to build the running rating aggregates
+     * @return rows of [listing ID, rating sum, rating count]
+     */
+    @Query("SELECT r.order.listing.listingId, SUM(r.rating), COUNT(r) FROM Review r GROUP BY r.order.listing.listingId")
+    List<Object[]> getRatingTotalsByListing();
+
+    /**
+     * Sum and count of the ratings of one listing
+     * @param listingId the listing ID
+     * @return zero or one row of [listing ID, rating sum, rating count]
+     */
+    @Query("SELECT r.order.listing.listingId, SUM(r.rating), COUNT(r) FROM Review r " +
+           "WHERE r.order.listing.listingId = :listingId GROUP BY r.order.listing.listingId")
+    List<Object[]> getRatingTotalsByListing(@Param("listingId") Long listingId);
+
     /**
      * Calculate average rating for a seller
      * @param sellerId the seller ID
@@ -0,0 +1,9 @@
+package com.vinuni.circularmarket.repository;
+
+import com.vinuni.circularmarket.model.RollupWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RollupWatermarkRepository extends JpaRepository<RollupWatermark, String> {
+}
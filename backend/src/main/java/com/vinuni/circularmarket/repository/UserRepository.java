@@ -4,10 +4,12 @@ import com.vinuni.circularmarket.model.User;
 import com.vinuni.circularmarket.model.UserRole;
 import com.vinuni.circularmarket.model.UserStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -57,6 +59,30 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     long countByRole(UserRole role);
 
+    /**
+     * Count users grouped by status and role in one query
+     * @return rows of [status, role, count]
+     */
+    @Query("SELECT u.status, u.role, COUNT(u) FROM User u GROUP BY u.status, u.role")
+    List<Object[]> countGroupedByStatusAndRole();
+
+    /**
+     * Recalculate a seller's avg_rating and rating_count from their reviews
+     * (same statement as sp_refresh_seller_rating; pending review changes are flushed first)
+     * @param sellerId the seller ID
+     * @return number of rows updated
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE `User` u " +
+                   "LEFT JOIN (SELECT l.seller_id, COUNT(*) AS rating_count, ROUND(AVG(r.rating), 2) AS avg_rating " +
+                   "           FROM `Review` r " +
+                   "           JOIN `Order` o ON o.order_id = r.order_id " +
+                   "           JOIN `Listing` l ON l.listing_id = o.listing_id " +
+                   "           WHERE l.seller_id = :sellerId GROUP BY l.seller_id) x ON x.seller_id = u.user_id " +
+                   "SET u.rating_count = COALESCE(x.rating_count, 0), u.avg_rating = COALESCE(x.avg_rating, 0.00) " +
+                   "WHERE u.user_id = :sellerId", nativeQuery = true)
+    int refreshSellerRating(@Param("sellerId") Long sellerId);
+
     /**
      * Find active users (for admin operations)
      * @return list of active users
@@ -81,4 +107,39 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     @Query("SELECT DATE(u.createdAt) as date, COUNT(u) as count FROM User u WHERE u.createdAt BETWEEN :startDate AND :endDate GROUP BY DATE(u.createdAt) ORDER BY DATE(u.createdAt)")
     List<Object[]> getRegistrationStatsByDateRange(@Param("startDate") java.time.LocalDateTime startDate, @Param("endDate") java.time.LocalDateTime endDate);
-}
\ No newline at end of file
+
+    /**
+     * Get the registration time of the oldest account
+     * @return earliest created-at timestamp, or null if there are no users
+     */
+    @Query("SELECT MIN(u.createdAt) FROM User u")
+    java.time.LocalDateTime findEarliestCreatedAt();
+
+    /**
+     * Lock users for a bulk update and read their current status and role
+     * @param userIds the user IDs (one chunk)
+     * @return list of [user_id, status, role] for the IDs that exist
+     */
+    @Query(value = "SELECT user_id, status, role FROM `User` WHERE user_id IN (:userIds) FOR UPDATE", nativeQuery = true)
+    List<Object[]> lockStatusAndRoleByIds(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Set the status of many users in one statement
+     * @param userIds the user IDs (one chunk)
+     * @param status the new status
+     * @return number of rows changed
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.status = :status WHERE u.userId IN :userIds AND u.status <> :status")
+    int updateStatusByIds(@Param("userIds") Collection<Long> userIds, @Param("status") UserStatus status);
+
+    /**
+     * Set the role of many users in one statement
+     * @param userIds the user IDs (one chunk)
+     * @param role the new role
+     * @return number of rows changed
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.role = :role WHERE u.userId IN :userIds AND u.role <> :role")
+    int updateRoleByIds(@Param("userIds") Collection<Long> userIds, @Param("role") UserRole role);
+}
@@ -85,6 +85,8 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.GET, "/api/listings").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/listings/recent").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/listings/search").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/listings/search/instant").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/listings/suggest").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/listings/filter").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/listings/category/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/listings/{id}").permitAll()
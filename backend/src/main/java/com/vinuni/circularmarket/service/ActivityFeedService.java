@@ -0,0 +1,295 @@
+package com.vinuni.circularmarket.service;
+
+import com.vinuni.circularmarket.dto.RecentActivityDTO;
+import com.vinuni.circularmarket.model.ActivityLog;
+import com.vinuni.circularmarket.model.Listing;
+import com.vinuni.circularmarket.model.Order;
+import com.vinuni.circularmarket.model.OrderStatus;
+import com.vinuni.circularmarket.model.User;
+import com.vinuni.circularmarket.repository.ActivityLogRepository;
+import com.vinuni.circularmarket.repository.ListingRepository;
+import com.vinuni.circularmarket.repository.OrderRepository;
+import com.vinuni.circularmarket.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Admin activity feed backed by the append-only ActivityLog table.
+ * Entries are appended inside the transaction of the change they record (before commit),
+ * so the feed never shows a change that rolled back. Reads are keyset-paged over
+ * (occurred_at, activity_id), i.e. one index range read per page.
+ */
+@Service
+public class ActivityFeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityFeedService.class);
+
+    // Latest activities per source copied into an empty log at startup
+    @Value("${activity.feed.backfill-size:200}")
+    private int backfillSize;
+
+    @Value("${activity.feed.max-page-size:100}")
+    private int maxPageSize;
+
+    private final ActivityLogRepository activityLogRepository;
+    private final UserRepository userRepository;
+    private final ListingRepository listingRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public ActivityFeedService(ActivityLogRepository activityLogRepository,
+                               UserRepository userRepository,
+                               ListingRepository listingRepository,
+                               OrderRepository orderRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.activityLogRepository = activityLogRepository;
+        this.userRepository = userRepository;
+        this.listingRepository = listingRepository;
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Record a registration in the registering transaction
+     * @param event the registration
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        activityLogRepository.save(new ActivityLog(
+            "USER_REGISTERED",
+            event.getUserId(),
+            event.getFullName(),
+            truncate("New user registered: " + event.getFullName()),
+            "{\"userId\": " + event.getUserId() + "}",
+            event.getCreatedAt() != null ? event.getCreatedAt() : LocalDateTime.now()
+        ));
+    }
+
+    /**
+     * Record a new listing in the creating transaction
+     * @param event the listing change (only creations are recorded)
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onListingChanged(ListingChangedEvent event) {
+        if (!event.isCreated()) {
+            return;
+        }
+        activityLogRepository.save(listingActivity(event.getListingId(), event.getSellerName(),
+                                                   event.getTitle(), event.getCreatedAt()));
+    }
+
+    /**
+     * Record an order creation or status change in the same transaction
+     * @param event the order change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        LocalDateTime occurredAt = event.getPreviousStatus() == null && event.getOrderDate() != null
+                ? event.getOrderDate() : LocalDateTime.now();
+        activityLogRepository.save(orderActivity(event.getOrderId(), event.getListingId(), event.getStatus(),
+                                                 event.getBuyerName(), event.getListingTitle(), occurredAt));
+    }
+
+    /**
+     * Get the newest activities
+     * @param limit number of activities to return
+     * @return activities, newest first
+     */
+    public List<RecentActivityDTO> getRecentActivities(int limit) {
+        return activityLogRepository.findLatest(PageRequest.of(0, clampLimit(limit))).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get one keyset page of the feed
+     * @param beforeTime timestamp of the last activity of the previous page, null for the first page
+     * @param beforeId activity ID of the last activity of the previous page, null for the first page
+     * @param limit page size
+     * @return map with the activities and the cursor of the next page
+     */
+    public Map<String, Object> getActivityPage(LocalDateTime beforeTime, Long beforeId, int limit) {
+        if ((beforeTime == null) != (beforeId == null)) {
+            throw new IllegalArgumentException("beforeTime and beforeId must be given together");
+        }
+        int pageSize = clampLimit(limit);
+        // Fetch one extra row to know whether another page exists
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<ActivityLog> entries = beforeTime == null
+                ? activityLogRepository.findLatest(page)
+                : activityLogRepository.findBefore(beforeTime, beforeId, page);
+
+        boolean hasMore = entries.size() > pageSize;
+        if (hasMore) {
+            entries = entries.subList(0, pageSize);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("activities", entries.stream().map(this::convertToDTO).collect(Collectors.toList()));
+        response.put("hasMore", hasMore);
+        if (hasMore) {
+            ActivityLog last = entries.get(entries.size() - 1);
+            response.put("nextBeforeTime", last.getOccurredAt());
+            response.put("nextBeforeId", last.getActivityId());
+        }
+        return response;
+    }
+
+    /**
+     * Seed an empty log from the existing users, listings and orders once the application has started
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (backfillSize <= 0) {
+            return;
+        }
+        try {
+            Integer written = transactionTemplate.execute(status -> {
+                if (activityLogRepository.count() > 0) {
+                    return 0;
+                }
+                PageRequest newestFirst = PageRequest.of(0, backfillSize);
+                List<ActivityLog> users = userRepository.findAll(
+                        PageRequest.of(0, backfillSize, Sort.by(Sort.Direction.DESC, "createdAt"))).stream()
+                        .map(this::toActivity).collect(Collectors.toList());
+                List<ActivityLog> listings = listingRepository.findAll(
+                        PageRequest.of(0, backfillSize, Sort.by(Sort.Direction.DESC, "createdAt"))).stream()
+                        .map(this::toActivity).collect(Collectors.toList());
+                List<ActivityLog> orders = orderRepository.findAllByOrderByOrderDateDesc(newestFirst).stream()
+                        .map(order -> toActivity(order, order.getOrderDate())).collect(Collectors.toList());
+
+                // Append oldest first so activity IDs follow time, as they do for live entries
+                List<ActivityLog> merged = mergeOldestFirst(List.of(users, listings, orders));
+                activityLogRepository.saveAll(merged);
+                return merged.size();
+            });
+            if (written != null && written > 0) {
+                logger.info("Activity log backfilled with {} entries", written);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to backfill activity log: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * K-way merge of newest-first lists into one oldest-first list
+     */
+    private static List<ActivityLog> mergeOldestFirst(List<List<ActivityLog>> sources) {
+        PriorityQueue<Cursor> queue = new PriorityQueue<>(
+                Comparator.comparing((Cursor cursor) -> cursor.head.getOccurredAt()));
+        int total = 0;
+        for (List<ActivityLog> source : sources) {
+            List<ActivityLog> oldestFirst = new ArrayList<>(source);
+            Collections.reverse(oldestFirst);
+            total += oldestFirst.size();
+            Iterator<ActivityLog> it = oldestFirst.iterator();
+            if (it.hasNext()) {
+                queue.add(new Cursor(it.next(), it));
+            }
+        }
+
+        List<ActivityLog> merged = new ArrayList<>(total);
+        while (!queue.isEmpty()) {
+            Cursor cursor = queue.poll();
+            merged.add(cursor.head);
+            if (cursor.rest.hasNext()) {
+                queue.add(new Cursor(cursor.rest.next(), cursor.rest));
+            }
+        }
+        return merged;
+    }
+
+    private ActivityLog toActivity(User user) {
+        return new ActivityLog(
+            "USER_REGISTERED",
+            user.getUserId(),
+            user.getFullName(),
+            truncate("New user registered: " + user.getFullName()),
+            "{\"userId\": " + user.getUserId() + "}",
+            user.getCreatedAt()
+        );
+    }
+
+    private ActivityLog toActivity(Listing listing) {
+        return listingActivity(listing.getListingId(), listing.getSeller().getFullName(),
+                               listing.getTitle(), listing.getCreatedAt());
+    }
+
+    private ActivityLog toActivity(Order order, LocalDateTime occurredAt) {
+        return orderActivity(order.getOrderId(), order.getListing().getListingId(), order.getStatus(),
+                             order.getBuyer().getFullName(), order.getListing().getTitle(), occurredAt);
+    }
+
+    private static ActivityLog listingActivity(Long listingId, String sellerName, String title, LocalDateTime createdAt) {
+        return new ActivityLog(
+            "LISTING_CREATED",
+            listingId,
+            sellerName,
+            truncate("New listing created: " + title),
+            "{\"listingId\": " + listingId + "}",
+            createdAt != null ? createdAt : LocalDateTime.now()
+        );
+    }
+
+    private static ActivityLog orderActivity(Long orderId, Long listingId, OrderStatus status,
+                                             String buyerName, String listingTitle, LocalDateTime occurredAt) {
+        return new ActivityLog(
+            "ORDER_" + status.toString(),
+            orderId,
+            buyerName,
+            truncate("Order " + status.toString().toLowerCase() + " for: " + listingTitle),
+            "{\"orderId\": " + orderId + ", \"listingId\": " + listingId + "}",
+            occurredAt
+        );
+    }
+
+    private RecentActivityDTO convertToDTO(ActivityLog activity) {
+        return new RecentActivityDTO(
+            activity.getEntityId(),
+            activity.getActivityType(),
+            activity.getDescription(),
+            activity.getActorName(),
+            activity.getOccurredAt(),
+            activity.getDetails()
+        );
+    }
+
+    private int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, maxPageSize));
+    }
+
+    private static String truncate(String description) {
+        return description.length() > 255 ? description.substring(0, 252) + "..." : description;
+    }
+
+    private static final class Cursor {
+        private final ActivityLog head;
+        private final Iterator<ActivityLog> rest;
+
+        private Cursor(ActivityLog head, Iterator<ActivityLog> rest) {
+            this.head = head;
+            this.rest = rest;
+        }
+    }
+}
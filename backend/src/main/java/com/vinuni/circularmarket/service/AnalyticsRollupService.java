@@ -0,0 +1,257 @@
+package com.vinuni.circularmarket.service;
+
+import com.vinuni.circularmarket.model.DailyStat;
+import com.vinuni.circularmarket.model.RollupWatermark;
+import com.vinuni.circularmarket.repository.DailyStatRepository;
+import com.vinuni.circularmarket.repository.OrderRepository;
+import com.vinuni.circularmarket.repository.RollupWatermarkRepository;
+import com.vinuni.circularmarket.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+
+/**
+ * Maintains the per-day DailyStat rollups behind the analytics time series and answers
+ * range queries from them. Days before the watermark are read from the rollups; only the
+ * partial days at either end of a range (normally just today) are aggregated from the live
+ * User and Order tables.
+ */
+@Service
+public class AnalyticsRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsRollupService.class);
+
+    private static final String WATERMARK = "daily_stats";
+
+    // Columns are DATETIME without fractions, so a range ending at 23:59:59 covers the whole day
+    private static final LocalTime LAST_SECOND = LocalTime.of(23, 59, 59);
+
+    @Value("${analytics.rollup.enabled:true}")
+    private boolean enabled;
+
+    // Recent days are recomputed on every run because order statuses keep changing after the order day
+    @Value("${analytics.rollup.refresh-days:7}")
+    private int refreshDays;
+
+    // Days recomputed per transaction while catching up
+    @Value("${analytics.rollup.chunk-days:31}")
+    private int chunkDays;
+
+    private final DailyStatRepository dailyStatRepository;
+    private final RollupWatermarkRepository watermarkRepository;
+    private final UserRepository userRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // First day not yet rolled up; null until the first run has finished
+    private volatile LocalDate rolledUpTo;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public AnalyticsRollupService(DailyStatRepository dailyStatRepository,
+                                  RollupWatermarkRepository watermarkRepository,
+                                  UserRepository userRepository,
+                                  OrderRepository orderRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.dailyStatRepository = dailyStatRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.userRepository = userRepository;
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Catch up from the stored watermark once the application has started
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUpOnStartup() {
+        if (!enabled) {
+            logger.info("Analytics rollups disabled");
+            return;
+        }
+        runRollup();
+    }
+
+    /**
+     * Roll up the days completed since the last run and refresh the trailing window
+     */
+    @Scheduled(cron = "${analytics.rollup.cron:0 5 * * * *}")
+    public void scheduledRollup() {
+        if (enabled) {
+            runRollup();
+        }
+    }
+
+    /**
+     * Get daily user registrations
+     * @param startDate start date
+     * @param endDate end date
+     * @return list of [date, count] ordered by date
+     */
+    public List<Object[]> getRegistrationStats(LocalDateTime startDate, LocalDateTime endDate) {
+        return mergeRange(startDate, endDate, userRepository::getRegistrationStatsByDateRange,
+                (from, to) -> dailyStatRepository.sumCountsByDate(DailyStat.REGISTRATIONS, from, to));
+    }
+
+    /**
+     * Get daily order counts over all statuses
+     * @param startDate start date
+     * @param endDate end date
+     * @return list of [date, count] ordered by date
+     */
+    public List<Object[]> getOrderStats(LocalDateTime startDate, LocalDateTime endDate) {
+        return mergeRange(startDate, endDate, orderRepository::getOrderStatsByDateRange,
+                (from, to) -> dailyStatRepository.sumCountsByDate(DailyStat.ORDERS, from, to));
+    }
+
+    /**
+     * Get daily revenue from completed orders
+     * @param startDate start date
+     * @param endDate end date
+     * @return list of [date, revenue] ordered by date
+     */
+    public List<Object[]> getRevenueStats(LocalDateTime startDate, LocalDateTime endDate) {
+        return mergeRange(startDate, endDate, orderRepository::getRevenueStatsByDateRange,
+                (from, to) -> dailyStatRepository.sumAmountsByDate(DailyStat.REVENUE, from, to));
+    }
+
+    /**
+     * Answer a range from whole rolled-up days, with live queries only for the partial days around them
+     * @param startDate start of the range (inclusive)
+     * @param endDate end of the range (inclusive)
+     * @param live the live query over [start, end]
+     * @param rollup the rollup query over [fromDay, toDay)
+     * @return list of [date, value] ordered by date
+     */
+    private List<Object[]> mergeRange(LocalDateTime startDate, LocalDateTime endDate,
+                                      BiFunction<LocalDateTime, LocalDateTime, List<Object[]>> live,
+                                      BiFunction<LocalDate, LocalDate, List<Object[]>> rollup) {
+        LocalDate watermark = rolledUpTo;
+        if (!enabled || watermark == null || startDate.isAfter(endDate)) {
+            return normalize(live.apply(startDate, endDate));
+        }
+
+        // Whole days inside the range that have been rolled up
+        LocalDate fromDay = startDate.toLocalTime().equals(LocalTime.MIDNIGHT)
+                ? startDate.toLocalDate() : startDate.toLocalDate().plusDays(1);
+        LocalDate toDay = endDate.toLocalTime().isBefore(LAST_SECOND)
+                ? endDate.toLocalDate() : endDate.toLocalDate().plusDays(1);
+        if (toDay.isAfter(watermark)) {
+            toDay = watermark;
+        }
+        if (!fromDay.isBefore(toDay)) {
+            return normalize(live.apply(startDate, endDate));
+        }
+
+        List<Object[]> stats = new ArrayList<>();
+        if (startDate.isBefore(fromDay.atStartOfDay())) {
+            stats.addAll(normalize(live.apply(startDate, fromDay.atStartOfDay().minusNanos(1))));
+        }
+        stats.addAll(normalize(rollup.apply(fromDay, toDay)));
+        if (!endDate.isBefore(toDay.atStartOfDay())) {
+            stats.addAll(normalize(live.apply(toDay.atStartOfDay(), endDate)));
+        }
+        return stats;
+    }
+
+    private void runRollup() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            LocalDate today = LocalDate.now();
+            LocalDate watermark = watermarkRepository.findById(WATERMARK)
+                    .map(RollupWatermark::getNextDate)
+                    .orElseGet(this::findFirstDay);
+            LocalDate refreshFrom = today.minusDays(Math.max(refreshDays, 0));
+            LocalDate from = watermark.isBefore(refreshFrom) ? watermark : refreshFrom;
+
+            long start = System.currentTimeMillis();
+            int days = 0;
+            while (from.isBefore(today)) {
+                LocalDate to = from.plusDays(Math.max(chunkDays, 1));
+                if (to.isAfter(today)) {
+                    to = today;
+                }
+                LocalDate chunkFrom = from;
+                LocalDate chunkTo = to;
+                LocalDate stored = transactionTemplate.execute(status -> rollupChunk(chunkFrom, chunkTo));
+                rolledUpTo = stored;
+                days += (int) (chunkTo.toEpochDay() - chunkFrom.toEpochDay());
+                from = to;
+            }
+            if (rolledUpTo == null) {
+                rolledUpTo = watermark;
+            }
+            logger.info("Analytics rollups refreshed: {} days, rolled up to {} in {} ms",
+                       days, rolledUpTo, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.error("Failed to refresh analytics rollups: {}", e.getMessage(), e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Recompute the rollups of [from, to) and advance the watermark, in one transaction
+     * @return the stored watermark
+     */
+    private LocalDate rollupChunk(LocalDate from, LocalDate to) {
+        dailyStatRepository.deleteRange(from, to);
+        dailyStatRepository.rollupRegistrations(from, to);
+        dailyStatRepository.rollupOrders(from, to);
+        dailyStatRepository.rollupRevenue(from, to);
+
+        RollupWatermark watermark = watermarkRepository.findById(WATERMARK)
+                .orElseGet(() -> new RollupWatermark(WATERMARK, to));
+        if (watermark.getNextDate().isBefore(to)) {
+            watermark.setNextDate(to);
+        }
+        watermark.setUpdatedAt(LocalDateTime.now());
+        watermarkRepository.save(watermark);
+        return watermark.getNextDate();
+    }
+
+    /**
+     * Day of the oldest user or order, where a first rollup starts
+     */
+    private LocalDate findFirstDay() {
+        LocalDate first = LocalDate.now();
+        LocalDateTime firstUser = userRepository.findEarliestCreatedAt();
+        if (firstUser != null && firstUser.toLocalDate().isBefore(first)) {
+            first = firstUser.toLocalDate();
+        }
+        LocalDateTime firstOrder = orderRepository.findEarliestOrderDate();
+        if (firstOrder != null && firstOrder.toLocalDate().isBefore(first)) {
+            first = firstOrder.toLocalDate();
+        }
+        return first;
+    }
+
+    /**
+     * Make the date column a LocalDate whichever query produced the row
+     */
+    private static List<Object[]> normalize(List<Object[]> rows) {
+        for (Object[] row : rows) {
+            if (row[0] instanceof java.sql.Date date) {
+                row[0] = date.toLocalDate();
+            } else if (row[0] instanceof LocalDateTime dateTime) {
+                row[0] = dateTime.toLocalDate();
+            }
+        }
+        return rows;
+    }
+}
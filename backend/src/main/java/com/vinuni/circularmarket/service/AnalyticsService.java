@@ -9,8 +9,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,17 +24,29 @@ public class AnalyticsService {
     private final OrderRepository orderRepository;
     private final ReviewRepository reviewRepository;
     private final CommentRepository commentRepository;
+    private final SellerLeaderboard sellerLeaderboard;
+    private final RatingStatistics ratingStatistics;
+    private final AnalyticsRollupService analyticsRollupService;
+    private final ActivityFeedService activityFeedService;
 
     public AnalyticsService(UserRepository userRepository,
                            ListingRepository listingRepository,
                            OrderRepository orderRepository,
                            ReviewRepository reviewRepository,
-                           CommentRepository commentRepository) {
+                           CommentRepository commentRepository,
+                           SellerLeaderboard sellerLeaderboard,
+                           RatingStatistics ratingStatistics,
+                           AnalyticsRollupService analyticsRollupService,
+                           ActivityFeedService activityFeedService) {
         this.userRepository = userRepository;
         this.listingRepository = listingRepository;
         this.orderRepository = orderRepository;
         this.reviewRepository = reviewRepository;
         this.commentRepository = commentRepository;
+        this.sellerLeaderboard = sellerLeaderboard;
+        this.ratingStatistics = ratingStatistics;
+        this.analyticsRollupService = analyticsRollupService;
+        this.activityFeedService = activityFeedService;
     }
 
     /**
@@ -42,35 +57,11 @@ public class AnalyticsService {
     public AnalyticsDTO getDashboardAnalytics() {
         AnalyticsDTO analytics = new AnalyticsDTO();
 
-        // User statistics
-        analytics.setTotalUsers(userRepository.count());
-        analytics.setActiveUsers(userRepository.findByStatus(UserStatus.active).size());
-        analytics.setInactiveUsers(userRepository.findByStatus(UserStatus.inactive).size());
-        analytics.setAdminUsers(userRepository.countByRole(UserRole.admin));
-        analytics.setStudentUsers(userRepository.countByRole(UserRole.student));
-
-        // Listing statistics
-        analytics.setTotalListings(listingRepository.count());
-        analytics.setActiveListings(listingRepository.countByStatus(ListingStatus.AVAILABLE));
-        analytics.setReservedListings(listingRepository.countByStatus(ListingStatus.RESERVED));
-        analytics.setSoldListings(listingRepository.countByStatus(ListingStatus.SOLD));
-        analytics.setBorrowedListings(listingRepository.countByStatus(ListingStatus.BORROWED));
-
-        // Order statistics
-        analytics.setTotalOrders(orderRepository.count());
-        analytics.setPendingOrders(orderRepository.countByStatus(OrderStatus.REQUESTED));
-        analytics.setConfirmedOrders(orderRepository.countByStatus(OrderStatus.CONFIRMED));
-        analytics.setCompletedOrders(orderRepository.countByStatus(OrderStatus.COMPLETED));
-        analytics.setCancelledOrders(orderRepository.countByStatus(OrderStatus.CANCELLED));
-
-        // Revenue statistics
-        analytics.setTotalRevenue(calculateTotalRevenue());
-        analytics.setMonthlyRevenue(calculateMonthlyRevenue());
-        analytics.setAverageOrderValue(calculateAverageOrderValue());
-
-        // Review statistics
-        analytics.setTotalReviews(reviewRepository.count());
-        analytics.setAverageRating(calculateOverallAverageRating());
+        // Counters come from one grouped query per table; no entities are loaded
+        applyUserCounts(analytics);
+        applyListingCounts(analytics);
+        applyOrderTotals(analytics);
+        applyReviewTotals(analytics);
 
         // Comment statistics
         analytics.setTotalComments(commentRepository.count());
@@ -85,165 +76,159 @@ public class AnalyticsService {
     }
 
     /**
-     * Calculate total revenue from completed orders
-     * @return total revenue
+     * Set user totals from counts grouped by status and role
+     * @param analytics the dashboard being built
      */
-    @Transactional(readOnly = true)
-    private BigDecimal calculateTotalRevenue() {
-        return orderRepository.calculateTotalRevenue();
+    private void applyUserCounts(AnalyticsDTO analytics) {
+        long total = 0;
+        long active = 0;
+        long inactive = 0;
+        long admins = 0;
+        long students = 0;
+        for (Object[] row : userRepository.countGroupedByStatusAndRole()) {
+            long count = ((Number) row[2]).longValue();
+            total += count;
+            if (row[0] == UserStatus.active) {
+                active += count;
+            } else if (row[0] == UserStatus.inactive) {
+                inactive += count;
+            }
+            if (row[1] == UserRole.admin) {
+                admins += count;
+            } else if (row[1] == UserRole.student) {
+                students += count;
+            }
+        }
+
+        analytics.setTotalUsers(total);
+        analytics.setActiveUsers(active);
+        analytics.setInactiveUsers(inactive);
+        analytics.setAdminUsers(admins);
+        analytics.setStudentUsers(students);
     }
 
     /**
-     * Calculate monthly revenue (current month)
-     * @return monthly revenue
+     * Set listing totals from counts grouped by status
+     * @param analytics the dashboard being built
      */
-    @Transactional(readOnly = true)
-    private BigDecimal calculateMonthlyRevenue() {
-        LocalDateTime startOfMonth = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
-        LocalDateTime endOfMonth = startOfMonth.plusMonths(1);
-        return orderRepository.calculateRevenueForPeriod(startOfMonth, endOfMonth);
+    private void applyListingCounts(AnalyticsDTO analytics) {
+        Map<ListingStatus, Long> counts = new EnumMap<>(ListingStatus.class);
+        long total = 0;
+        for (Object[] row : listingRepository.countGroupedByStatus()) {
+            long count = ((Number) row[1]).longValue();
+            counts.put((ListingStatus) row[0], count);
+            total += count;
+        }
+
+        analytics.setTotalListings(total);
+        analytics.setActiveListings(counts.getOrDefault(ListingStatus.AVAILABLE, 0L));
+        analytics.setReservedListings(counts.getOrDefault(ListingStatus.RESERVED, 0L));
+        analytics.setSoldListings(counts.getOrDefault(ListingStatus.SOLD, 0L));
+        analytics.setBorrowedListings(counts.getOrDefault(ListingStatus.BORROWED, 0L));
     }
 
     /**
-     * Calculate average order value
-     * @return average order value
+     * Set order counts and revenue (total, current month, average) from per-status totals
+     * @param analytics the dashboard being built
      */
-    @Transactional(readOnly = true)
-    private BigDecimal calculateAverageOrderValue() {
-        return orderRepository.calculateAverageOrderValue();
+    private void applyOrderTotals(AnalyticsDTO analytics) {
+        LocalDateTime startOfMonth = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
+        LocalDateTime endOfMonth = startOfMonth.plusMonths(1);
+
+        Map<OrderStatus, Long> counts = new EnumMap<>(OrderStatus.class);
+        long total = 0;
+        BigDecimal revenue = BigDecimal.ZERO;
+        BigDecimal monthlyRevenue = BigDecimal.ZERO;
+        long pricedOrders = 0;
+        for (Object[] row : orderRepository.getStatusTotals(startOfMonth, endOfMonth)) {
+            long count = ((Number) row[1]).longValue();
+            counts.put((OrderStatus) row[0], count);
+            total += count;
+            if (row[0] == OrderStatus.COMPLETED) {
+                revenue = toBigDecimal(row[2]);
+                pricedOrders = ((Number) row[3]).longValue();
+                monthlyRevenue = toBigDecimal(row[4]);
+            }
+        }
+
+        analytics.setTotalOrders(total);
+        analytics.setPendingOrders(counts.getOrDefault(OrderStatus.REQUESTED, 0L));
+        analytics.setConfirmedOrders(counts.getOrDefault(OrderStatus.CONFIRMED, 0L));
+        analytics.setCompletedOrders(counts.getOrDefault(OrderStatus.COMPLETED, 0L));
+        analytics.setCancelledOrders(counts.getOrDefault(OrderStatus.CANCELLED, 0L));
+
+        analytics.setTotalRevenue(revenue);
+        analytics.setMonthlyRevenue(monthlyRevenue);
+        analytics.setAverageOrderValue(pricedOrders > 0
+                ? revenue.divide(BigDecimal.valueOf(pricedOrders), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO);
     }
 
     /**
-     * Calculate overall average rating across all listings
-     * @return overall average rating
+     * Set the review count and the average of per-listing average ratings,
+     * from the running aggregates when they are built
+     * @param analytics the dashboard being built
      */
-    @Transactional(readOnly = true)
-    private double calculateOverallAverageRating() {
-        // Calculate average rating across all reviews
-        long totalReviews = reviewRepository.count();
-        if (totalReviews == 0) {
-            return 0.0;
+    private void applyReviewTotals(AnalyticsDTO analytics) {
+        if (ratingStatistics.isReady()) {
+            analytics.setTotalReviews(ratingStatistics.getReviewCount());
+            analytics.setAverageRating(ratingStatistics.getAverageOfListingAverages());
+            return;
         }
 
-        // Get all listing IDs and calculate average across all listings
-        List<Long> listingIds = listingRepository.findAll().stream()
-                .map(listing -> listing.getListingId())
-                .collect(Collectors.toList());
-
-        double totalRating = 0.0;
-        int ratedListings = 0;
-
-        for (Long listingId : listingIds) {
-            Double listingAvg = reviewRepository.findAverageRatingByListingId(listingId);
-            if (listingAvg != null) {
-                totalRating += listingAvg;
-                ratedListings++;
-            }
-        }
+        Object[] row = reviewRepository.getReviewTotals().get(0);
+        analytics.setTotalReviews(((Number) row[0]).longValue());
+        analytics.setAverageRating(((Number) row[1]).doubleValue());
+    }
 
-        return ratedListings > 0 ? totalRating / ratedListings : 0.0;
+    private static BigDecimal toBigDecimal(Object value) {
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
     }
 
     /**
-     * Get top sellers by completed orders
+     * Get top sellers by completed orders, then revenue.
+     * Uses the incremental leaderboard when enabled, otherwise one grouped top-k query.
      * @param limit number of top sellers to return
      * @return list of top sellers
      */
-    @Transactional(readOnly = true)
     private List<TopSellerDTO> getTopSellers(int limit) {
-        // Query to get top sellers by completed orders
-        // This is a simplified implementation - in a real scenario, you'd use a custom query
-        List<User> allUsers = userRepository.findByRole(UserRole.student);
-
-        return allUsers.stream()
-                .map(user -> {
-                    long totalOrders = orderRepository.countBySeller_UserId(user.getUserId());
-                    long completedOrders = orderRepository.countBySeller_UserIdAndStatus(user.getUserId(), OrderStatus.COMPLETED);
-
-                    // Calculate actual revenue from completed orders
-                    List<Order> completedOrderList = orderRepository.findBySeller_UserIdAndStatus(user.getUserId(), OrderStatus.COMPLETED);
-                    BigDecimal revenue = completedOrderList.stream()
-                            .map(order -> {
-                                // Use finalPrice if available, otherwise use offerPrice
-                                return order.getFinalPrice() != null ? order.getFinalPrice() : 
-                                       (order.getOfferPrice() != null ? order.getOfferPrice() : BigDecimal.ZERO);
-                            })
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                    // Get seller rating
-                    Double avgRating = reviewRepository.findAverageRatingBySellerId(user.getUserId());
-                    long reviewCount = reviewRepository.countBySellerId(user.getUserId());
+        if (sellerLeaderboard.isReady()) {
+            return sellerLeaderboard.getTopSellers(limit);
+        }
 
-                    return new TopSellerDTO(
-                        user.getUserId(),
-                        user.getFullName(),
-                        user.getEmail(),
-                        totalOrders,
-                        completedOrders,
-                        revenue,
-                        avgRating != null ? avgRating : 0.0,
-                        reviewCount
-                    );
-                })
-                .filter(dto -> dto.getCompletedOrders() > 0) // Only include users with completed orders
-                .sorted((a, b) -> Long.compare(b.getCompletedOrders(), a.getCompletedOrders()))
-                .limit(limit)
+        return orderRepository.findTopSellers(limit).stream()
+                .map(row -> new TopSellerDTO(
+                    ((Number) row[0]).longValue(),
+                    (String) row[1],
+                    (String) row[2],
+                    ((Number) row[3]).longValue(),
+                    ((Number) row[4]).longValue(),
+                    toBigDecimal(row[5]),
+                    row[6] != null ? ((Number) row[6]).doubleValue() : 0.0,
+                    row[7] != null ? ((Number) row[7]).longValue() : 0
+                ))
                 .collect(Collectors.toList());
     }
 
     /**
      * Get recent activities for dashboard
      * @param limit number of activities to return
-     * @return list of recent activities
+     * @return list of recent activities, newest first
      */
-    @Transactional(readOnly = true)
     private List<RecentActivityDTO> getRecentActivities(int limit) {
-        List<RecentActivityDTO> activities = new java.util.ArrayList<>();
-
-        // Get recent user registrations
-        List<User> recentUsers = userRepository.findAll(org.springframework.data.domain.PageRequest.of(0, limit/3)).getContent();
-        for (User user : recentUsers) {
-            activities.add(new RecentActivityDTO(
-                user.getUserId(),
-                "USER_REGISTERED",
-                "New user registered: " + user.getFullName(),
-                user.getFullName(),
-                user.getCreatedAt(),
-                "{\"userId\": " + user.getUserId() + "}"
-            ));
-        }
-
-        // Get recent listings
-        List<Listing> recentListings = listingRepository.findAll(org.springframework.data.domain.PageRequest.of(0, limit/3)).getContent();
-        for (Listing listing : recentListings) {
-            activities.add(new RecentActivityDTO(
-                listing.getListingId(),
-                "LISTING_CREATED",
-                "New listing created: " + listing.getTitle(),
-                listing.getSeller().getFullName(),
-                listing.getCreatedAt(),
-                "{\"listingId\": " + listing.getListingId() + "}"
-            ));
-        }
-
-        // Get recent orders
-        List<Order> recentOrders = orderRepository.findAll(org.springframework.data.domain.PageRequest.of(0, limit/3)).getContent();
-        for (Order order : recentOrders) {
-            activities.add(new RecentActivityDTO(
-                order.getOrderId(),
-                "ORDER_" + order.getStatus().toString(),
-                "Order " + order.getStatus().toString().toLowerCase() + " for: " + order.getListing().getTitle(),
-                order.getBuyer().getFullName(),
-                order.getOrderDate(),
-                "{\"orderId\": " + order.getOrderId() + ", \"listingId\": " + order.getListing().getListingId() + "}"
-            ));
-        }
+        return activityFeedService.getRecentActivities(limit);
+    }
 
-        // Sort by timestamp descending and limit
-        return activities.stream()
-                .sorted((a, b) -> b.getTimestamp().compareTo(a.getTimestamp()))
-                .limit(limit)
-                .collect(Collectors.toList());
+    /**
+     * Get one keyset page of the activity feed
+     * @param beforeTime timestamp of the last activity of the previous page, null for the first page
+     * @param beforeId activity ID of the last activity of the previous page, null for the first page
+     * @param limit page size
+     * @return map with the activities and the cursor of the next page
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getActivityFeed(LocalDateTime beforeTime, Long beforeId, int limit) {
+        return activityFeedService.getActivityPage(beforeTime, beforeId, limit);
     }
 
     /**
@@ -254,7 +239,7 @@ public class AnalyticsService {
      */
     @Transactional(readOnly = true)
     public List<Object[]> getUserRegistrationStats(LocalDateTime startDate, LocalDateTime endDate) {
-        return userRepository.getRegistrationStatsByDateRange(startDate, endDate);
+        return analyticsRollupService.getRegistrationStats(startDate, endDate);
     }
 
     /**
@@ -265,7 +250,7 @@ public class AnalyticsService {
      */
     @Transactional(readOnly = true)
     public List<Object[]> getOrderStats(LocalDateTime startDate, LocalDateTime endDate) {
-        return orderRepository.getOrderStatsByDateRange(startDate, endDate);
+        return analyticsRollupService.getOrderStats(startDate, endDate);
     }
 
     /**
@@ -276,6 +261,6 @@ public class AnalyticsService {
      */
     @Transactional(readOnly = true)
     public List<Object[]> getRevenueStats(LocalDateTime startDate, LocalDateTime endDate) {
-        return orderRepository.getRevenueStatsByDateRange(startDate, endDate);
+        return analyticsRollupService.getRevenueStats(startDate, endDate);
     }
 }
@@ -0,0 +1,334 @@
+package com.vinuni.circularmarket.service;
+
+import com.vinuni.circularmarket.model.AuditLog;
+import com.vinuni.circularmarket.repository.AuditLogRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Durable audit trail of create/update/delete operations.
+ * Services call record(), which only appends to a bounded in-memory buffer once the
+ * surrounding transaction commits; a single background writer drains the buffer and
+ * inserts entries with JDBC batches. Request threads never wait for audit I/O: when the
+ * buffer is full, entries are dropped and counted rather than blocking the caller.
+ */
+@Service
+public class AuditLogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogService.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO `AuditLog` (occurred_at, actor, action, entity_type, entity_id, details) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final int MAX_DETAILS_LENGTH = 500;
+
+    @Value("${audit.batch-size:200}")
+    private int batchSize;
+
+    // How long the writer waits for the first entry of a batch
+    @Value("${audit.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    @Value("${audit.max-page-size:200}")
+    private int maxPageSize;
+
+    private final AuditLogRepository auditLogRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<Entry> buffer;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public AuditLogService(AuditLogRepository auditLogRepository,
+                           JdbcTemplate jdbcTemplate,
+                           @Value("${audit.buffer-capacity:10000}") int bufferCapacity) {
+        this.auditLogRepository = auditLogRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+    }
+
+    /**
+     * Start the background writer once the application has started
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void startWriter() {
+        if (writer != null) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::drainLoop, "audit-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stop the writer and flush whatever is still buffered
+     */
+    @PreDestroy
+    public void stopWriter() {
+        Thread current;
+        synchronized (this) {
+            running = false;
+            current = writer;
+            writer = null;
+        }
+        if (current != null) {
+            current.interrupt();
+            try {
+                current.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Entries recorded before the writer started, or after it exited
+        List<Entry> remaining = new ArrayList<>();
+        buffer.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            writeBatch(remaining);
+        }
+    }
+
+    /**
+     * Record an operation by the current user; buffered after the current transaction commits
+     * @param action CREATE, UPDATE or DELETE
+     * @param entityType the entity type, e.g. LISTING
+     * @param entityId the entity ID
+     * @param details short human-readable description
+     */
+    public void record(String action, String entityType, Long entityId, String details) {
+        Entry entry = new Entry(LocalDateTime.now(), currentActor(), action, entityType, entityId, truncate(details));
+        enqueueAfterCommit(List.of(entry));
+    }
+
+    /**
+     * Record the same operation on many entities, one entry per entity; buffered after the current
+     * transaction commits and written by the background writer in batches like any other entries
+     * @param action CREATE, UPDATE or DELETE
+     * @param entityType the entity type, e.g. USER
+     * @param entityIds the IDs of the affected entities
+     * @param details short human-readable description, shared by all entries
+     */
+    public void recordAll(String action, String entityType, List<Long> entityIds, String details) {
+        LocalDateTime now = LocalDateTime.now();
+        String actor = currentActor();
+        String truncated = truncate(details);
+        List<Entry> entries = new ArrayList<>(entityIds.size());
+        for (Long entityId : entityIds) {
+            entries.add(new Entry(now, actor, action, entityType, entityId, truncated));
+        }
+        enqueueAfterCommit(entries);
+    }
+
+    /**
+     * Get one keyset page of audit entries
+     * @param action action filter (null for any)
+     * @param entityType entity type filter (null for any)
+     * @param entityId entity ID filter (null for any)
+     * @param actor actor email filter (null for any)
+     * @param from earliest timestamp (null for no bound)
+     * @param to latest timestamp (null for no bound)
+     * @param beforeTime timestamp of the last entry of the previous page, null for the first page
+     * @param beforeId ID of the last entry of the previous page, null for the first page
+     * @param limit page size
+     * @return map with the entries, the cursor of the next page and writer statistics
+     */
+    public Map<String, Object> getAuditLogs(String action, String entityType, Long entityId, String actor,
+                                            LocalDateTime from, LocalDateTime to,
+                                            LocalDateTime beforeTime, Long beforeId, int limit) {
+        if ((beforeTime == null) != (beforeId == null)) {
+            throw new IllegalArgumentException("beforeTime and beforeId must be given together");
+        }
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        // Fetch one extra row to know whether another page exists
+        List<AuditLog> entries = auditLogRepository.findPage(
+                normalize(action), normalize(entityType), entityId, actor, from, to,
+                beforeTime, beforeId, PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = entries.size() > pageSize;
+        if (hasMore) {
+            entries = entries.subList(0, pageSize);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("logs", entries.stream().map(this::toMap).collect(Collectors.toList()));
+        response.put("limit", pageSize);
+        response.put("hasMore", hasMore);
+        if (hasMore) {
+            AuditLog last = entries.get(entries.size() - 1);
+            response.put("nextBeforeTime", last.getOccurredAt());
+            response.put("nextBeforeId", last.getAuditId());
+        }
+        response.put("writer", getWriterStats());
+        return response;
+    }
+
+    /**
+     * Statistics of the background writer
+     * @return pending, written, dropped and failed entry counts
+     */
+    public Map<String, Object> getWriterStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("pending", buffer.size());
+        stats.put("written", written.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("failed", failed.sum());
+        return stats;
+    }
+
+    private void enqueueAfterCommit(List<Entry> entries) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            entries.forEach(this::enqueue);
+            return;
+        }
+        // A rolled-back change must not show up in the audit trail
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                entries.forEach(AuditLogService.this::enqueue);
+            }
+        });
+    }
+
+    private void enqueue(Entry entry) {
+        if (!buffer.offer(entry)) {
+            dropped.increment();
+            long total = dropped.sum();
+            if (total == 1 || total % 1000 == 0) {
+                logger.warn("Audit buffer full, {} entries dropped so far", total);
+            }
+        }
+    }
+
+    private void drainLoop() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            Entry first;
+            try {
+                first = buffer.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                // Interrupted by stopWriter; keep draining until the buffer is empty
+                continue;
+            }
+            if (first == null) {
+                continue;
+            }
+            batch.add(first);
+            buffer.drainTo(batch, batchSize - 1);
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<Entry> batch) {
+        for (int attempt = 1; attempt <= MAX_WRITE_ATTEMPTS; attempt++) {
+            try {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (statement, entry) -> {
+                    statement.setTimestamp(1, Timestamp.valueOf(entry.occurredAt));
+                    statement.setString(2, entry.actor);
+                    statement.setString(3, entry.action);
+                    statement.setString(4, entry.entityType);
+                    if (entry.entityId != null) {
+                        statement.setLong(5, entry.entityId);
+                    } else {
+                        statement.setNull(5, Types.BIGINT);
+                    }
+                    statement.setString(6, entry.details);
+                });
+                written.add(batch.size());
+                return;
+            } catch (Exception e) {
+                if (attempt == MAX_WRITE_ATTEMPTS) {
+                    failed.add(batch.size());
+                    logger.error("Failed to write {} audit entries: {}", batch.size(), e.getMessage(), e);
+                    return;
+                }
+                logger.warn("Audit batch write failed (attempt {}), retrying: {}", attempt, e.getMessage());
+                try {
+                    Thread.sleep(200L * attempt);
+                } catch (InterruptedException interrupted) {
+                    // Shutting down; retry immediately
+                }
+            }
+        }
+    }
+
+    private Map<String, Object> toMap(AuditLog log) {
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("id", log.getAuditId());
+        entry.put("timestamp", log.getOccurredAt());
+        entry.put("actor", log.getActor());
+        entry.put("action", log.getAction());
+        entry.put("entityType", log.getEntityType());
+        entry.put("entityId", log.getEntityId());
+        entry.put("details", log.getDetails());
+        return entry;
+    }
+
+    private static String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || "anonymousUser".equals(authentication.getName())) {
+            return "system";
+        }
+        return authentication.getName();
+    }
+
+    private static String normalize(String filter) {
+        return filter == null || filter.isBlank() ? null : filter.trim().toUpperCase();
+    }
+
+    private static String truncate(String details) {
+        if (details == null || details.length() <= MAX_DETAILS_LENGTH) {
+            return details;
+        }
+        return details.substring(0, MAX_DETAILS_LENGTH - 3) + "...";
+    }
+
+    private static final class Entry {
+        private final LocalDateTime occurredAt;
+        private final String actor;
+        private final String action;
+        private final String entityType;
+        private final Long entityId;
+        private final String details;
+
+        private Entry(LocalDateTime occurredAt, String actor, String action, String entityType,
+                      Long entityId, String details) {
+            this.occurredAt = occurredAt;
+            this.actor = actor;
+            this.action = action;
+            this.entityType = entityType;
+            this.entityId = entityId;
+            this.details = details;
+        }
+    }
+}
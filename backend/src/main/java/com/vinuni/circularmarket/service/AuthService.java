@@ -9,6 +9,7 @@ import com.vinuni.circularmarket.repository.UserRepository;
 import com.vinuni.circularmarket.security.JwtUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -29,6 +30,7 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final ApplicationEventPublisher eventPublisher;
 
     // VinUni email domain pattern
     private static final Pattern VINUNI_EMAIL_PATTERN = Pattern.compile("^[a-zA-Z0-9._%+-]+@vinuni\\.edu\\.vn$");
@@ -36,11 +38,13 @@ public class AuthService {
     public AuthService(AuthenticationManager authenticationManager,
                       UserRepository userRepository,
                       PasswordEncoder passwordEncoder,
-                      JwtUtil jwtUtil) {
+                      JwtUtil jwtUtil,
+                      ApplicationEventPublisher eventPublisher) {
         this.authenticationManager = authenticationManager;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtUtil = jwtUtil;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -131,6 +135,8 @@ public class AuthService {
             user.setStatus(UserStatus.active);
 
             User savedUser = userRepository.save(user);
+            eventPublisher.publishEvent(new UserRegisteredEvent(savedUser.getUserId(), savedUser.getFullName(),
+                                                               savedUser.getCreatedAt()));
 
             // Generate tokens for immediate login after registration
             String token = jwtUtil.generateToken(savedUser.getEmail());
@@ -0,0 +1,50 @@
+package com.vinuni.circularmarket.service;
+
+import com.vinuni.circularmarket.model.Category;
+
+/**
+ * Published by CategoryService whenever a category is created, renamed or deleted,
+ * so in-memory indexes holding category names do not wait for a listing change to notice.
+ */
+public class CategoryChangedEvent {
+
+    private final Long categoryId;
+    private final String name;
+    private final boolean deleted;
+
+    private CategoryChangedEvent(Long categoryId, String name, boolean deleted) {
+        this.categoryId = categoryId;
+        this.name = name;
+        this.deleted = deleted;
+    }
+
+    /**
+     * Snapshot a created or updated category
+     * @param category the saved category
+     * @return change event
+     */
+    public static CategoryChangedEvent saved(Category category) {
+        return new CategoryChangedEvent(category.getCategoryId(), category.getName(), false);
+    }
+
+    /**
+     * Event for a deleted category
+     * @param category the deleted category
+     * @return change event (only the ID is set)
+     */
+    public static CategoryChangedEvent deleted(Category category) {
+        return new CategoryChangedEvent(category.getCategoryId(), null, true);
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+}
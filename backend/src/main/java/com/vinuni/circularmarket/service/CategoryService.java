@@ -3,6 +3,7 @@ package com.vinuni.circularmarket.service;
 import com.vinuni.circularmarket.dto.CategoryDTO;
 import com.vinuni.circularmarket.model.Category;
 import com.vinuni.circularmarket.repository.CategoryRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -16,9 +17,14 @@ import java.util.stream.Collectors;
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final AuditLogService auditLogService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public CategoryService(CategoryRepository categoryRepository) {
+    public CategoryService(CategoryRepository categoryRepository, AuditLogService auditLogService,
+                           ApplicationEventPublisher eventPublisher) {
         this.categoryRepository = categoryRepository;
+        this.auditLogService = auditLogService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -79,6 +85,9 @@ public class CategoryService {
         category.setDescription(categoryDTO.getDescription());
 
         Category savedCategory = categoryRepository.save(category);
+        auditLogService.record("CREATE", "CATEGORY", savedCategory.getCategoryId(),
+                               "Category created: " + savedCategory.getName());
+        eventPublisher.publishEvent(CategoryChangedEvent.saved(savedCategory));
         return convertToDTO(savedCategory);
     }
 
@@ -103,6 +112,8 @@ public class CategoryService {
         category.setDescription(categoryDTO.getDescription());
 
         Category savedCategory = categoryRepository.save(category);
+        auditLogService.record("UPDATE", "CATEGORY", categoryId, "Category updated: " + savedCategory.getName());
+        eventPublisher.publishEvent(CategoryChangedEvent.saved(savedCategory));
         return convertToDTO(savedCategory);
     }
 
@@ -122,6 +133,8 @@ public class CategoryService {
         }
 
         categoryRepository.delete(category);
+        auditLogService.record("DELETE", "CATEGORY", categoryId, "Category deleted: " + category.getName());
+        eventPublisher.publishEvent(CategoryChangedEvent.deleted(category));
     }
 
     /**
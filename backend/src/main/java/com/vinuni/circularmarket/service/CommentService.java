@@ -1,5 +1,6 @@
 package com.vinuni.circularmarket.service;
 
+import com.vinuni.circularmarket.dto.BulkCommentDeleteResultDTO;
 import com.vinuni.circularmarket.dto.CommentDTO;
 import com.vinuni.circularmarket.dto.CreateCommentRequest;
 import com.vinuni.circularmarket.dto.UserDTO;
@@ -9,26 +10,50 @@ import com.vinuni.circularmarket.model.User;
 import com.vinuni.circularmarket.repository.CommentRepository;
 import com.vinuni.circularmarket.repository.ListingRepository;
 import com.vinuni.circularmarket.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class CommentService {
 
+    private static final Logger logger = LoggerFactory.getLogger(CommentService.class);
+
+    // IDs per recursive lookup and per DELETE ... IN (...) statement in bulk moderation
+    @Value("${comments.bulk.chunk-size:500}")
+    private int bulkChunkSize;
+
     private final CommentRepository commentRepository;
     private final ListingRepository listingRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AuditLogService auditLogService;
 
-    public CommentService(CommentRepository commentRepository, ListingRepository listingRepository, UserRepository userRepository) {
+    public CommentService(CommentRepository commentRepository, ListingRepository listingRepository,
+                          UserRepository userRepository, ApplicationEventPublisher eventPublisher,
+                          AuditLogService auditLogService) {
         this.commentRepository = commentRepository;
         this.listingRepository = listingRepository;
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.auditLogService = auditLogService;
     }
 
     /**
@@ -66,21 +91,38 @@ public class CommentService {
         }
 
         Comment savedComment = commentRepository.save(comment);
+        listingRepository.adjustCommentCount(listingId, 1);
+        eventPublisher.publishEvent(new ListingCommentsChangedEvent(listingId));
         return convertToDTO(savedComment);
     }
 
     /**
-     * Get comments for a listing
+     * Get comments for a listing as threads; replies are nested under their parent at any depth
      * @param listingId the listing ID
-     * @return list of comments for the listing
+     * @return list of top-level comments with their replies
      */
     @Transactional(readOnly = true)
     public List<CommentDTO> getCommentsByListingId(Long listingId) {
-        List<Comment> topLevelComments = commentRepository.findByListing_ListingIdAndParentIsNullOrderByCreatedAtAsc(listingId);
+        List<Comment> comments = commentRepository.findAllByListingIdWithUser(listingId);
+
+        // Index every comment first so replies can be attached regardless of query order
+        Map<Long, CommentDTO> nodes = new LinkedHashMap<>();
+        for (Comment comment : comments) {
+            CommentDTO dto = convertToDTO(comment);
+            dto.setReplies(new ArrayList<>());
+            nodes.put(dto.getCommentId(), dto);
+        }
 
-        return topLevelComments.stream()
-                .map(this::convertToDTOWithReplies)
-                .collect(Collectors.toList());
+        List<CommentDTO> roots = new ArrayList<>();
+        for (CommentDTO node : nodes.values()) {
+            CommentDTO parent = node.getParentId() != null ? nodes.get(node.getParentId()) : null;
+            if (parent != null) {
+                parent.getReplies().add(node);
+            } else {
+                roots.add(node);
+            }
+        }
+        return roots;
     }
 
     /**
@@ -169,23 +211,19 @@ public class CommentService {
             throw new IllegalArgumentException("Cannot delete comment with replies");
         }
 
+        Long listingId = comment.getListing().getListingId();
         commentRepository.delete(comment);
+        listingRepository.adjustCommentCount(listingId, -1);
+        eventPublisher.publishEvent(new ListingCommentsChangedEvent(listingId));
     }
 
     /**
-     * Admin delete comment (bypasses ownership and reply checks)
+     * Admin delete comment (bypasses ownership and reply checks); replies at any depth are deleted too
      * @param commentId the comment ID
      */
     @Transactional
     public void adminDeleteComment(Long commentId) {
-        Comment comment = commentRepository.findById(commentId)
-                .orElseThrow(() -> new IllegalArgumentException("Comment not found with id: " + commentId));
-
-        // Admin can delete any comment - delete replies first if any
-        commentRepository.deleteByParent_CommentId(commentId);
-
-        // Then delete the comment itself
-        commentRepository.delete(comment);
+        deleteWithReplies(commentId);
     }
 
     /**
@@ -246,58 +284,115 @@ public class CommentService {
     }
 
     /**
-     * Delete comment as admin (bypasses ownership checks)
+     * Delete comment as admin (bypasses ownership checks); replies at any depth are deleted too
      * @param commentId the comment ID
      */
     @Transactional
     public void deleteCommentAsAdmin(Long commentId) {
-        Comment comment = commentRepository.findById(commentId)
-                .orElseThrow(() -> new IllegalArgumentException("Comment not found with id: " + commentId));
+        deleteWithReplies(commentId);
+    }
 
-        // If comment has replies, delete them too (cascade)
-        List<Comment> replies = commentRepository.findByParent_CommentIdOrderByCreatedAtAsc(commentId);
-        if (!replies.isEmpty()) {
-            commentRepository.deleteAll(replies);
+    /**
+     * Delete a comment and its whole reply subtree, then recount the listing. fk_comment_parent is
+     * ON DELETE SET NULL, so deleting only the comment (or only its direct replies) would leave the
+     * deeper replies behind as top-level comments.
+     * @param commentId the comment ID
+     */
+    private void deleteWithReplies(Long commentId) {
+        List<Object[]> subtree = commentRepository.findSubtrees(List.of(commentId));
+        if (subtree.isEmpty()) {
+            throw new IllegalArgumentException("Comment not found with id: " + commentId);
         }
 
-        commentRepository.delete(comment);
+        Long listingId = ((Number) subtree.get(0)[2]).longValue();
+        List<Long> ids = subtree.stream()
+                .map(row -> ((Number) row[0]).longValue())
+                .collect(Collectors.toList());
+        for (List<Long> chunk : chunks(ids, Math.max(bulkChunkSize, 1))) {
+            commentRepository.deleteAllByIdIn(chunk);
+        }
+
+        listingRepository.syncCommentCount(listingId);
+        eventPublisher.publishEvent(new ListingCommentsChangedEvent(listingId));
     }
 
     /**
-     * Bulk delete comments as admin
-     * @param commentIds list of comment IDs to delete
-     * @return number of comments deleted
+     * Bulk delete comments as admin, together with all of their replies at any depth.
+     * Subtrees are found with one recursive query per chunk of IDs and removed with one
+     * DELETE per chunk; no comment entities are loaded.
+     * @param commentIds list of comment IDs to delete (duplicates and nulls are ignored)
+     * @return per-ID outcome
      */
     @Transactional
-    public int bulkDeleteComments(List<Long> commentIds) {
-        int deletedCount = 0;
-        for (Long commentId : commentIds) {
-            try {
-                deleteCommentAsAdmin(commentId);
-                deletedCount++;
-            } catch (Exception e) {
-                // Log error but continue with other deletions
-                System.err.println("Failed to delete comment " + commentId + ": " + e.getMessage());
+    public BulkCommentDeleteResultDTO bulkDeleteComments(List<Long> commentIds) {
+        List<Long> requested = new ArrayList<>(new LinkedHashSet<>(commentIds));
+        requested.removeIf(Objects::isNull);
+        BulkCommentDeleteResultDTO result = new BulkCommentDeleteResultDTO(requested.size());
+        int chunkSize = Math.max(bulkChunkSize, 1);
+
+        // Every comment to delete, mapped to its listing; roots found tell which requested IDs exist
+        Map<Long, Long> toDelete = new LinkedHashMap<>();
+        Set<Long> foundRoots = new HashSet<>();
+        for (List<Long> chunk : chunks(requested, chunkSize)) {
+            for (Object[] row : commentRepository.findSubtrees(chunk)) {
+                toDelete.put(((Number) row[0]).longValue(), ((Number) row[2]).longValue());
+                foundRoots.add(((Number) row[1]).longValue());
+            }
+        }
+        for (Long commentId : requested) {
+            if (foundRoots.contains(commentId)) {
+                result.getDeletedIds().add(commentId);
+            } else {
+                result.getNotFoundIds().add(commentId);
             }
         }
-        return deletedCount;
+        if (toDelete.isEmpty()) {
+            return result;
+        }
+
+        int deleted = 0;
+        for (List<Long> chunk : chunks(new ArrayList<>(toDelete.keySet()), chunkSize)) {
+            deleted += commentRepository.deleteAllByIdIn(chunk);
+        }
+        result.setTotalDeleted(deleted);
+        result.setRepliesDeleted(Math.max(deleted - result.getDeletedIds().size(), 0));
+
+        Set<Long> listingIds = new LinkedHashSet<>(toDelete.values());
+        listingRepository.syncCommentCounts(listingIds);
+        for (Long listingId : listingIds) {
+            eventPublisher.publishEvent(new ListingCommentsChangedEvent(listingId));
+        }
+        auditLogService.record("DELETE", "COMMENT", null, "Bulk moderation delete: " + result.getDeletedIds().size()
+                + " comments and " + result.getRepliesDeleted() + " replies on " + listingIds.size() + " listings");
+        logger.info("BULK DELETE OPERATION SUCCESS: Comments deleted - Requested: {}, Deleted: {}, Replies: {}, Not found: {}",
+                   result.getRequested(), result.getDeletedIds().size(), result.getRepliesDeleted(),
+                   result.getNotFoundIds().size());
+        return result;
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids, int chunkSize) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            chunks.add(ids.subList(from, Math.min(from + chunkSize, ids.size())));
+        }
+        return chunks;
     }
 
     /**
-     * Convert Comment entity to CommentDTO with replies
-     * @param comment the comment entity
-     * @return CommentDTO with replies
+     * Reconciliation job: repair listing comment counts that drifted from the Comment table
+     * (e.g. after manual SQL deletes or failed writes)
+     * @return number of listings repaired
      */
-    private CommentDTO convertToDTOWithReplies(Comment comment) {
-        CommentDTO dto = convertToDTO(comment);
-
-        // Load replies
-        List<CommentDTO> replies = commentRepository.findByParent_CommentIdOrderByCreatedAtAsc(comment.getCommentId())
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-
-        dto.setReplies(replies);
-        return dto;
+    @Scheduled(cron = "${comments.count-reconcile-cron:0 0 3 * * *}")
+    @Transactional
+    public int reconcileCommentCounts() {
+        int repaired = listingRepository.reconcileCommentCounts();
+        if (repaired > 0) {
+            logger.warn("Comment count reconciliation repaired {} listings", repaired);
+            eventPublisher.publishEvent(new ListingCommentsChangedEvent(null));
+        } else {
+            logger.debug("Comment count reconciliation found no drift");
+        }
+        return repaired;
     }
 }
\ No newline at end of file
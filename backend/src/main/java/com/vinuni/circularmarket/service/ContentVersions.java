@@ -0,0 +1,194 @@
+package com.vinuni.circularmarket.service;
+
+import com.vinuni.circularmarket.repository.CommentRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Version validators (ETags) for the public read endpoints, cheap enough to check before any
+ * service code runs.
+ *
+ * Each validator is computed from the rows its response is built from: update times, optimistic
+ * lock versions, comment counts, row counts, highest IDs and a CRC32 checksum of the displayed
+ * columns (including the names of related users and categories). Writes made by other instances,
+ * by the stored procedures or directly in SQL therefore move the validator without any shared
+ * counter to maintain. Only an ETag is produced: no single timestamp covers deletes, renames or
+ * comment count changes, so a Last-Modified date could answer 304 for a changed resource.
+ */
+@Component
+public class ContentVersions {
+
+    private static final String LISTING_SQL =
+            "SELECT l.updated_at, l.version, l.comment_count, c.name, c.description, u.full_name, u.email " +
+            "FROM `Listing` l JOIN `Category` c ON c.category_id = l.category_id " +
+            "JOIN `User` u ON u.user_id = l.seller_id WHERE l.listing_id = ?";
+
+    private static final String LISTINGS_SQL =
+            "SELECT COUNT(*), MAX(l.listing_id), MAX(l.updated_at), SUM(l.version), SUM(l.comment_count), " +
+            "SUM(CRC32(CONCAT_WS('|', c.name, c.description, u.full_name, u.email))) " +
+            "FROM `Listing` l JOIN `Category` c ON c.category_id = l.category_id " +
+            "JOIN `User` u ON u.user_id = l.seller_id";
+
+    private static final String LISTING_COUNTS_SQL =
+            "SELECT COUNT(*), MAX(listing_id), SUM(version) FROM `Listing`";
+
+    private static final String CATEGORIES_SQL =
+            "SELECT COUNT(*), MAX(category_id), SUM(CRC32(CONCAT_WS('|', name, description))) FROM `Category`";
+
+    private static final String COMMENTS_SQL =
+            "SELECT COUNT(*), MAX(c.comment_id), MAX(c.created_at), " +
+            "SUM(CRC32(CONCAT_WS('|', c.content, c.parent_id, u.full_name))) " +
+            "FROM `Comment` c LEFT JOIN `User` u ON u.user_id = c.user_id WHERE c.listing_id = ?";
+
+    private static final String LISTING_REVIEWS_SQL =
+            "SELECT COUNT(*), MAX(r.review_id), " +
+            "SUM(CRC32(CONCAT_WS('|', r.rating, r.comment, b.full_name, l.title, s.full_name))) " +
+            "FROM `Review` r JOIN `Order` o ON o.order_id = r.order_id " +
+            "JOIN `Listing` l ON l.listing_id = o.listing_id " +
+            "JOIN `User` b ON b.user_id = o.buyer_id JOIN `User` s ON s.user_id = l.seller_id " +
+            "WHERE o.listing_id = ?";
+
+    private static final String SELLER_REVIEWS_SQL =
+            "SELECT COUNT(*), MAX(r.review_id), SUM(r.rating) " +
+            "FROM `Review` r JOIN `Order` o ON o.order_id = r.order_id " +
+            "JOIN `Listing` l ON l.listing_id = o.listing_id WHERE l.seller_id = ?";
+
+    private static final String USER_SQL =
+            "SELECT full_name, email, phone, address, role, status, avg_rating, rating_count " +
+            "FROM `User` WHERE user_id = ?";
+
+    private final CommentRepository commentRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public ContentVersions(CommentRepository commentRepository, JdbcTemplate jdbcTemplate) {
+        this.commentRepository = commentRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Version of a listing detail: the listing row plus its category and seller names
+     * @param listingId the listing ID
+     * @return version, or null if the listing does not exist
+     */
+    public Version listing(Long listingId) {
+        return rowVersion("listing|" + listingId, LISTING_SQL, listingId);
+    }
+
+    /**
+     * Version of the comments of a listing (all, top-level pages and count)
+     * @param listingId the listing ID
+     * @return version
+     */
+    public Version listingComments(Long listingId) {
+        return rowVersion("comments|" + listingId, COMMENTS_SQL, listingId);
+    }
+
+    /**
+     * Version of the replies to a comment, taken from the comments of its listing
+     * @param commentId the parent comment ID
+     * @return version, or null if the comment does not exist
+     */
+    public Version commentReplies(Long commentId) {
+        return commentRepository.findListingIdByCommentId(commentId)
+                .map(listingId -> rowVersion("replies|" + commentId, COMMENTS_SQL, listingId))
+                .orElse(null);
+    }
+
+    /**
+     * Version of listing collections (browse, filter and full-text search)
+     * @return version
+     */
+    public Version listingCollections() {
+        return Version.of("listings", row(LISTINGS_SQL), row(CATEGORIES_SQL));
+    }
+
+    /**
+     * Version of the category list and category details
+     * @return version
+     */
+    public Version categories() {
+        return Version.of("categories", row(CATEGORIES_SQL));
+    }
+
+    /**
+     * Version of categories with their listing counts
+     * @return version
+     */
+    public Version categoriesWithCounts() {
+        return Version.of("category-counts", row(CATEGORIES_SQL), row(LISTING_COUNTS_SQL));
+    }
+
+    /**
+     * Version of the reviews of a listing
+     * @param listingId the listing ID
+     * @return version
+     */
+    public Version listingReviews(Long listingId) {
+        return rowVersion("reviews|" + listingId, LISTING_REVIEWS_SQL, listingId);
+    }
+
+    /**
+     * Version of a seller's average rating
+     * @param sellerId the seller ID
+     * @return version
+     */
+    public Version sellerRating(Long sellerId) {
+        return rowVersion("seller-rating|" + sellerId, SELLER_REVIEWS_SQL, sellerId);
+    }
+
+    /**
+     * Version of a public user profile
+     * @param userId the user ID
+     * @return version, or null if the user does not exist
+     */
+    public Version user(Long userId) {
+        return rowVersion("user|" + userId, USER_SQL, userId);
+    }
+
+    private Version rowVersion(String key, String sql, Long id) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(sql, id);
+        return rows.isEmpty() ? null : Version.of(key, rows.get(0));
+    }
+
+    private Map<String, Object> row(String sql) {
+        return jdbcTemplate.queryForMap(sql);
+    }
+
+    /**
+     * A weak ETag for one representation
+     */
+    public static final class Version {
+        private final String etag;
+
+        private Version(String etag) {
+            this.etag = etag;
+        }
+
+        /**
+         * Build a version from the key and every column of the given rows
+         * @param key representation kind and IDs
+         * @param rows rows the representation depends on
+         * @return version
+         */
+        @SafeVarargs
+        private static Version of(String key, Map<String, Object>... rows) {
+            StringBuilder parts = new StringBuilder(key);
+            for (Map<String, Object> row : rows) {
+                for (Object value : row.values()) {
+                    parts.append('|').append(value);
+                }
+            }
+            String hash = DigestUtils.md5DigestAsHex(parts.toString().getBytes(StandardCharsets.UTF_8));
+            return new Version("W/\"" + hash + "\"");
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.vinuni.circularmarket.service;
+
+/**
+ * Thrown when a buyer requests a listing they already have a requested or confirmed order for,
+ * whether the existence check or the uq_order_active_buyer unique key caught it.
+ */
+public class DuplicateActiveOrderException extends RuntimeException {
+
+    public DuplicateActiveOrderException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,294 @@
+package com.vinuni.circularmarket.service;
+
+import com.vinuni.circularmarket.dto.BrowsePageSnapshot;
+import com.vinuni.circularmarket.dto.ListingDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for listing detail and the first browse pages.
+ *
+ * Writes are handled in two steps so a listing is never served from cache with a stale status:
+ * when a write event is published (inside the writing transaction) the affected entries are evicted
+ * and the listing is pinned as uncacheable; once the transaction completes the entries are evicted
+ * again, the generation is bumped and the pin is released. A load only populates the cache if no
+ * write touched it while it ran, so a value read before a commit can never be stored after it.
+ *
+ * Writes on other instances publish no events here. Detail and page entries therefore remember the
+ * conditional GET validator they were loaded under; a request validated against a different one
+ * reloads the entry, so an ETag computed from the database is never sent with an older cached body.
+ */
+@Component
+public class ListingCache {
+
+    @Value("${listings.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${listings.cache.max-cached-page:2}")
+    private int maxCachedPage;
+
+    private final LocalCache<Long, Stamped<ListingDTO>> details;
+    private final LocalCache<PageKey, Stamped<Page<ListingDTO>>> pages;
+    // Pre-serialized default browse pages, keyed by category ID (null for all categories)
+    private final LocalCache<Long, BrowsePageSnapshot> snapshots;
+
+    // Guards generation, pendingListings and pendingWrites together with cache puts and evictions
+    private final Object writeLock = new Object();
+    private long generation;
+    private final Map<Long, Integer> pendingListings = new HashMap<>();
+    private int pendingWrites;
+
+    public ListingCache(@Value("${listings.cache.detail-max-size:2000}") int detailMaxSize,
+                        @Value("${listings.cache.detail-ttl-seconds:60}") long detailTtlSeconds,
+                        @Value("${listings.cache.page-max-size:200}") int pageMaxSize,
+                        @Value("${listings.cache.page-ttl-seconds:30}") long pageTtlSeconds,
+                        @Value("${listings.cache.snapshot-max-size:256}") int snapshotMaxSize,
+                        @Value("${listings.cache.snapshot-ttl-seconds:300}") long snapshotTtlSeconds) {
+        this.details = new LocalCache<>(detailMaxSize, detailTtlSeconds * 1000);
+        this.pages = new LocalCache<>(pageMaxSize, pageTtlSeconds * 1000);
+        this.snapshots = new LocalCache<>(snapshotMaxSize, snapshotTtlSeconds * 1000);
+    }
+
+    /**
+     * Get a listing detail through the cache
+     * @param listingId the listing ID
+     * @param validator ETag the request was validated against, or null to accept any cached entry
+     * @param loader loads the listing when it is not cached
+     * @return optional listing DTO
+     */
+    public Optional<ListingDTO> getListing(Long listingId, String validator, Supplier<Optional<ListingDTO>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        Stamped<ListingDTO> cached = details.get(listingId);
+        if (cached != null && cached.matches(validator)) {
+            return Optional.of(cached.value);
+        }
+
+        long loadGeneration = currentGeneration();
+        Optional<ListingDTO> loaded = loader.get();
+        loaded.ifPresent(listing -> {
+            synchronized (writeLock) {
+                if (generation == loadGeneration && !pendingListings.containsKey(listingId)) {
+                    details.put(listingId, new Stamped<>(listing, validator));
+                }
+            }
+        });
+        return loaded;
+    }
+
+    /**
+     * Get a page of available listings through the cache; only the first pages are cached
+     * @param categoryId category of the page, or null for all categories
+     * @param pageable pagination information
+     * @param validator ETag the request was validated against, or null to accept any cached entry
+     * @param loader loads the page when it is not cached
+     * @return page of available listings
+     */
+    public Page<ListingDTO> getAvailablePage(Long categoryId, Pageable pageable, String validator,
+                                             Supplier<Page<ListingDTO>> loader) {
+        if (!enabled || pageable.getPageNumber() > maxCachedPage) {
+            return loader.get();
+        }
+
+        PageKey key = new PageKey(categoryId, pageable.getPageNumber(), pageable.getPageSize(),
+                                  pageable.getSort().toString());
+        Stamped<Page<ListingDTO>> cached = pages.get(key);
+        if (cached != null && cached.matches(validator)) {
+            return cached.value;
+        }
+
+        long loadGeneration = currentGeneration();
+        Page<ListingDTO> loaded = loader.get();
+        synchronized (writeLock) {
+            if (generation == loadGeneration && pendingWrites == 0) {
+                pages.put(key, new Stamped<>(loaded, validator));
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Get the pre-serialized default browse page of a category. The snapshot is only rebuilt
+     * after a listing in that category (or on that page) changes, or when it expires.
+     * @param categoryId the category ID, or null for all categories
+     * @param builder builds and serializes the page when no snapshot is cached
+     * @return browse page snapshot
+     */
+    public BrowsePageSnapshot getBrowseSnapshot(Long categoryId, Supplier<BrowsePageSnapshot> builder) {
+        if (!enabled) {
+            return builder.get();
+        }
+
+        BrowsePageSnapshot cached = snapshots.get(categoryId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long loadGeneration = currentGeneration();
+        BrowsePageSnapshot built = builder.get();
+        synchronized (writeLock) {
+            if (generation == loadGeneration && pendingWrites == 0) {
+                snapshots.put(categoryId, built);
+            }
+        }
+        return built;
+    }
+
+    /**
+     * A listing is being written: evict it now and, inside a transaction, keep it uncacheable
+     * until the transaction completes, then evict it again
+     * @param event the listing change
+     */
+    @EventListener
+    public void onListingChanged(ListingChangedEvent event) {
+        Long listingId = event.getListingId();
+        Long categoryId = event.getCategoryId();
+
+        synchronized (writeLock) {
+            generation++;
+            evictListing(listingId, categoryId);
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                return;
+            }
+            pendingListings.merge(listingId, 1, Integer::sum);
+            pendingWrites++;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (writeLock) {
+                    generation++;
+                    pendingListings.computeIfPresent(listingId, (id, count) -> count > 1 ? count - 1 : null);
+                    pendingWrites--;
+                    evictListing(listingId, categoryId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Comment counts changed: evict the listing detail and pages showing it once the change is committed
+     * @param event the comment change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onListingCommentsChanged(ListingCommentsChangedEvent event) {
+        synchronized (writeLock) {
+            generation++;
+            if (event.getListingId() == null) {
+                details.invalidateAll();
+                pages.invalidateAll();
+                snapshots.invalidateAll();
+            } else {
+                details.invalidate(event.getListingId());
+                pages.invalidateIf((key, page) -> containsListing(page.value, event.getListingId()));
+                snapshots.invalidateIf((key, snapshot) -> snapshot.containsListing(event.getListingId()));
+            }
+        }
+    }
+
+    /**
+     * Cache statistics for monitoring
+     * @return hit, miss and eviction counters per tier
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("listingDetails", details.getStats());
+        stats.put("browsePages", pages.getStats());
+        stats.put("browseSnapshots", snapshots.getStats());
+        return stats;
+    }
+
+    private long currentGeneration() {
+        synchronized (writeLock) {
+            return generation;
+        }
+    }
+
+    /**
+     * Evict a listing's detail and every page and snapshot of its category, of all categories, or showing it
+     */
+    private void evictListing(Long listingId, Long categoryId) {
+        details.invalidate(listingId);
+        pages.invalidateIf((key, page) -> key.categoryId == null
+                || Objects.equals(key.categoryId, categoryId)
+                || containsListing(page.value, listingId));
+        snapshots.invalidateIf((key, snapshot) -> key == null
+                || Objects.equals(key, categoryId)
+                || snapshot.containsListing(listingId));
+    }
+
+    private static boolean containsListing(Page<ListingDTO> page, Long listingId) {
+        for (ListingDTO listing : page.getContent()) {
+            if (listingId.equals(listing.getListingId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A cached value and the validator it was loaded under (null if loaded without one)
+     */
+    private static final class Stamped<V> {
+        private final V value;
+        private final String validator;
+
+        private Stamped(V value, String validator) {
+            this.value = value;
+            this.validator = validator;
+        }
+
+        private boolean matches(String requestValidator) {
+            return requestValidator == null || requestValidator.equals(validator);
+        }
+    }
+
+    private static final class PageKey {
+        private final Long categoryId;
+        private final int page;
+        private final int size;
+        private final String sort;
+
+        private PageKey(Long categoryId, int page, int size, String sort) {
+            this.categoryId = categoryId;
+            this.page = page;
+            this.size = size;
+            this.sort = sort;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PageKey other)) {
+                return false;
+            }
+            return page == other.page && size == other.size
+                    && Objects.equals(categoryId, other.categoryId) && sort.equals(other.sort);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(categoryId, page, size, sort);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.vinuni.circularmarket.service;
+
+import com.vinuni.circularmarket.model.Listing;
+import com.vinuni.circularmarket.model.ListingCondition;
+import com.vinuni.circularmarket.model.ListingStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Published by ListingService whenever a listing is created, updated, re-statused or deleted.
+ * Carries a snapshot of the searchable fields so listeners running after commit
+ * do not need to reload the listing.
+ */
+public class ListingChangedEvent {
+
+    private final Long listingId;
+    private final boolean created;
+    private final boolean deleted;
+    private final String title;
+    private final String description;
+    private final Long categoryId;
+    private final String categoryName;
+    private final ListingStatus status;
+    private final ListingCondition condition;
+    private final BigDecimal listPrice;
+    private final Integer commentCount;
+    private final LocalDateTime createdAt;
+    private final String sellerName;
+
+    private ListingChangedEvent(Long listingId, boolean created, boolean deleted, String title, String description,
+                                Long categoryId, String categoryName, ListingStatus status,
+                                ListingCondition condition, BigDecimal listPrice, Integer commentCount,
+                                LocalDateTime createdAt, String sellerName) {
+        this.listingId = listingId;
+        this.created = created;
+        this.deleted = deleted;
+        this.title = title;
+        this.description = description;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.status = status;
+        this.condition = condition;
+        this.listPrice = listPrice;
+        this.commentCount = commentCount;
+        this.createdAt = createdAt;
+        this.sellerName = sellerName;
+    }
+
+    /**
+     * Snapshot a created or modified listing
+     * @param listing the saved listing (category must be loadable)
+     * @return change event
+     */
+    public static ListingChangedEvent saved(Listing listing) {
+        return snapshot(listing, false);
+    }
+
+    /**
+     * Snapshot a newly created listing, including the seller name
+     * @param listing the saved listing (category and seller must be loadable)
+     * @return change event marked as a creation
+     */
+    public static ListingChangedEvent created(Listing listing) {
+        return snapshot(listing, true);
+    }
+
+    private static ListingChangedEvent snapshot(Listing listing, boolean created) {
+        return new ListingChangedEvent(listing.getListingId(), created, false, listing.getTitle(), listing.getDescription(),
+                listing.getCategory().getCategoryId(), listing.getCategory().getName(),
+                listing.getStatus(), listing.getCondition(), listing.getListPrice(),
+                listing.getCommentCount(), listing.getCreatedAt(),
+                created ? listing.getSeller().getFullName() : null);
+    }
+
+    /**
+     * Event for a deleted listing
+     * @param listing the deleted listing
+     * @return change event (only ID and category are set)
+     */
+    public static ListingChangedEvent deleted(Listing listing) {
+        return new ListingChangedEvent(listing.getListingId(), false, true, null, null,
+                listing.getCategory().getCategoryId(), null, null, null, null, null, null, null);
+    }
+
+    public Long getListingId() {
+        return listingId;
+    }
+
+    public boolean isCreated() {
+        return created;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public ListingStatus getStatus() {
+        return status;
+    }
+
+    public ListingCondition getCondition() {
+        return condition;
+    }
+
+    public BigDecimal getListPrice() {
+        return listPrice;
+    }
+
+    public Integer getCommentCount() {
+        return commentCount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * @return the seller's full name, set on creation events only
+     */
+    public String getSellerName() {
+        return sellerName;
+    }
+}
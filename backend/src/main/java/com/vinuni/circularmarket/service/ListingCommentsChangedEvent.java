@@ -0,0 +1,19 @@
+package com.vinuni.circularmarket.service;
+
+/**
+ * Published by CommentService when comments are added to or removed from a listing,
+ * which changes the listing's comment count. A null listing ID means counts of several
+ * listings may have changed (e.g. after reconciliation).
+ */
+public class ListingCommentsChangedEvent {
+
+    private final Long listingId;
+
+    public ListingCommentsChangedEvent(Long listingId) {
+        this.listingId = listingId;
+    }
+
+    public Long getListingId() {
+        return listingId;
+    }
+}
@@ -0,0 +1,573 @@
+package com.vinuni.circularmarket.service;
+
+import com.vinuni.circularmarket.model.Listing;
+import com.vinuni.circularmarket.model.ListingCondition;
+import com.vinuni.circularmarket.model.ListingStatus;
+import com.vinuni.circularmarket.repository.ListingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over listing title, description and category name.
+ * Built from the database at startup and kept current from ListingChangedEvents and
+ * CategoryChangedEvents after commit.
+ * Posting lists are sorted primitive int arrays of listing IDs; text terms and the status,
+ * category and condition filters are intersected in memory, so only the final page of IDs
+ * has to be hydrated from MySQL.
+ */
+@Service
+public class ListingSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ListingSearchIndex.class);
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final int MIN_INDEXED_TERM_LENGTH = 2;
+
+    @Value("${listings.search-index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${listings.search-index.build-chunk-size:1000}")
+    private int buildChunkSize;
+
+    private final ListingRepository listingRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, IntPostingList> termPostings = new TreeMap<>();
+    private final Map<ListingStatus, IntPostingList> statusPostings = new EnumMap<>(ListingStatus.class);
+    private final Map<ListingCondition, IntPostingList> conditionPostings = new EnumMap<>(ListingCondition.class);
+    private final Map<Long, IntPostingList> categoryPostings = new HashMap<>();
+    private final Map<Integer, IndexedListing> listings = new HashMap<>();
+
+    // Category names are indexed once per category and expanded to the category's postings at query time
+    private final TreeMap<String, Set<Long>> categoryTermIndex = new TreeMap<>();
+    private final Map<Long, String[]> categoryTerms = new HashMap<>();
+
+    // IDs changed by events while the startup build is running; the build must not overwrite them
+    private final Set<Integer> changedDuringBuild = new HashSet<>();
+    private boolean building;
+    private volatile boolean ready;
+
+    public ListingSearchIndex(ListingRepository listingRepository) {
+        this.listingRepository = listingRepository;
+    }
+
+    /**
+     * Build the index from the database once the application has started
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        if (!enabled) {
+            logger.info("Listing search index disabled");
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            building = true;
+            changedDuringBuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            Pageable chunk = PageRequest.of(0, buildChunkSize);
+            long lastListingId = 0L;
+            List<Listing> batch;
+            do {
+                batch = listingRepository.findByListingIdGreaterThanOrderByListingIdAsc(lastListingId, chunk);
+                lock.writeLock().lock();
+                try {
+                    for (Listing listing : batch) {
+                        lastListingId = listing.getListingId();
+                        if (!changedDuringBuild.contains(toDocId(lastListingId))) {
+                            apply(ListingChangedEvent.saved(listing));
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } while (batch.size() == buildChunkSize);
+
+            ready = true;
+            logger.info("Listing search index built: {} listings, {} terms in {} ms",
+                       size(), termCount(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.error("Failed to build listing search index, indexed search disabled: {}", e.getMessage(), e);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                building = false;
+                changedDuringBuild.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Apply a listing change once its transaction has committed
+     * @param event the listing change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onListingChanged(ListingChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (building) {
+                changedDuringBuild.add(toDocId(event.getListingId()));
+            }
+            apply(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Re-index a category's name once its transaction has committed, so renames and deletions
+     * take effect without waiting for a listing in that category to change
+     * @param event the category change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (event.isDeleted()) {
+                unindexCategoryName(event.getCategoryId());
+                categoryTerms.remove(event.getCategoryId());
+            } else {
+                indexCategoryName(event.getCategoryId(), event.getName());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Whether the index has finished its initial build and can serve queries
+     * @return true if ready
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Search the index. Every word must match a title, description or category name term;
+     * the last word is matched as a prefix so partially typed words find results.
+     * @param text the search text (may be blank when only filters are used)
+     * @param status status filter (optional)
+     * @param categoryId category filter (optional)
+     * @param condition condition filter (optional)
+     * @param minPrice minimum price (optional)
+     * @param maxPrice maximum price (optional)
+     * @param pageable pagination information (sorting is ignored; newest listings first)
+     * @return page of matching listing IDs
+     */
+    public Page<Long> search(String text, ListingStatus status, Long categoryId, ListingCondition condition,
+                             BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
+        List<String> words = tokenize(text);
+
+        lock.readLock().lock();
+        try {
+            List<IntPostingList> operands = new ArrayList<>();
+            for (int i = 0; i < words.size(); i++) {
+                boolean last = i == words.size() - 1;
+                // Complete words shorter than the indexed minimum cannot match; skip them instead of matching nothing
+                if (last || words.get(i).length() >= MIN_INDEXED_TERM_LENGTH) {
+                    operands.add(postingsForWord(words.get(i), last));
+                }
+            }
+            if (status != null) {
+                operands.add(statusPostings.getOrDefault(status, IntPostingList.EMPTY));
+            }
+            if (categoryId != null) {
+                operands.add(categoryPostings.getOrDefault(categoryId, IntPostingList.EMPTY));
+            }
+            if (condition != null) {
+                operands.add(conditionPostings.getOrDefault(condition, IntPostingList.EMPTY));
+            }
+            if (operands.isEmpty()) {
+                throw new IllegalArgumentException("Search text or at least one filter is required");
+            }
+
+            // Start from the most selective list and probe the others
+            operands.sort(Comparator.comparingInt(IntPostingList::size));
+            IntPostingList smallest = operands.get(0);
+            int[] matches = new int[smallest.size()];
+            int matchCount = 0;
+            for (int i = 0; i < smallest.size(); i++) {
+                int id = smallest.get(i);
+                boolean inAll = true;
+                for (int j = 1; j < operands.size() && inAll; j++) {
+                    inAll = operands.get(j).contains(id);
+                }
+                if (inAll && matchesPrice(listings.get(id), minPrice, maxPrice)) {
+                    matches[matchCount++] = id;
+                }
+            }
+
+            // IDs are ascending; listing IDs grow with creation time, so walk backwards for newest first
+            List<Long> pageIds = new ArrayList<>(pageable.getPageSize());
+            long offset = pageable.getOffset();
+            for (long i = matchCount - 1 - offset; i >= 0 && pageIds.size() < pageable.getPageSize(); i--) {
+                pageIds.add((long) matches[(int) i]);
+            }
+            return new PageImpl<>(pageIds, pageable, matchCount);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of indexed listings
+     * @return listing count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return listings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of distinct title/description terms
+     * @return term count
+     */
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return termPostings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Split text into lowercase, accent-free words (so "Bàn học" matches "ban hoc")
+     * @param text the text
+     * @return words in order, without duplicates
+     */
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+
+        String folded = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        folded = COMBINING_MARKS.matcher(folded).replaceAll("").replace('\u0111', 'd');
+
+        Set<String> words = new LinkedHashSet<>();
+        for (String word : NON_WORD.split(folded)) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return new ArrayList<>(words);
+    }
+
+    /**
+     * Postings for one query word: listings whose own terms match, plus listings in categories whose name matches
+     */
+    private IntPostingList postingsForWord(String word, boolean prefix) {
+        List<IntPostingList> parts = new ArrayList<>();
+        if (prefix) {
+            parts.addAll(prefixRange(termPostings, word).values());
+            for (Set<Long> categoryIds : prefixRange(categoryTermIndex, word).values()) {
+                addCategoryPostings(categoryIds, parts);
+            }
+        } else {
+            IntPostingList exact = termPostings.get(word);
+            if (exact != null) {
+                parts.add(exact);
+            }
+            addCategoryPostings(categoryTermIndex.getOrDefault(word, Collections.emptySet()), parts);
+        }
+        return IntPostingList.union(parts);
+    }
+
+    private void addCategoryPostings(Set<Long> categoryIds, List<IntPostingList> parts) {
+        for (Long categoryId : categoryIds) {
+            IntPostingList postings = categoryPostings.get(categoryId);
+            if (postings != null) {
+                parts.add(postings);
+            }
+        }
+    }
+
+    private static <V> NavigableMap<String, V> prefixRange(TreeMap<String, V> map, String prefix) {
+        return map.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private static boolean matchesPrice(IndexedListing listing, BigDecimal minPrice, BigDecimal maxPrice) {
+        if (minPrice == null && maxPrice == null) {
+            return true;
+        }
+        BigDecimal price = listing.listPrice;
+        return price != null
+                && (minPrice == null || price.compareTo(minPrice) >= 0)
+                && (maxPrice == null || price.compareTo(maxPrice) <= 0);
+    }
+
+    /**
+     * Apply a change to the index (caller holds the write lock)
+     */
+    private void apply(ListingChangedEvent event) {
+        int id = toDocId(event.getListingId());
+        if (id < 0) {
+            logger.warn("Listing ID {} does not fit the search index, skipping", event.getListingId());
+            return;
+        }
+
+        remove(id);
+        if (event.isDeleted()) {
+            return;
+        }
+
+        Set<String> terms = new LinkedHashSet<>();
+        terms.addAll(tokenize(event.getTitle()));
+        terms.addAll(tokenize(event.getDescription()));
+        terms.removeIf(term -> term.length() < MIN_INDEXED_TERM_LENGTH);
+
+        IndexedListing indexed = new IndexedListing(terms.toArray(new String[0]), event.getStatus(),
+                event.getCategoryId(), event.getCondition(), event.getListPrice());
+        listings.put(id, indexed);
+
+        for (String term : indexed.terms) {
+            termPostings.computeIfAbsent(term, t -> new IntPostingList()).add(id);
+        }
+        if (indexed.status != null) {
+            statusPostings.computeIfAbsent(indexed.status, s -> new IntPostingList()).add(id);
+        }
+        if (indexed.condition != null) {
+            conditionPostings.computeIfAbsent(indexed.condition, c -> new IntPostingList()).add(id);
+        }
+        if (indexed.categoryId != null) {
+            categoryPostings.computeIfAbsent(indexed.categoryId, c -> new IntPostingList()).add(id);
+            // Renames arrive as CategoryChangedEvents; a listing snapshot read during the build may be older
+            if (!categoryTerms.containsKey(indexed.categoryId)) {
+                indexCategoryName(indexed.categoryId, event.getCategoryName());
+            }
+        }
+    }
+
+    private void remove(int id) {
+        IndexedListing previous = listings.remove(id);
+        if (previous == null) {
+            return;
+        }
+
+        for (String term : previous.terms) {
+            removeFrom(termPostings, term, id);
+        }
+        if (previous.status != null) {
+            removeFrom(statusPostings, previous.status, id);
+        }
+        if (previous.condition != null) {
+            removeFrom(conditionPostings, previous.condition, id);
+        }
+        if (previous.categoryId != null) {
+            removeFrom(categoryPostings, previous.categoryId, id);
+        }
+    }
+
+    private static <K> void removeFrom(Map<K, IntPostingList> postings, K key, int id) {
+        IntPostingList list = postings.get(key);
+        if (list != null) {
+            list.remove(id);
+            if (list.size() == 0) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Re-index a category's name when it is first seen or has been renamed
+     */
+    private void indexCategoryName(Long categoryId, String categoryName) {
+        String[] terms = tokenize(categoryName).toArray(new String[0]);
+        if (Arrays.equals(categoryTerms.get(categoryId), terms)) {
+            return;
+        }
+
+        unindexCategoryName(categoryId);
+        for (String term : terms) {
+            categoryTermIndex.computeIfAbsent(term, t -> new HashSet<>()).add(categoryId);
+        }
+        categoryTerms.put(categoryId, terms);
+    }
+
+    private void unindexCategoryName(Long categoryId) {
+        String[] previous = categoryTerms.get(categoryId);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous) {
+            Set<Long> ids = categoryTermIndex.get(term);
+            if (ids != null) {
+                ids.remove(categoryId);
+                if (ids.isEmpty()) {
+                    categoryTermIndex.remove(term);
+                }
+            }
+        }
+    }
+
+    private static int toDocId(Long listingId) {
+        return listingId != null && listingId > 0 && listingId <= Integer.MAX_VALUE ? listingId.intValue() : -1;
+    }
+
+    /**
+     * Indexed fields of one listing, kept so a change can remove the old postings
+     */
+    private static final class IndexedListing {
+        private final String[] terms;
+        private final ListingStatus status;
+        private final Long categoryId;
+        private final ListingCondition condition;
+        private final BigDecimal listPrice;
+
+        private IndexedListing(String[] terms, ListingStatus status, Long categoryId,
+                               ListingCondition condition, BigDecimal listPrice) {
+            this.terms = terms;
+            this.status = status;
+            this.categoryId = categoryId;
+            this.condition = condition;
+            this.listPrice = listPrice;
+        }
+    }
+
+    /**
+     * Sorted, duplicate-free list of listing IDs backed by a primitive int array.
+     * New listings get increasing IDs, so add() is an append in the common case.
+     */
+    static final class IntPostingList {
+
+        static final IntPostingList EMPTY = new IntPostingList(new int[0], 0);
+
+        private int[] ids;
+        private int size;
+
+        IntPostingList() {
+            this(new int[4], 0);
+        }
+
+        private IntPostingList(int[] ids, int size) {
+            this.ids = ids;
+            this.size = size;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int get(int index) {
+            return ids[index];
+        }
+
+        boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        void add(int id) {
+            int pos;
+            if (size == 0 || id > ids[size - 1]) {
+                pos = size;
+            } else {
+                pos = Arrays.binarySearch(ids, 0, size, id);
+                if (pos >= 0) {
+                    return;
+                }
+                pos = -pos - 1;
+            }
+
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            ids[pos] = id;
+            size++;
+        }
+
+        void remove(int id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) {
+                return;
+            }
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+            if (size > 16 && size < ids.length / 4) {
+                ids = Arrays.copyOf(ids, ids.length / 2);
+            }
+        }
+
+        /**
+         * Union of several posting lists into a new list
+         */
+        static IntPostingList union(List<IntPostingList> lists) {
+            if (lists.isEmpty()) {
+                return EMPTY;
+            }
+            if (lists.size() == 1) {
+                return lists.get(0);
+            }
+
+            int total = 0;
+            for (IntPostingList list : lists) {
+                total += list.size;
+            }
+            int[] merged = new int[total];
+            int offset = 0;
+            for (IntPostingList list : lists) {
+                System.arraycopy(list.ids, 0, merged, offset, list.size);
+                offset += list.size;
+            }
+            Arrays.sort(merged);
+
+            int unique = 0;
+            for (int i = 0; i < total; i++) {
+                if (unique == 0 || merged[i] != merged[unique - 1]) {
+                    merged[unique++] = merged[i];
+                }
+            }
+            return new IntPostingList(merged, unique);
+        }
+    }
+}
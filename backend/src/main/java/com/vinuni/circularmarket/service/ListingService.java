@@ -1,23 +1,39 @@
 package com.vinuni.circularmarket.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.vinuni.circularmarket.dto.*;
 import com.vinuni.circularmarket.model.*;
 import com.vinuni.circularmarket.repository.CategoryRepository;
-import com.vinuni.circularmarket.repository.CommentRepository;
 import com.vinuni.circularmarket.repository.ListingRepository;
 import com.vinuni.circularmarket.repository.OrderRepository;
 import com.vinuni.circularmarket.repository.UserRepository;
+import jakarta.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,50 +41,147 @@ public class ListingService {
 
     private static final Logger logger = LoggerFactory.getLogger(ListingService.class);
 
+    // Page size of the default browse request kept pre-serialized by getDefaultBrowsePage
+    public static final int DEFAULT_BROWSE_PAGE_SIZE = 12;
+
+    // InnoDB default innodb_ft_min_token_size; shorter words are not indexed
+    private static final int FULLTEXT_MIN_TOKEN_SIZE = 3;
+    private static final int FULLTEXT_MAX_TERMS = 10;
+
     private final ListingRepository listingRepository;
     private final CategoryRepository categoryRepository;
-    private final CommentRepository commentRepository;
     private final OrderRepository orderRepository;
     private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ListingSearchIndex searchIndex;
+    private final ListingSuggestionIndex suggestionIndex;
+    private final ListingCache listingCache;
+    private final AuditLogService auditLogService;
+    private final OptimisticRetry optimisticRetry;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    @Value("${listings.fulltext.recheck-ms:60000}")
+    private long fullTextRecheckMs;
+
+    @Value("${listings.cursor.max-page-size:100}")
+    private int maxCursorPageSize;
+
+    // Once found, the index is assumed to stay; a negative probe is repeated after fullTextRecheckMs
+    private volatile boolean fullTextIndexAvailable;
+    private volatile long fullTextCheckedAtMillis;
 
     public ListingService(ListingRepository listingRepository,
                          CategoryRepository categoryRepository,
-                         CommentRepository commentRepository,
                          OrderRepository orderRepository,
-                         UserRepository userRepository) {
+                         UserRepository userRepository,
+                         EntityManager entityManager,
+                         ApplicationEventPublisher eventPublisher,
+                         ListingSearchIndex searchIndex,
+                         ListingSuggestionIndex suggestionIndex,
+                         ListingCache listingCache,
+                         AuditLogService auditLogService,
+                         OptimisticRetry optimisticRetry,
+                         PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper) {
         this.listingRepository = listingRepository;
         this.categoryRepository = categoryRepository;
-        this.commentRepository = commentRepository;
         this.orderRepository = orderRepository;
         this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.searchIndex = searchIndex;
+        this.suggestionIndex = suggestionIndex;
+        this.listingCache = listingCache;
+        this.auditLogService = auditLogService;
+        this.optimisticRetry = optimisticRetry;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
     }
 
     /**
-     * Get all available listings with pagination
+     * Get all available listings with pagination (first pages are served from the listing cache;
+     * the transaction is only opened on a cache miss)
      * @param pageable pagination information
      * @return page of available listings
      */
-    @Transactional(readOnly = true)
     public Page<ListingDTO> getAvailableListings(Pageable pageable) {
-        logger.debug("Getting available listings with pageable: {}", pageable);
+        return getAvailableListings(pageable, null);
+    }
+
+    /**
+     * Get all available listings with pagination, reloading a cached page loaded under another validator
+     * @param pageable pagination information
+     * @param validator ETag the request was validated against, or null
+     * @return page of available listings
+     */
+    public Page<ListingDTO> getAvailableListings(Pageable pageable, String validator) {
+        return listingCache.getAvailablePage(null, pageable, validator, () -> readOnlyTransaction.execute(status -> {
+            logger.debug("Getting available listings with pageable: {}", pageable);
 
-        var listingPage = listingRepository.findByStatus(ListingStatus.AVAILABLE, pageable);
-        logger.debug("Found {} listings from repository", listingPage.getTotalElements());
+            var listingPage = listingRepository.findByStatus(ListingStatus.AVAILABLE, pageable);
+            logger.debug("Found {} listings from repository", listingPage.getTotalElements());
 
-        var dtoPage = listingPage.map(this::convertToDTO);
-        logger.debug("Converted {} listings to DTOs", dtoPage.getContent().size());
+            var dtoPage = listingPage.map(this::convertToDTO);
+            logger.debug("Converted {} listings to DTOs", dtoPage.getContent().size());
 
-        return dtoPage;
+            return dtoPage;
+        }));
     }
 
     /**
-     * Get listing by ID
+     * Get listing by ID (served from the listing cache when possible)
      * @param listingId the listing ID
+     * @param validator ETag the request was validated against; a cached listing loaded under another one is reloaded
      * @return optional listing DTO
      */
-    @Transactional(readOnly = true)
-    public Optional<ListingDTO> getListingById(Long listingId) {
-        return listingRepository.findById(listingId).map(this::convertToDTO);
+    public Optional<ListingDTO> getListingById(Long listingId, String validator) {
+        return listingCache.getListing(listingId, validator, () -> readOnlyTransaction.execute(status ->
+                listingRepository.findById(listingId).map(this::convertToDTO)));
+    }
+
+    /**
+     * Get the default browse page (page 0, DEFAULT_BROWSE_PAGE_SIZE listings, newest first) as ready-to-send JSON.
+     * The bytes are only regenerated after a listing in the slice changes.
+     * @param categoryId category ID, or null for all categories
+     * @return serialized page with its ETag
+     */
+    public BrowsePageSnapshot getDefaultBrowsePage(Long categoryId) {
+        return listingCache.getBrowseSnapshot(categoryId, () -> {
+            Pageable pageable = PageRequest.of(0, DEFAULT_BROWSE_PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdAt"));
+            Page<ListingDTO> listingsPage = categoryId == null
+                    ? getAvailableListings(pageable)
+                    : getListingsByCategory(categoryId, pageable);
+
+            // Same shape as the paged responses built by ListingController
+            Map<String, Object> response = new HashMap<>();
+            response.put("listings", listingsPage.getContent());
+            response.put("currentPage", listingsPage.getNumber());
+            response.put("totalItems", listingsPage.getTotalElements());
+            response.put("totalPages", listingsPage.getTotalPages());
+            if (categoryId == null) {
+                response.put("pageSize", listingsPage.getSize());
+            } else {
+                response.put("categoryId", categoryId);
+            }
+
+            try {
+                return new BrowsePageSnapshot(objectMapper.writeValueAsBytes(response),
+                        listingsPage.getContent().stream().map(ListingDTO::getListingId).collect(Collectors.toList()));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Failed to serialize browse page", e);
+            }
+        });
+    }
+
+    /**
+     * Get listing cache statistics
+     * @return hit, miss and eviction counters
+     */
+    public Map<String, Object> getCacheStats() {
+        return listingCache.getStats();
     }
 
     /**
@@ -95,15 +208,26 @@ public class ListingService {
     }
 
     /**
-     * Get listings by category
+     * Get available listings by category (first pages are served from the listing cache)
      * @param categoryId the category ID
      * @param pageable pagination information
      * @return page of listings in category
      */
-    @Transactional(readOnly = true)
     public Page<ListingDTO> getListingsByCategory(Long categoryId, Pageable pageable) {
-        return listingRepository.findByCategory_CategoryIdAndStatus(categoryId, ListingStatus.AVAILABLE, pageable)
-                .map(this::convertToDTO);
+        return getListingsByCategory(categoryId, pageable, null);
+    }
+
+    /**
+     * Get available listings by category, reloading a cached page loaded under another validator
+     * @param categoryId the category ID
+     * @param pageable pagination information
+     * @param validator ETag the request was validated against, or null
+     * @return page of listings in category
+     */
+    public Page<ListingDTO> getListingsByCategory(Long categoryId, Pageable pageable, String validator) {
+        return listingCache.getAvailablePage(categoryId, pageable, validator, () -> readOnlyTransaction.execute(status ->
+                listingRepository.findByCategory_CategoryIdAndStatus(categoryId, ListingStatus.AVAILABLE, pageable)
+                        .map(this::convertToDTO)));
     }
 
     /**
@@ -139,6 +263,9 @@ public class ListingService {
             }
 
             Listing savedListing = listingRepository.save(listing);
+            eventPublisher.publishEvent(ListingChangedEvent.created(savedListing));
+            auditLogService.record("CREATE", "LISTING", savedListing.getListingId(),
+                                   "Listing created: " + savedListing.getTitle());
             logger.info("CREATE OPERATION SUCCESS: Listing created - Listing ID: {}, Seller ID: {}, Title: {}",
                        savedListing.getListingId(), sellerId, savedListing.getTitle());
             return convertToDTO(savedListing);
@@ -156,40 +283,43 @@ public class ListingService {
      * @param request the listing update request
      * @return updated listing DTO
      */
-    @Transactional
     public ListingDTO updateListing(Long listingId, Long sellerId, UpdateListingRequest request) {
-        // Find listing and verify ownership and status
-        Listing listing = listingRepository.findUpdatableListing(listingId, sellerId);
-        if (listing == null) {
-            throw new IllegalArgumentException("Listing not found or not updatable");
-        }
+        return optimisticRetry.execute("listing.update", () -> {
+            // Find listing and verify ownership and status
+            Listing listing = listingRepository.findUpdatableListing(listingId, sellerId);
+            if (listing == null) {
+                throw new IllegalArgumentException("Listing not found or not updatable");
+            }
 
-        // Update category if provided
-        if (request.getCategoryId() != null) {
-            Category category = categoryRepository.findById(request.getCategoryId())
-                    .orElseThrow(() -> new IllegalArgumentException("Category not found with id: " + request.getCategoryId()));
-            listing.setCategory(category);
-        }
+            // Update category if provided
+            if (request.getCategoryId() != null) {
+                Category category = categoryRepository.findById(request.getCategoryId())
+                        .orElseThrow(() -> new IllegalArgumentException("Category not found with id: " + request.getCategoryId()));
+                listing.setCategory(category);
+            }
 
-        // Update other fields if provided
-        if (request.getTitle() != null && !request.getTitle().trim().isEmpty()) {
-            listing.setTitle(request.getTitle().trim());
-        }
-        if (request.getDescription() != null) {
-            listing.setDescription(request.getDescription());
-        }
-        if (request.getCondition() != null) {
-            listing.setCondition(request.getCondition());
-        }
-        if (request.getListingType() != null) {
-            listing.setListingType(request.getListingType());
-        }
-        if (request.getListPrice() != null) {
-            listing.setListPrice(request.getListPrice());
-        }
+            // Update other fields if provided
+            if (request.getTitle() != null && !request.getTitle().trim().isEmpty()) {
+                listing.setTitle(request.getTitle().trim());
+            }
+            if (request.getDescription() != null) {
+                listing.setDescription(request.getDescription());
+            }
+            if (request.getCondition() != null) {
+                listing.setCondition(request.getCondition());
+            }
+            if (request.getListingType() != null) {
+                listing.setListingType(request.getListingType());
+            }
+            if (request.getListPrice() != null) {
+                listing.setListPrice(request.getListPrice());
+            }
 
-        Listing savedListing = listingRepository.save(listing);
-        return convertToDTO(savedListing);
+            Listing savedListing = listingRepository.saveAndFlush(listing);
+            eventPublisher.publishEvent(ListingChangedEvent.saved(savedListing));
+            auditLogService.record("UPDATE", "LISTING", listingId, "Listing updated: " + savedListing.getTitle());
+            return convertToDTO(savedListing);
+        });
     }
 
     /**
@@ -197,14 +327,18 @@ public class ListingService {
      * @param listingId the listing ID
      * @param sellerId the seller ID (for authorization)
      */
-    @Transactional
     public void deleteListing(Long listingId, Long sellerId) {
-        Listing listing = listingRepository.findDeletableListing(listingId, sellerId);
-        if (listing == null) {
-            throw new IllegalArgumentException("Listing not found or not deletable");
-        }
+        optimisticRetry.run("listing.delete", () -> {
+            Listing listing = listingRepository.findDeletableListing(listingId, sellerId);
+            if (listing == null) {
+                throw new IllegalArgumentException("Listing not found or not deletable");
+            }
 
-        listingRepository.delete(listing);
+            listingRepository.delete(listing);
+            listingRepository.flush();
+            eventPublisher.publishEvent(ListingChangedEvent.deleted(listing));
+            auditLogService.record("DELETE", "LISTING", listingId, "Listing deleted: " + listing.getTitle());
+        });
     }
 
     /**
@@ -218,6 +352,167 @@ public class ListingService {
         return listingRepository.searchListings(searchTerm, pageable).map(this::convertToDTO);
     }
 
+    /**
+     * Check whether a search term can be served by the FULLTEXT index.
+     * Requires the ft_listing_title_desc index and at least one term long enough to be indexed.
+     * @param searchTerm the search term
+     * @return true if searchListingsFullText can handle the term
+     */
+    public boolean canUseFullTextSearch(String searchTerm) {
+        return isFullTextIndexAvailable() && hasFullTextTerms(searchTerm);
+    }
+
+    /**
+     * Check whether a search term has at least one word long enough for the FULLTEXT index
+     * @param searchTerm the search term
+     * @return true if the term has an indexable word
+     */
+    public boolean hasFullTextTerms(String searchTerm) {
+        return toBooleanModeQuery(searchTerm) != null;
+    }
+
+    /**
+     * Search listings by title and description using MATCH ... AGAINST in boolean mode.
+     * Every term is required and prefix-matched; results are ordered by relevance, newest first on ties.
+     * @param searchTerm the search term
+     * @param pageable pagination information (sorting is ignored)
+     * @return page of matching listings, most relevant first
+     * @throws IllegalArgumentException if the term has no indexable words
+     */
+    @Transactional(readOnly = true)
+    public Page<ListingDTO> searchListingsFullText(String searchTerm, Pageable pageable) {
+        String booleanQuery = toBooleanModeQuery(searchTerm);
+        if (booleanQuery == null) {
+            throw new IllegalArgumentException("Search term has no indexable words");
+        }
+
+        Page<Long> idPage = listingRepository.searchListingIdsFullText(booleanQuery,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+        return hydrateInOrder(idPage);
+    }
+
+    /**
+     * Check whether the in-memory search index has been built and can serve queries
+     * @return true if searchListingsIndexed can be used
+     */
+    public boolean isSearchIndexReady() {
+        return searchIndex.isReady();
+    }
+
+    /**
+     * Search available listings using the in-memory inverted index.
+     * Text and filters are matched in memory; only the requested page is loaded from the database.
+     * @param searchTerm the search text (the last word is prefix-matched)
+     * @param categoryId category filter (optional)
+     * @param condition condition filter (optional)
+     * @param minPrice minimum price (optional)
+     * @param maxPrice maximum price (optional)
+     * @param pageable pagination information (sorting is ignored; newest first)
+     * @return page of matching listings
+     */
+    @Transactional(readOnly = true)
+    public Page<ListingDTO> searchListingsIndexed(String searchTerm, Long categoryId, ListingCondition condition,
+                                                  BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
+        Page<Long> idPage = searchIndex.search(searchTerm, ListingStatus.AVAILABLE, categoryId, condition,
+                                               minPrice, maxPrice, pageable);
+        return hydrateInOrder(idPage);
+    }
+
+    /**
+     * Check whether the suggestion index has been built and can serve queries
+     * @return true if suggestTitles and suggestCategories can be used
+     */
+    public boolean isSuggestionIndexReady() {
+        return suggestionIndex.isReady();
+    }
+
+    /**
+     * Suggest available listing titles for a typed prefix (served from memory)
+     * @param prefix the typed text
+     * @param limit maximum number of suggestions
+     * @return listing ID and title suggestions, most recent and active first
+     */
+    public List<SuggestionDTO> suggestTitles(String prefix, int limit) {
+        return suggestionIndex.suggestTitles(prefix, limit);
+    }
+
+    /**
+     * Suggest categories for a typed prefix (served from memory)
+     * @param prefix the typed text
+     * @param limit maximum number of suggestions
+     * @return category ID and name suggestions, categories with most available listings first
+     */
+    public List<SuggestionDTO> suggestCategories(String prefix, int limit) {
+        return suggestionIndex.suggestCategories(prefix, limit);
+    }
+
+    /**
+     * Load the listings of an ID page with seller and category, keeping the page order
+     */
+    private Page<ListingDTO> hydrateInOrder(Page<Long> idPage) {
+        if (idPage.isEmpty()) {
+            return new PageImpl<>(List.of(), idPage.getPageable(), idPage.getTotalElements());
+        }
+
+        Map<Long, Listing> listingsById = listingRepository.findByListingIdIn(idPage.getContent()).stream()
+                .collect(Collectors.toMap(Listing::getListingId, Function.identity()));
+
+        // Skip listings deleted between the ID lookup and hydration
+        List<ListingDTO> content = idPage.getContent().stream()
+                .map(listingsById::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, idPage.getPageable(), idPage.getTotalElements());
+    }
+
+    /**
+     * Check whether the Listing table has a FULLTEXT index over title and description.
+     * A positive result is kept; a missing index or a failed probe is checked again after the recheck delay,
+     * so a transient error at startup does not disable FULLTEXT search until restart.
+     * @return true if the index exists
+     */
+    public boolean isFullTextIndexAvailable() {
+        if (fullTextIndexAvailable) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        if (fullTextCheckedAtMillis != 0 && now - fullTextCheckedAtMillis < fullTextRecheckMs) {
+            return false;
+        }
+        fullTextCheckedAtMillis = now;
+        boolean available;
+        try {
+            available = listingRepository.countFullTextIndexColumns() >= 2;
+        } catch (Exception e) {
+            logger.warn("Could not inspect FULLTEXT indexes, falling back to LIKE search: {}", e.getMessage());
+            return false;
+        }
+        if (!available) {
+            logger.info("FULLTEXT index on Listing(title, description) not found; search uses LIKE");
+        }
+        fullTextIndexAvailable = available;
+        return available;
+    }
+
+    /**
+     * Convert free text into a boolean mode query where every indexable word is required and prefix-matched.
+     * Boolean operators typed by the user are stripped; words shorter than the InnoDB minimum token size are dropped.
+     * @return the boolean mode query, or null if no indexable words remain
+     */
+    private String toBooleanModeQuery(String searchTerm) {
+        if (searchTerm == null) {
+            return null;
+        }
+
+        String booleanQuery = Arrays.stream(searchTerm.split("[^\\p{L}\\p{N}_]+"))
+                .filter(word -> word.length() >= FULLTEXT_MIN_TOKEN_SIZE)
+                .limit(FULLTEXT_MAX_TERMS)
+                .map(word -> "+" + word + "*")
+                .collect(Collectors.joining(" "));
+        return booleanQuery.isEmpty() ? null : booleanQuery;
+    }
+
     /**
      * Advanced filtering with multiple criteria
      * @param categoryId category filter
@@ -242,25 +537,78 @@ public class ListingService {
      */
     @Transactional(readOnly = true)
     public Page<ListingDTO> getRecentListings(Pageable pageable) {
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
+        LocalDateTime thirtyDaysAgo = recentListingsThreshold();
         return listingRepository.findRecentListings(thirtyDaysAgo, pageable).map(this::convertToDTO);
     }
 
+    /**
+     * Keyset-paginated browse over available listings (newest first).
+     * Each filter is optional; the cursor is null for the first page.
+     * @param categoryId category filter
+     * @param minPrice minimum price filter
+     * @param maxPrice maximum price filter
+     * @param condition condition filter
+     * @param listingType type filter
+     * @param createdSince only listings created at or after this time
+     * @param cursor position after which the page starts
+     * @param size page size, clamped to listings.cursor.max-page-size
+     * @return slice of listings after the cursor
+     */
+    @Transactional(readOnly = true)
+    public Slice<ListingDTO> getAvailableListingsAfter(Long categoryId, BigDecimal minPrice, BigDecimal maxPrice,
+                                                       ListingCondition condition, ListingType listingType,
+                                                       LocalDateTime createdSince, ListingCursor cursor, int size) {
+        return listingRepository.findAvailableListingsAfter(categoryId, minPrice, maxPrice, condition, listingType,
+                        createdSince,
+                        cursor != null ? cursor.getCreatedAt() : null,
+                        cursor != null ? cursor.getListingId() : null,
+                        PageRequest.of(0, Math.max(1, Math.min(size, maxCursorPageSize))))
+                .map(this::convertToDTO);
+    }
+
+    /**
+     * Count available listings matching the keyset browse filters
+     * @param categoryId category filter
+     * @param minPrice minimum price filter
+     * @param maxPrice maximum price filter
+     * @param condition condition filter
+     * @param listingType type filter
+     * @param createdSince only listings created at or after this time
+     * @return number of matching listings
+     */
+    @Transactional(readOnly = true)
+    public long countAvailableListings(Long categoryId, BigDecimal minPrice, BigDecimal maxPrice,
+                                       ListingCondition condition, ListingType listingType,
+                                       LocalDateTime createdSince) {
+        return listingRepository.countAvailableListings(categoryId, minPrice, maxPrice, condition, listingType, createdSince);
+    }
+
+    /**
+     * Start of the "recent listings" window (last 30 days)
+     * @return the date threshold
+     */
+    public LocalDateTime recentListingsThreshold() {
+        return LocalDateTime.now().minusDays(30);
+    }
+
     /**
      * Update listing status (used by order service)
      * @param listingId the listing ID
      * @param status the new status
      */
-    @Transactional
     public void updateListingStatus(Long listingId, ListingStatus status) {
-        Listing listing = listingRepository.findById(listingId)
-                .orElseThrow(() -> new IllegalArgumentException("Listing not found with id: " + listingId));
-        listing.setStatus(status);
-        listingRepository.save(listing);
+        optimisticRetry.run("listing.status", () -> {
+            Listing listing = listingRepository.findById(listingId)
+                    .orElseThrow(() -> new IllegalArgumentException("Listing not found with id: " + listingId));
+            listing.setStatus(status);
+            listingRepository.saveAndFlush(listing);
+            eventPublisher.publishEvent(ListingChangedEvent.saved(listing));
+        });
     }
 
     /**
-     * Convert Listing entity to ListingDTO
+     * Convert Listing entity to ListingDTO. Issues no queries for listings from the paged repository
+     * methods: seller and category come with their entity graph, the comment count from the listing row.
      * @param listing the listing entity
      * @return ListingDTO
      */
@@ -315,9 +663,8 @@ public class ListingService {
         dto.setCreatedAt(listing.getCreatedAt());
         dto.setUpdatedAt(listing.getUpdatedAt());
 
-        // Count comments
-        long commentCount = commentRepository.countByListing_ListingId(listing.getListingId());
-        dto.setCommentCount(commentCount);
+        // Comment count is denormalized on the listing row
+        dto.setCommentCount(listing.getCommentCount().longValue());
 
         logger.debug("Successfully converted listing {} to DTO", listing.getListingId());
         return dto;
@@ -341,14 +688,44 @@ public class ListingService {
      */
     @Transactional(readOnly = true)
     public Page<ListingDTO> getListingsByStatus(ListingStatus status, Pageable pageable) {
-        return listingRepository.findByStatus(status).stream()
-                .skip(pageable.getOffset())
-                .limit(pageable.getPageSize())
-                .collect(java.util.stream.Collectors.collectingAndThen(
-                    java.util.stream.Collectors.toList(),
-                    list -> new org.springframework.data.domain.PageImpl<>(list, pageable, listingRepository.countByStatus(status))
-                ))
-                .map(this::convertToDTO);
+        return listingRepository.findByStatus(status, pageable).map(this::convertToDTO);
+    }
+
+    /**
+     * Stream every listing with a status to a consumer for admin exports.
+     * Listings are read in keyset-paged chunks, each in its own short read-only transaction, and the
+     * chunk is handed to the consumer after that transaction has ended. A slow download therefore
+     * holds a pooled connection only while a chunk is being read, and memory stays bounded by the chunk size.
+     * @param status listing status
+     * @param chunkSize number of listings loaded per query
+     * @param consumer receives each listing DTO in listing ID order
+     * @return number of listings streamed
+     */
+    public long streamListingsByStatus(ListingStatus status, int chunkSize, Consumer<ListingDTO> consumer) {
+        Pageable chunk = PageRequest.of(0, chunkSize);
+        long lastListingId = 0L;
+        long streamed = 0L;
+
+        List<ListingDTO> listings;
+        do {
+            long afterId = lastListingId;
+            listings = readOnlyTransaction.execute(tx -> {
+                List<ListingDTO> dtos = listingRepository
+                        .findByStatusAndListingIdGreaterThanOrderByListingIdAsc(status, afterId, chunk).stream()
+                        .map(this::convertToDTO)
+                        .collect(Collectors.toList());
+                entityManager.clear();
+                return dtos;
+            });
+            for (ListingDTO listing : listings) {
+                consumer.accept(listing);
+                lastListingId = listing.getListingId();
+                streamed++;
+            }
+        } while (listings.size() == chunkSize);
+
+        logger.debug("Streamed {} listings with status {}", streamed, status);
+        return streamed;
     }
 
     /**
@@ -357,31 +734,40 @@ public class ListingService {
      * @param status the new status
      * @return updated listing DTO
      */
-    @Transactional
     public ListingDTO updateListingStatusAsAdmin(Long listingId, ListingStatus status) {
-        Listing listing = listingRepository.findById(listingId)
-                .orElseThrow(() -> new IllegalArgumentException("Listing not found with id: " + listingId));
-        listing.setStatus(status);
-        Listing savedListing = listingRepository.save(listing);
-        return convertToDTO(savedListing);
+        return optimisticRetry.execute("listing.admin-status", () -> {
+            Listing listing = listingRepository.findById(listingId)
+                    .orElseThrow(() -> new IllegalArgumentException("Listing not found with id: " + listingId));
+            ListingStatus oldStatus = listing.getStatus();
+            listing.setStatus(status);
+            Listing savedListing = listingRepository.saveAndFlush(listing);
+            eventPublisher.publishEvent(ListingChangedEvent.saved(savedListing));
+            auditLogService.record("UPDATE", "LISTING", listingId,
+                                   "Listing status changed by admin from " + oldStatus + " to " + status);
+            return convertToDTO(savedListing);
+        });
     }
 
     /**
      * Delete listing as admin (bypasses ownership checks)
      * @param listingId the listing ID
      */
-    @Transactional
     public void deleteListingAsAdmin(Long listingId) {
-        Listing listing = listingRepository.findById(listingId)
-                .orElseThrow(() -> new IllegalArgumentException("Listing not found with id: " + listingId));
-
-        // Check if listing has active orders
-        long activeOrders = orderRepository.countByListing_ListingIdAndStatusIn(
-            listingId, List.of(OrderStatus.REQUESTED, OrderStatus.CONFIRMED));
-        if (activeOrders > 0) {
-            throw new IllegalStateException("Cannot delete listing with active orders. Cancel orders first.");
-        }
+        optimisticRetry.run("listing.admin-delete", () -> {
+            Listing listing = listingRepository.findById(listingId)
+                    .orElseThrow(() -> new IllegalArgumentException("Listing not found with id: " + listingId));
+
+            // Check if listing has active orders
+            long activeOrders = orderRepository.countByListing_ListingIdAndStatusIn(
+                listingId, List.of(OrderStatus.REQUESTED, OrderStatus.CONFIRMED));
+            if (activeOrders > 0) {
+                throw new IllegalStateException("Cannot delete listing with active orders. Cancel orders first.");
+            }
 
-        listingRepository.delete(listing);
+            listingRepository.delete(listing);
+            listingRepository.flush();
+            eventPublisher.publishEvent(ListingChangedEvent.deleted(listing));
+            auditLogService.record("DELETE", "LISTING", listingId, "Listing deleted by admin: " + listing.getTitle());
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,353 @@
+package com.vinuni.circularmarket.service;
+
+import com.vinuni.circularmarket.dto.SuggestionDTO;
+import com.vinuni.circularmarket.model.Category;
+import com.vinuni.circularmarket.model.Listing;
+import com.vinuni.circularmarket.model.ListingStatus;
+import com.vinuni.circularmarket.repository.CategoryRepository;
+import com.vinuni.circularmarket.repository.ListingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Search-as-you-type suggestions for available listing titles and category names.
+ * Built from the database at startup and kept current from listing, category and comment events
+ * after commit, so suggestion requests never touch MySQL.
+ * Titles are ranked by recency plus comment activity; categories by their number of available listings.
+ */
+@Service
+public class ListingSuggestionIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ListingSuggestionIndex.class);
+
+    // One unit of log(1 + comments) is worth this many days of recency
+    private static final double POPULARITY_WEIGHT_DAYS = 7.0;
+    private static final int MAX_KEY_LENGTH = 64;
+
+    @Value("${listings.suggest.enabled:true}")
+    private boolean enabled;
+
+    @Value("${listings.suggest.build-chunk-size:1000}")
+    private int buildChunkSize;
+
+    private final ListingRepository listingRepository;
+    private final CategoryRepository categoryRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final SuggestionTrie titles = new SuggestionTrie();
+    private final SuggestionTrie categories = new SuggestionTrie();
+    private final Map<Long, Long> availableListingCategory = new HashMap<>();
+    private final Map<Long, LocalDateTime> availableListingCreatedAt = new HashMap<>();
+    private final Map<Long, Integer> availableCountByCategory = new HashMap<>();
+    private final Map<Long, String> categoryNames = new HashMap<>();
+
+    // IDs changed by events while the startup build is running; the build must not overwrite them
+    private final Set<Long> changedDuringBuild = new HashSet<>();
+    private boolean building;
+    private volatile boolean ready;
+
+    public ListingSuggestionIndex(ListingRepository listingRepository, CategoryRepository categoryRepository) {
+        this.listingRepository = listingRepository;
+        this.categoryRepository = categoryRepository;
+    }
+
+    /**
+     * Build the suggestion tries from the database once the application has started
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        if (!enabled) {
+            logger.info("Listing suggestions disabled");
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            List<Category> allCategories = categoryRepository.findAll();
+            lock.writeLock().lock();
+            try {
+                building = true;
+                changedDuringBuild.clear();
+                for (Category category : allCategories) {
+                    categoryNames.put(category.getCategoryId(), category.getName());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Pageable chunk = PageRequest.of(0, buildChunkSize);
+            long lastListingId = 0L;
+            List<Listing> batch;
+            do {
+                batch = listingRepository.findByStatusAndListingIdGreaterThanOrderByListingIdAsc(
+                        ListingStatus.AVAILABLE, lastListingId, chunk);
+                lock.writeLock().lock();
+                try {
+                    for (Listing listing : batch) {
+                        lastListingId = listing.getListingId();
+                        if (!changedDuringBuild.contains(lastListingId)) {
+                            apply(ListingChangedEvent.saved(listing), false);
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } while (batch.size() == buildChunkSize);
+
+            lock.writeLock().lock();
+            try {
+                categoryNames.keySet().forEach(this::refreshCategory);
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            ready = true;
+            logger.info("Listing suggestions built: {} titles, {} categories in {} ms",
+                       titles.size(), categories.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.error("Failed to build listing suggestions, suggest endpoint disabled: {}", e.getMessage(), e);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                building = false;
+                changedDuringBuild.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Apply a listing change once its transaction has committed
+     * @param event the listing change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onListingChanged(ListingChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (building) {
+                changedDuringBuild.add(event.getListingId());
+            }
+            apply(event, true);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Apply a category creation, rename or deletion once its transaction has committed,
+     * so new empty categories are suggested and renamed or deleted ones are not
+     * @param event the category change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            Long categoryId = event.getCategoryId();
+            if (event.isDeleted()) {
+                categoryNames.remove(categoryId);
+                availableCountByCategory.remove(categoryId);
+                categories.remove(categoryId);
+            } else {
+                categoryNames.put(categoryId, event.getName());
+                refreshCategory(categoryId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Re-rank title suggestions once a comment change has committed, since comment activity is part of the score
+     * @param event the comment change (a null listing ID re-ranks every title)
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onListingCommentsChanged(ListingCommentsChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        Long listingId = event.getListingId();
+        if (listingId != null) {
+            lock.readLock().lock();
+            try {
+                if (!titles.contains(listingId)) {
+                    return;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        List<Object[]> counts;
+        try {
+            counts = listingId != null
+                    ? listingRepository.findCommentCountByIdAndStatus(listingId, ListingStatus.AVAILABLE)
+                    : listingRepository.findCommentCountsByStatus(ListingStatus.AVAILABLE);
+        } catch (Exception e) {
+            logger.warn("Failed to re-rank title suggestions after a comment change: {}", e.getMessage());
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Object[] row : counts) {
+                Long id = (Long) row[0];
+                LocalDateTime createdAt = availableListingCreatedAt.get(id);
+                if (createdAt != null) {
+                    titles.rescore(id, titleScore(createdAt, (Integer) row[1]));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Whether the suggestion tries have finished their initial build
+     * @return true if ready
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Suggest available listing titles containing a word that starts with the prefix
+     * @param prefix the typed text
+     * @param limit maximum number of suggestions
+     * @return suggestions (listing ID and title), best first
+     */
+    public List<SuggestionDTO> suggestTitles(String prefix, int limit) {
+        return complete(titles, prefix, limit);
+    }
+
+    /**
+     * Suggest categories whose name contains a word that starts with the prefix
+     * @param prefix the typed text
+     * @param limit maximum number of suggestions
+     * @return suggestions (category ID and name), best first
+     */
+    public List<SuggestionDTO> suggestCategories(String prefix, int limit) {
+        return complete(categories, prefix, limit);
+    }
+
+    private List<SuggestionDTO> complete(SuggestionTrie trie, String prefix, int limit) {
+        String key = String.join(" ", ListingSearchIndex.tokenize(prefix));
+        if (key.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // "calculus " should only complete the next word, not "calculusbook"
+        if (Character.isWhitespace(prefix.charAt(prefix.length() - 1)) && key.length() < MAX_KEY_LENGTH) {
+            key = key + " ";
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            key = key.substring(0, MAX_KEY_LENGTH);
+        }
+
+        lock.readLock().lock();
+        try {
+            return trie.complete(key, limit).stream()
+                    .map(entry -> new SuggestionDTO(entry.getId(), entry.getText()))
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Apply a change (caller holds the write lock)
+     */
+    private void apply(ListingChangedEvent event, boolean refreshCategories) {
+        Long listingId = event.getListingId();
+
+        Long previousCategoryId = availableListingCategory.remove(listingId);
+        if (previousCategoryId != null) {
+            availableCountByCategory.merge(previousCategoryId, -1, Integer::sum);
+        }
+        availableListingCreatedAt.remove(listingId);
+
+        if (event.isDeleted() || event.getStatus() != ListingStatus.AVAILABLE) {
+            titles.remove(listingId);
+        } else {
+            LocalDateTime createdAt = event.getCreatedAt() != null ? event.getCreatedAt() : LocalDateTime.now();
+            availableListingCreatedAt.put(listingId, createdAt);
+            titles.put(listingId, event.getTitle(), keysFor(event.getTitle()),
+                       titleScore(createdAt, event.getCommentCount()));
+            if (event.getCategoryId() != null) {
+                availableListingCategory.put(listingId, event.getCategoryId());
+                availableCountByCategory.merge(event.getCategoryId(), 1, Integer::sum);
+                // Renames arrive as CategoryChangedEvents; a listing snapshot read during the build may be older
+                if (event.getCategoryName() != null) {
+                    categoryNames.putIfAbsent(event.getCategoryId(), event.getCategoryName());
+                }
+            }
+        }
+
+        if (refreshCategories) {
+            if (previousCategoryId != null) {
+                refreshCategory(previousCategoryId);
+            }
+            if (event.getCategoryId() != null && !event.getCategoryId().equals(previousCategoryId)) {
+                refreshCategory(event.getCategoryId());
+            }
+        }
+    }
+
+    private void refreshCategory(Long categoryId) {
+        String name = categoryNames.get(categoryId);
+        if (name == null) {
+            return;
+        }
+        int available = Math.max(0, availableCountByCategory.getOrDefault(categoryId, 0));
+        categories.put(categoryId, name, keysFor(name), Math.log1p(available));
+    }
+
+    /**
+     * Keys for a text: the normalized text starting at each word, so any word can be completed
+     */
+    private static List<String> keysFor(String text) {
+        List<String> words = ListingSearchIndex.tokenize(text);
+        Set<String> keys = new LinkedHashSet<>();
+        for (int i = 0; i < words.size(); i++) {
+            String key = String.join(" ", words.subList(i, words.size()));
+            keys.add(key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key);
+        }
+        return new ArrayList<>(keys);
+    }
+
+    private static double titleScore(LocalDateTime createdAt, Integer commentCount) {
+        LocalDateTime created = createdAt != null ? createdAt : LocalDateTime.now();
+        double days = created.toEpochSecond(ZoneOffset.UTC) / 86400.0;
+        int comments = commentCount != null ? commentCount : 0;
+        return days + POPULARITY_WEIGHT_DAYS * Math.log1p(comments);
+    }
+}
@@ -0,0 +1,190 @@
+package com.vinuni.circularmarket.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs a write in its own transaction and retries it when it loses an optimistic version check
+ * (@Version on Listing and Order) against a concurrent writer.
+ * Only for operations that re-read everything they depend on, so that a retry re-applies the
+ * change to the current state. Backoff is exponential with full jitter, so that writers that
+ * collided once do not collide again on the next attempt.
+ */
+@Component
+public class OptimisticRetry {
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticRetry.class);
+
+    @Value("${concurrency.retry.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${concurrency.retry.base-backoff-ms:10}")
+    private long baseBackoffMs;
+
+    @Value("${concurrency.retry.max-backoff-ms:200}")
+    private long maxBackoffMs;
+
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentMap<String, OperationStats> operations = new ConcurrentHashMap<>();
+
+    public OptimisticRetry(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Run an operation, retrying it in a fresh transaction on optimistic lock conflicts
+     * @param operation operation name for the counters, e.g. "listing.update"
+     * @param action the operation; must be safe to run more than once
+     * @return the operation's result
+     */
+    public <T> T execute(String operation, Supplier<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Joined an outer transaction: only its owner can retry the whole unit of work
+            return action.get();
+        }
+        OperationStats counters = operations.computeIfAbsent(operation, name -> new OperationStats());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException e) {
+                counters.conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    counters.exhausted.increment();
+                    logger.warn("{} still conflicting after {} attempts: {}", operation, attempt, e.getMessage());
+                    throw e;
+                }
+                counters.retries.increment();
+                logger.debug("{} lost a version check (attempt {}), retrying", operation, attempt);
+                if (!backOff(attempt)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Run an operation without a result, retrying it in a fresh transaction on optimistic lock conflicts
+     * @param operation operation name for the counters
+     * @param action the operation; must be safe to run more than once
+     */
+    public void run(String operation, Runnable action) {
+        execute(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Count a conflict that the caller resolves without a retry, e.g. a lost compare-and-set update
+     * @param operation operation name for the counters
+     */
+    public void recordConflict(String operation) {
+        operations.computeIfAbsent(operation, name -> new OperationStats()).conflicts.increment();
+    }
+
+    /**
+     * Counters of every operation that has run through this component
+     * @return operation name to counters, sorted by name
+     */
+    public Map<String, OperationStats> getOperations() {
+        return new TreeMap<>(operations);
+    }
+
+    /**
+     * Conflict and retry counters since startup
+     * @return totals and per-operation counts
+     */
+    public Map<String, Object> getStats() {
+        long conflicts = 0;
+        long retries = 0;
+        long exhausted = 0;
+        Map<String, Object> perOperation = new LinkedHashMap<>();
+        for (Map.Entry<String, OperationStats> entry : getOperations().entrySet()) {
+            OperationStats counters = entry.getValue();
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("conflicts", counters.getConflicts());
+            stats.put("retries", counters.getRetries());
+            stats.put("exhausted", counters.getExhausted());
+            perOperation.put(entry.getKey(), stats);
+            conflicts += counters.getConflicts();
+            retries += counters.getRetries();
+            exhausted += counters.getExhausted();
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("maxAttempts", maxAttempts);
+        stats.put("conflicts", conflicts);
+        stats.put("retries", retries);
+        stats.put("exhausted", exhausted);
+        stats.put("operations", perOperation);
+        return stats;
+    }
+
+    /**
+     * Sleep a random time up to the exponential backoff of this attempt
+     * @return false if interrupted
+     */
+    private boolean backOff(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Conflict counters of one operation since startup
+     */
+    public static final class OperationStats {
+
+        private final LongAdder conflicts = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder exhausted = new LongAdder();
+
+        private OperationStats() {
+        }
+
+        /**
+         * Version checks or compare-and-set updates lost to a concurrent writer
+         * @return count
+         */
+        public long getConflicts() {
+            return conflicts.sum();
+        }
+
+        /**
+         * Conflicts answered with another attempt
+         * @return count
+         */
+        public long getRetries() {
+            return retries.sum();
+        }
+
+        /**
+         * Calls that still conflicted on their last attempt and failed
+         * @return count
+         */
+        public long getExhausted() {
+            return exhausted.sum();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.vinuni.circularmarket.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for order requests, keyed by listing.
+ * Requests for the same listing run one at a time under a striped fair lock, so a burst on a hot
+ * listing queues in arrival order instead of racing through the duplicate check and piling up
+ * transactions on the same rows. Each listing may have at most max-pending requests waiting or
+ * running; further requests are turned away immediately, as are requests that wait too long.
+ * Locks are per instance: the database constraint on active orders is the cross-instance guard.
+ */
+@Component
+public class OrderAdmission {
+
+    @Value("${orders.admission.max-pending-per-listing:20}")
+    private int maxPendingPerListing;
+
+    @Value("${orders.admission.lock-timeout-ms:2000}")
+    private long lockTimeoutMs;
+
+    private final ReentrantLock[] stripes;
+    private final ConcurrentMap<Long, Integer> pendingByListing = new ConcurrentHashMap<>();
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejectedFull = new LongAdder();
+    private final LongAdder rejectedTimeout = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicInteger maxObservedPending = new AtomicInteger();
+
+    public OrderAdmission(@Value("${orders.admission.stripes:64}") int stripeCount) {
+        this.stripes = new ReentrantLock[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock(true);
+        }
+    }
+
+    /**
+     * Run an order request for a listing once it is admitted
+     * @param listingId the listing ID
+     * @param action the request, including its transaction so that it commits before the next one starts
+     * @return the request's result
+     * @throws OrderAdmissionRejectedException if the listing has too many pending requests or the wait times out
+     */
+    public <T> T admit(Long listingId, Supplier<T> action) {
+        int pending = pendingByListing.merge(listingId, 1, Integer::sum);
+        try {
+            maxObservedPending.accumulateAndGet(pending, Math::max);
+            if (pending > maxPendingPerListing) {
+                rejectedFull.increment();
+                throw new OrderAdmissionRejectedException("This listing is receiving too many requests, please try again shortly");
+            }
+
+            ReentrantLock lock = stripes[Math.floorMod(listingId.hashCode(), stripes.length)];
+            long start = System.nanoTime();
+            boolean locked;
+            try {
+                locked = lock.tryLock(lockTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                locked = false;
+            }
+            waitNanos.add(System.nanoTime() - start);
+            if (!locked) {
+                rejectedTimeout.increment();
+                throw new OrderAdmissionRejectedException("This listing is busy, please try again shortly");
+            }
+
+            try {
+                admitted.increment();
+                return action.get();
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            pendingByListing.computeIfPresent(listingId, (id, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    /**
+     * Admission statistics since startup
+     * @return admitted and rejected counts, average lock wait and current queue sizes
+     */
+    public Map<String, Object> getStats() {
+        long admittedCount = admitted.sum();
+        long timeouts = rejectedTimeout.sum();
+        long waits = admittedCount + timeouts;
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("admitted", admittedCount);
+        stats.put("rejectedQueueFull", rejectedFull.sum());
+        stats.put("rejectedTimeout", timeouts);
+        stats.put("avgLockWaitMs", waits > 0 ? waitNanos.sum() / 1e6 / waits : 0.0);
+        stats.put("maxPendingObserved", maxObservedPending.get());
+        stats.put("listingsWithPending", pendingByListing.size());
+        stats.put("maxPendingPerListing", maxPendingPerListing);
+        return stats;
+    }
+
+    public long getAdmitted() {
+        return admitted.sum();
+    }
+
+    public long getRejectedQueueFull() {
+        return rejectedFull.sum();
+    }
+
+    public long getRejectedTimeout() {
+        return rejectedTimeout.sum();
+    }
+}
@@ -0,0 +1,12 @@
+package com.vinuni.circularmarket.service;
+
+/**
+ * Thrown by OrderAdmission when an order request is turned away because its listing is overloaded.
+ * The request did not run, so the client may retry it.
+ */
+public class OrderAdmissionRejectedException extends RuntimeException {
+
+    public OrderAdmissionRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,107 @@
+package com.vinuni.circularmarket.service;
+
+import com.vinuni.circularmarket.model.Order;
+import com.vinuni.circularmarket.model.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Published by OrderService whenever an order is created or changes status.
+ * Carries the fields analytics and activity listeners need so they do not reload the order.
+ */
+public class OrderChangedEvent {
+
+    private final Long orderId;
+    private final Long listingId;
+    private final Long sellerId;
+    private final Long buyerId;
+    private final OrderStatus previousStatus;
+    private final OrderStatus status;
+    private final BigDecimal price;
+    private final String buyerName;
+    private final String listingTitle;
+    private final LocalDateTime orderDate;
+
+    private OrderChangedEvent(Long orderId, Long listingId, Long sellerId, Long buyerId,
+                              OrderStatus previousStatus, OrderStatus status, BigDecimal price,
+                              String buyerName, String listingTitle, LocalDateTime orderDate) {
+        this.orderId = orderId;
+        this.listingId = listingId;
+        this.sellerId = sellerId;
+        this.buyerId = buyerId;
+        this.previousStatus = previousStatus;
+        this.status = status;
+        this.price = price;
+        this.buyerName = buyerName;
+        this.listingTitle = listingTitle;
+        this.orderDate = orderDate;
+    }
+
+    /**
+     * Event for a newly created order
+     * @param order the saved order
+     * @return change event (no previous status)
+     */
+    public static OrderChangedEvent created(Order order) {
+        return transitioned(order, null);
+    }
+
+    /**
+     * Event for an order whose status changed
+     * @param order the order, already set to its new status (listing, seller and buyer must be loadable)
+     * @param previousStatus the status before the change
+     * @return change event
+     */
+    public static OrderChangedEvent transitioned(Order order, OrderStatus previousStatus) {
+        BigDecimal price = order.getFinalPrice() != null ? order.getFinalPrice() : order.getOfferPrice();
+        return new OrderChangedEvent(order.getOrderId(), order.getListing().getListingId(),
+                order.getListing().getSeller().getUserId(), order.getBuyer().getUserId(),
+                previousStatus, order.getStatus(), price,
+                order.getBuyer().getFullName(), order.getListing().getTitle(), order.getOrderDate());
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public Long getListingId() {
+        return listingId;
+    }
+
+    public Long getSellerId() {
+        return sellerId;
+    }
+
+    public Long getBuyerId() {
+        return buyerId;
+    }
+
+    public OrderStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Price the order counts for: the final price, or the offer price before confirmation
+     * @return price, may be null
+     */
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public String getBuyerName() {
+        return buyerName;
+    }
+
+    public String getListingTitle() {
+        return listingTitle;
+    }
+
+    public LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+}
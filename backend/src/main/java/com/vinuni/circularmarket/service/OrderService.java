@@ -5,102 +5,184 @@ import com.vinuni.circularmarket.model.*;
 import com.vinuni.circularmarket.repository.ListingRepository;
 import com.vinuni.circularmarket.repository.OrderRepository;
 import com.vinuni.circularmarket.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 public class OrderService {
 
+    // Orders that still hold a claim on their listing
+    private static final List<OrderStatus> ACTIVE_STATUSES = List.of(OrderStatus.REQUESTED, OrderStatus.CONFIRMED);
+
+    // Transition execution modes: conditional JPA updates, or the stored procedures in VinUniCircularMarket_Functions.sql
+    public static final String MODE_JPA = "jpa";
+    public static final String MODE_PROCEDURE = "procedure";
+
+    // MYSQL_ERRNO of the procedures' SIGNAL statements, see VinUniCircularMarket_Functions.sql section 3
+    private static final int SIGNAL_ORDER_NOT_FOUND = 50001;
+    private static final int SIGNAL_INVALID_ORDER_STATUS = 50002;
+    private static final int SIGNAL_LISTING_NOT_AVAILABLE = 50003;
+    private static final int SIGNAL_LISTING_CONFLICT = 50004;
+
+    // Unique key on (listing_id, active_buyer_id), see VinUniCircularMarket_Functions.sql section 2.4
+    private static final String ACTIVE_ORDER_KEY = "uq_order_active_buyer";
+    private static final int MYSQL_DUPLICATE_KEY = 1062;
+    private static final String DUPLICATE_ORDER_MESSAGE = "You already have an active order for this listing";
+
+    @Value("${orders.history.max-page-size:100}")
+    private int maxHistoryPageSize;
+
     private final OrderRepository orderRepository;
     private final ListingRepository listingRepository;
-    private final ListingService listingService;
+    private final EntityManager entityManager;
+    private final OptimisticRetry optimisticRetry;
+    private final OrderAdmission orderAdmission;
+    private final TransactionTemplate transactionTemplate;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private volatile String transitionMode;
 
     public OrderService(OrderRepository orderRepository,
                        ListingRepository listingRepository,
-                       ListingService listingService,
-                       UserRepository userRepository) {
+                       EntityManager entityManager,
+                       OptimisticRetry optimisticRetry,
+                       OrderAdmission orderAdmission,
+                       PlatformTransactionManager transactionManager,
+                       UserRepository userRepository,
+                       ApplicationEventPublisher eventPublisher,
+                       JdbcTemplate jdbcTemplate,
+                       @Value("${orders.transitions.mode:jpa}") String transitionMode) {
         this.orderRepository = orderRepository;
         this.listingRepository = listingRepository;
-        this.listingService = listingService;
+        this.entityManager = entityManager;
+        this.optimisticRetry = optimisticRetry;
+        this.orderAdmission = orderAdmission;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        setTransitionMode(transitionMode);
     }
 
     /**
-     * Create a new order request
+     * Get how order transitions are executed
+     * @return MODE_JPA or MODE_PROCEDURE
+     */
+    public String getTransitionMode() {
+        return transitionMode;
+    }
+
+    /**
+     * Switch how order transitions are executed; takes effect for the next transition
+     * @param mode "jpa" or "procedure"
+     */
+    public void setTransitionMode(String mode) {
+        String normalized = mode == null ? "" : mode.trim().toLowerCase();
+        if (!MODE_JPA.equals(normalized) && !MODE_PROCEDURE.equals(normalized)) {
+            throw new IllegalArgumentException("Invalid transition mode. Must be jpa or procedure");
+        }
+        this.transitionMode = normalized;
+    }
+
+    /**
+     * Create a new order request. Requests for the same listing are admitted one at a time and each
+     * commits before the next starts, so the duplicate-order check always sees earlier requests.
      * @param buyerId the buyer ID
      * @param request the order creation request
      * @return created order DTO
+     * @throws OrderAdmissionRejectedException if the listing is overloaded with requests
+     * @throws DuplicateActiveOrderException if the buyer already has an active order for the listing
      */
-    @Transactional
     public OrderDTO createOrder(Long buyerId, CreateOrderRequest request) {
+        if (request.getListingId() == null) {
+            throw new IllegalArgumentException("Listing ID is required");
+        }
         try {
-            System.out.println("OrderService.createOrder called - buyerId: " + buyerId + ", listingId: " + request.getListingId() + ", offerPrice: " + request.getOfferPrice());
-            
-        // Validate listing exists and is available
-        Listing listing = listingRepository.findById(request.getListingId())
-                .orElseThrow(() -> new IllegalArgumentException("Listing not found with id: " + request.getListingId()));
-
-            System.out.println("Listing found: " + listing.getListingId() + ", status: " + listing.getStatus());
-
-        if (listing.getStatus() != ListingStatus.AVAILABLE) {
-            throw new IllegalArgumentException("Listing is not available for ordering");
+            return orderAdmission.admit(request.getListingId(),
+                    () -> transactionTemplate.execute(status -> placeOrder(buyerId, request)));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance placed the same buyer's order first; the unique key on active orders caught it
+            if (isActiveOrderKeyViolation(e)) {
+                throw new DuplicateActiveOrderException(DUPLICATE_ORDER_MESSAGE);
+            }
+            throw e;
         }
+    }
 
-            // Access seller to ensure it's loaded (LAZY loading)
-            User seller = listing.getSeller();
-            if (seller == null) {
-                throw new IllegalArgumentException("Listing seller information is missing");
+    /**
+     * Whether an insert failed on uq_order_active_buyer. The constraint name reported by Hibernate is
+     * compared when there is one (MySQL may qualify it with the table name); otherwise a MySQL duplicate
+     * key error is enough, since the order insert has no other unique key that a client can hit.
+     * @param e the failure of the insert
+     * @return true if it was a duplicate active order
+     */
+    private static boolean isActiveOrderKeyViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                String name = violation.getConstraintName();
+                name = name.substring(name.lastIndexOf('.') + 1);
+                return ACTIVE_ORDER_KEY.equalsIgnoreCase(name);
             }
-            System.out.println("Seller found: " + seller.getUserId());
-
-            // Prevent seller from ordering their own listing
-            if (seller.getUserId().equals(buyerId)) {
-                throw new IllegalArgumentException("You cannot order your own listing");
+            if (cause instanceof SQLException sqlException && sqlException.getErrorCode() == MYSQL_DUPLICATE_KEY) {
+                return true;
             }
+        }
+        return false;
+    }
 
-        // Check if buyer already has an active order for this listing
-        List<Order> activeOrders = orderRepository.findActiveOrdersByListingId(request.getListingId());
-        boolean buyerHasActiveOrder = activeOrders.stream()
-                    .anyMatch(order -> {
-                        User orderBuyer = order.getBuyer();
-                        return orderBuyer != null && orderBuyer.getUserId().equals(buyerId);
-                    });
-
-        if (buyerHasActiveOrder) {
-            throw new IllegalArgumentException("You already have an active order for this listing");
+    private OrderDTO placeOrder(Long buyerId, CreateOrderRequest request) {
+        if (request.getOfferPrice() == null) {
+            throw new IllegalArgumentException("Offer price is required");
         }
 
-            // Fetch buyer from database
-            User buyer = userRepository.findById(buyerId)
-                    .orElseThrow(() -> new IllegalArgumentException("Buyer not found with id: " + buyerId));
+        // Validate listing exists and is available
+        Listing listing = listingRepository.findById(request.getListingId())
+                .orElseThrow(() -> new IllegalArgumentException("Listing not found with id: " + request.getListingId()));
+        if (listing.getStatus() != ListingStatus.AVAILABLE) {
+            throw new IllegalArgumentException("Listing is not available for ordering");
+        }
 
-            System.out.println("Buyer found: " + buyer.getUserId() + ", creating order...");
+        User seller = listing.getSeller();
+        if (seller == null) {
+            throw new IllegalArgumentException("Listing seller information is missing");
+        }
+        // Prevent seller from ordering their own listing
+        if (seller.getUserId().equals(buyerId)) {
+            throw new IllegalArgumentException("You cannot order your own listing");
+        }
 
-            // Validate offerPrice is not null
-            if (request.getOfferPrice() == null) {
-                throw new IllegalArgumentException("Offer price is required");
-            }
+        // Indexed existence check instead of loading every active order and its buyer
+        if (orderRepository.existsByListing_ListingIdAndBuyer_UserIdAndStatusIn(
+                listing.getListingId(), buyerId, ACTIVE_STATUSES)) {
+            throw new DuplicateActiveOrderException(DUPLICATE_ORDER_MESSAGE);
+        }
 
-        Order order = new Order(listing, buyer, request.getOfferPrice());
-            System.out.println("Order created, saving...");
-        Order savedOrder = orderRepository.save(order);
-            System.out.println("Order saved successfully: " + savedOrder.getOrderId());
+        User buyer = userRepository.findById(buyerId)
+                .orElseThrow(() -> new IllegalArgumentException("Buyer not found with id: " + buyerId));
 
+        Order savedOrder = orderRepository.save(new Order(listing, buyer, request.getOfferPrice()));
+        eventPublisher.publishEvent(OrderChangedEvent.created(savedOrder));
         return convertToDTO(savedOrder);
-        } catch (IllegalArgumentException e) {
-            System.err.println("OrderService IllegalArgumentException: " + e.getMessage());
-            throw e;
-        } catch (Exception e) {
-            System.err.println("OrderService Exception: " + e.getMessage());
-            e.printStackTrace();
-            throw new RuntimeException("Failed to create order: " + e.getMessage(), e);
-        }
     }
 
     /**
@@ -111,36 +193,7 @@ public class OrderService {
      */
     @Transactional
     public OrderDTO confirmOrder(Long orderId, Long sellerId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new IllegalArgumentException("Order not found with id: " + orderId));
-
-        // Verify seller owns the listing
-        if (!order.getListing().getSeller().getUserId().equals(sellerId)) {
-            throw new IllegalArgumentException("You are not authorized to confirm this order");
-        }
-
-        // Check order status
-        if (order.getStatus() != OrderStatus.REQUESTED) {
-            throw new IllegalArgumentException("Order cannot be confirmed. Current status: " + order.getStatus());
-        }
-
-        // Update order
-        order.setStatus(OrderStatus.CONFIRMED);
-        order.setConfirmedAt(LocalDateTime.now());
-        order.setFinalPrice(order.getOfferPrice()); // For simplicity, use offer price as final price
-
-        // Set borrow due date if it's a lend listing (7 days from now)
-        if (order.getListing().getListingType() == ListingType.LEND) {
-            order.setBorrowDueDate(LocalDateTime.now().plusDays(7));
-        }
-
-        // Update listing status
-        ListingStatus newListingStatus = (order.getListing().getListingType() == ListingType.LEND) ?
-                ListingStatus.BORROWED : ListingStatus.SOLD;
-        listingService.updateListingStatus(order.getListing().getListingId(), newListingStatus);
-
-        Order savedOrder = orderRepository.save(order);
-        return convertToDTO(savedOrder);
+        return transition(orderId, sellerId, OrderTransition.CONFIRM);
     }
 
     /**
@@ -151,92 +204,172 @@ public class OrderService {
      */
     @Transactional
     public OrderDTO rejectOrder(Long orderId, Long sellerId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new IllegalArgumentException("Order not found with id: " + orderId));
-
-        // Verify seller owns the listing
-        if (!order.getListing().getSeller().getUserId().equals(sellerId)) {
-            throw new IllegalArgumentException("You are not authorized to reject this order");
-        }
-
-        // Check order status
-        if (order.getStatus() != OrderStatus.REQUESTED) {
-            throw new IllegalArgumentException("Order cannot be rejected. Current status: " + order.getStatus());
-        }
-
-        order.setStatus(OrderStatus.REJECTED);
-        Order savedOrder = orderRepository.save(order);
-        return convertToDTO(savedOrder);
+        return transition(orderId, sellerId, OrderTransition.REJECT);
     }
 
     /**
-     * Cancel an order (buyer action)
+     * Cancel an order (buyer action); cancelling a confirmed order makes the listing available again
      * @param orderId the order ID
      * @param buyerId the buyer ID (for authorization)
      * @return updated order DTO
      */
     @Transactional
     public OrderDTO cancelOrder(Long orderId, Long buyerId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new IllegalArgumentException("Order not found with id: " + orderId));
+        return transition(orderId, buyerId, OrderTransition.CANCEL);
+    }
 
-        // Verify buyer owns the order
-        if (!order.getBuyer().getUserId().equals(buyerId)) {
-            throw new IllegalArgumentException("You are not authorized to cancel this order");
+    /**
+     * Complete an order (seller action for sales, buyer action for returns)
+     * @param orderId the order ID
+     * @param userId the user ID (seller for sales, buyer for returns)
+     * @return updated order DTO
+     */
+    @Transactional
+    public OrderDTO completeOrder(Long orderId, Long userId) {
+        return transition(orderId, userId, OrderTransition.COMPLETE);
+    }
+
+    private OrderDTO transition(Long orderId, Long userId, OrderTransition transition) {
+        Order order = orderRepository.findForTransition(orderId)
+                .orElseThrow(() -> new IllegalArgumentException("Order not found with id: " + orderId));
+        if (MODE_PROCEDURE.equals(transitionMode) && transition.getProcedure() != null) {
+            order = callTransitionProcedure(order, userId, transition);
+        } else {
+            applyTransition(order, userId, transition);
         }
+        return convertToDTO(order);
+    }
 
-        // Check order status - can only cancel requested or confirmed orders
-        if (order.getStatus() != OrderStatus.REQUESTED && order.getStatus() != OrderStatus.CONFIRMED) {
-            throw new IllegalArgumentException("Order cannot be cancelled. Current status: " + order.getStatus());
+    /**
+     * Check that the user may perform the transition and that the order's status allows it
+     * @param order the loaded order
+     * @param userId the acting user, null for system transitions
+     * @param transition the transition to check
+     */
+    private void checkTransition(Order order, Long userId, OrderTransition transition) {
+        Listing listing = order.getListing();
+        ListingType listingType = listing.getListingType();
+        OrderTransition.Party actor = transition.actor(listingType);
+        if ((actor == OrderTransition.Party.BUYER && !order.getBuyer().getUserId().equals(userId))
+                || (actor == OrderTransition.Party.SELLER && !listing.getSeller().getUserId().equals(userId))) {
+            throw new IllegalArgumentException(transition.unauthorizedMessage(listingType));
         }
+        if (!transition.canStartFrom(order.getStatus())) {
+            throw new IllegalArgumentException(transition.invalidStatusMessage(order.getStatus()));
+        }
+    }
 
-        order.setStatus(OrderStatus.CANCELLED);
+    /**
+     * Run a transition through its stored procedure. The procedure locks the order and listing rows and
+     * re-checks the status on the connection of the current transaction, without transaction control of its
+     * own, so its writes commit or roll back together with the events and activity log entries of this
+     * transition. The order is read back afterwards. Signals become the same errors as in JPA mode.
+     * @param order the order, loaded with listing, seller, category, buyer and review
+     * @param userId the acting user
+     * @param transition the transition to apply
+     * @return the order as the procedure left it
+     */
+    private Order callTransitionProcedure(Order order, Long userId, OrderTransition transition) {
+        checkTransition(order, userId, transition);
+        Long orderId = order.getOrderId();
+        OrderStatus previousStatus = order.getStatus();
+        ListingStatus previousListingStatus = order.getListing().getStatus();
 
-        // If order was confirmed, restore listing to available
-        if (order.getStatus() == OrderStatus.CONFIRMED) {
-            listingService.updateListingStatus(order.getListing().getListingId(), ListingStatus.AVAILABLE);
+        try {
+            jdbcTemplate.update("CALL " + transition.getProcedure() + "(?)", orderId);
+        } catch (DataAccessException e) {
+            throw translateSignal(e, orderId, transition);
         }
 
-        Order savedOrder = orderRepository.save(order);
-        return convertToDTO(savedOrder);
+        // The procedure wrote behind the persistence context, so drop the stale copies
+        entityManager.clear();
+        Order updated = orderRepository.findForTransition(orderId)
+                .orElseThrow(() -> new IllegalArgumentException("Order not found with id: " + orderId));
+        Listing listing = updated.getListing();
+        if (listing.getStatus() != previousListingStatus) {
+            eventPublisher.publishEvent(ListingChangedEvent.saved(listing));
+        }
+        eventPublisher.publishEvent(OrderChangedEvent.transitioned(updated, previousStatus));
+        return updated;
     }
 
     /**
-     * Complete an order (seller action for sales, buyer action for returns)
+     * Map a procedure's SIGNAL, by its MYSQL_ERRNO, to the domain error JPA mode raises for the same case
+     * @param e the failure of the CALL
      * @param orderId the order ID
-     * @param userId the user ID (seller for sales, buyer for returns)
-     * @return updated order DTO
+     * @param transition the transition that was attempted
+     * @return the exception to throw; anything other than a known signal is returned unchanged
      */
-    @Transactional
-    public OrderDTO completeOrder(Long orderId, Long userId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new IllegalArgumentException("Order not found with id: " + orderId));
+    private RuntimeException translateSignal(DataAccessException e, Long orderId, OrderTransition transition) {
+        Throwable cause = e.getMostSpecificCause();
+        if (!(cause instanceof SQLException sqlException)) {
+            return e;
+        }
+        switch (sqlException.getErrorCode()) {
+            case SIGNAL_ORDER_NOT_FOUND:
+                return new IllegalArgumentException("Order not found with id: " + orderId);
+            case SIGNAL_INVALID_ORDER_STATUS:
+                // Another transition of this order committed first
+                optimisticRetry.recordConflict("order.transition");
+                OrderStatus currentStatus = orderRepository.findStatusById(orderId).orElse(null);
+                return new IllegalArgumentException(transition.invalidStatusMessage(currentStatus));
+            case SIGNAL_LISTING_NOT_AVAILABLE:
+            case SIGNAL_LISTING_CONFLICT:
+                optimisticRetry.recordConflict("order.listing");
+                return new IllegalArgumentException("Listing is no longer available");
+            default:
+                return e;
+        }
+    }
 
-        // Check order status
-        if (order.getStatus() != OrderStatus.CONFIRMED) {
-            throw new IllegalArgumentException("Order cannot be completed. Current status: " + order.getStatus());
+    /**
+     * Run a transition as a conditional order UPDATE plus a conditional listing UPDATE.
+     * The checks on the loaded order only produce helpful error messages; the WHERE clauses are what
+     * guarantee that a concurrent transition of the same order, or a concurrent confirmation of
+     * another order for the same listing, makes this one fail instead of overwriting it.
+     * @param order the order, loaded with listing, seller, category, buyer and review
+     * @param userId the acting user, null for system transitions
+     * @param transition the transition to apply
+     */
+    private void applyTransition(Order order, Long userId, OrderTransition transition) {
+        checkTransition(order, userId, transition);
+        Listing listing = order.getListing();
+        ListingType listingType = listing.getListingType();
+        OrderTransition.Party actor = transition.actor(listingType);
+        Long buyerId = actor == OrderTransition.Party.BUYER ? userId : null;
+        Long sellerId = actor == OrderTransition.Party.SELLER ? userId : null;
+        OrderStatus previousStatus = order.getStatus();
+
+        // Only the conditional UPDATEs below may write, so the loaded entities must not be flushed
+        entityManager.detach(order);
+        entityManager.detach(listing);
+        transition.apply(order, LocalDateTime.now());
+
+        int updated = orderRepository.compareAndSetStatus(order.getOrderId(), previousStatus, order.getStatus(),
+                order.getFinalPrice(), order.getConfirmedAt(), order.getCompletedAt(),
+                order.getBorrowDueDate(), order.getReturnedAt(), buyerId, sellerId);
+        if (updated == 0) {
+            // Another transition of this order committed first
+            optimisticRetry.recordConflict("order.transition");
+            OrderStatus currentStatus = orderRepository.findStatusById(order.getOrderId()).orElse(null);
+            throw new IllegalArgumentException(transition.invalidStatusMessage(currentStatus));
         }
 
-        // For lend orders, only buyer can complete (return)
-        if (order.getListing().getListingType() == ListingType.LEND) {
-            if (!order.getBuyer().getUserId().equals(userId)) {
-                throw new IllegalArgumentException("Only the buyer can complete a lend order (return item)");
-            }
-            order.setReturnedAt(LocalDateTime.now());
-            listingService.updateListingStatus(order.getListing().getListingId(), ListingStatus.AVAILABLE);
-        } else {
-            // For sell orders, only seller can complete
-            if (!order.getListing().getSeller().getUserId().equals(userId)) {
-                throw new IllegalArgumentException("Only the seller can complete a sell order");
+        OrderTransition.ListingUpdate listingUpdate = transition.listingUpdate(listingType, previousStatus);
+        if (listingUpdate != null) {
+            int listingsUpdated = listingRepository.compareAndSetStatus(
+                    listing.getListingId(), listingUpdate.getExpected(), listingUpdate.getStatus());
+            if (listingsUpdated > 0) {
+                listing.setStatus(listingUpdate.getStatus());
+                eventPublisher.publishEvent(ListingChangedEvent.saved(listing));
+            } else if (listingUpdate.isRequired()) {
+                // Rolls back the order update as well
+                optimisticRetry.recordConflict("order.listing");
+                throw new IllegalArgumentException("Listing is no longer available");
             }
-            listingService.updateListingStatus(order.getListing().getListingId(), ListingStatus.SOLD);
         }
 
-        order.setStatus(OrderStatus.COMPLETED);
-        order.setCompletedAt(LocalDateTime.now());
-
-        Order savedOrder = orderRepository.save(order);
-        return convertToDTO(savedOrder);
+        eventPublisher.publishEvent(OrderChangedEvent.transitioned(order, previousStatus));
     }
 
     /**
@@ -246,7 +379,7 @@ public class OrderService {
      */
     @Transactional(readOnly = true)
     public List<OrderDTO> getOrdersByBuyer(Long buyerId) {
-        return orderRepository.findByBuyer_UserId(buyerId).stream()
+        return orderRepository.findBuyerHistory(buyerId, null, null, null, Pageable.unpaged()).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
@@ -258,11 +391,51 @@ public class OrderService {
      */
     @Transactional(readOnly = true)
     public List<OrderDTO> getOrdersBySeller(Long sellerId) {
-        return orderRepository.findBySeller_UserId(sellerId).stream()
+        return orderRepository.findSellerHistory(sellerId, null, null, null, Pageable.unpaged()).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Get one keyset page of a user's order history
+     * @param userId the user ID
+     * @param asSeller true for orders on the user's listings, false for orders the user placed
+     * @param status status filter (null for any)
+     * @param beforeTime order date of the last order of the previous page, null for the first page
+     * @param beforeId ID of the last order of the previous page, null for the first page
+     * @param limit page size
+     * @return map with the orders and the cursor of the next page
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getOrderHistory(Long userId, boolean asSeller, OrderStatus status,
+                                               LocalDateTime beforeTime, Long beforeId, int limit) {
+        if ((beforeTime == null) != (beforeId == null)) {
+            throw new IllegalArgumentException("beforeTime and beforeId must be given together");
+        }
+        int pageSize = Math.max(1, Math.min(limit, maxHistoryPageSize));
+        // Fetch one extra row to know whether another page exists
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<Order> orders = asSeller
+                ? orderRepository.findSellerHistory(userId, status, beforeTime, beforeId, page)
+                : orderRepository.findBuyerHistory(userId, status, beforeTime, beforeId, page);
+
+        boolean hasMore = orders.size() > pageSize;
+        if (hasMore) {
+            orders = orders.subList(0, pageSize);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("orders", orders.stream().map(this::convertToDTO).collect(Collectors.toList()));
+        response.put("limit", pageSize);
+        response.put("hasMore", hasMore);
+        if (hasMore) {
+            Order last = orders.get(orders.size() - 1);
+            response.put("nextBeforeTime", last.getOrderDate());
+            response.put("nextBeforeId", last.getOrderId());
+        }
+        return response;
+    }
+
     /**
      * Get order by ID with authorization check
      * @param orderId the order ID
@@ -282,17 +455,14 @@ public class OrderService {
      */
     @Transactional
     public void processOverdueBorrowOrders() {
-        LocalDateTime now = LocalDateTime.now();
-        List<Order> overdueOrders = orderRepository.findAutoCompletableBorrowOrders(now);
+        List<Order> overdueOrders = orderRepository.findAutoCompletableBorrowOrders(LocalDateTime.now());
 
         for (Order order : overdueOrders) {
-            order.setStatus(OrderStatus.COMPLETED);
-            order.setCompletedAt(now);
-            listingService.updateListingStatus(order.getListing().getListingId(), ListingStatus.AVAILABLE);
-        }
-
-        if (!overdueOrders.isEmpty()) {
-            orderRepository.saveAll(overdueOrders);
+            try {
+                applyTransition(order, null, OrderTransition.AUTO_COMPLETE);
+            } catch (IllegalArgumentException e) {
+                // Returned or cancelled concurrently; nothing left to complete
+            }
         }
     }
 
@@ -0,0 +1,200 @@
+package com.vinuni.circularmarket.service;
+
+import com.vinuni.circularmarket.model.ListingStatus;
+import com.vinuni.circularmarket.model.ListingType;
+import com.vinuni.circularmarket.model.Order;
+import com.vinuni.circularmarket.model.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The order state machine: for every transition, the statuses it may start from, the status it
+ * leads to, who may perform it and what it does to the listing.
+ * OrderService applies a transition as a conditional UPDATE on the expected status, so of two
+ * concurrent transitions of the same order only one can succeed, or in procedure mode through the
+ * stored procedure named here, which locks the rows and checks the status on the database side
+ * within the caller's transaction.
+ */
+enum OrderTransition {
+
+    CONFIRM("confirm", "confirmed", EnumSet.of(OrderStatus.REQUESTED), OrderStatus.CONFIRMED, "sp_confirm_order_in_tx"),
+    REJECT("reject", "rejected", EnumSet.of(OrderStatus.REQUESTED), OrderStatus.REJECTED, "sp_reject_order_in_tx"),
+    CANCEL("cancel", "cancelled", EnumSet.of(OrderStatus.REQUESTED, OrderStatus.CONFIRMED), OrderStatus.CANCELLED, "sp_cancel_order_in_tx"),
+    COMPLETE("complete", "completed", EnumSet.of(OrderStatus.CONFIRMED), OrderStatus.COMPLETED, "sp_complete_order_in_tx"),
+    // Overdue borrow orders, completed by the scheduler; sp_complete_order_in_tx would record a return that never happened
+    AUTO_COMPLETE("complete", "completed", EnumSet.of(OrderStatus.CONFIRMED), OrderStatus.COMPLETED, null);
+
+    /**
+     * Who may perform a transition
+     */
+    enum Party {
+        SELLER,
+        BUYER,
+        SYSTEM
+    }
+
+    private final String verb;
+    private final String pastTense;
+    private final Set<OrderStatus> from;
+    private final OrderStatus to;
+    private final String procedure;
+
+    OrderTransition(String verb, String pastTense, Set<OrderStatus> from, OrderStatus to, String procedure) {
+        this.verb = verb;
+        this.pastTense = pastTense;
+        this.from = from;
+        this.to = to;
+        this.procedure = procedure;
+    }
+
+    /**
+     * Stored procedure that performs this transition in procedure mode, without transaction control of its own
+     * @return procedure name, or null if the transition always runs as JPA updates
+     */
+    String getProcedure() {
+        return procedure;
+    }
+
+    /**
+     * Whether an order in the given status may take this transition
+     * @param status the current order status
+     * @return true if allowed
+     */
+    boolean canStartFrom(OrderStatus status) {
+        return from.contains(status);
+    }
+
+    /**
+     * Who may perform this transition on an order for the given listing type
+     * @param listingType the listing type
+     * @return the authorized party
+     */
+    Party actor(ListingType listingType) {
+        switch (this) {
+            case CONFIRM:
+            case REJECT:
+                return Party.SELLER;
+            case CANCEL:
+                return Party.BUYER;
+            case COMPLETE:
+                // Sales are completed by the seller, loans by the borrower returning the item
+                return listingType == ListingType.LEND ? Party.BUYER : Party.SELLER;
+            default:
+                return Party.SYSTEM;
+        }
+    }
+
+    /**
+     * Error message for a user who may not perform this transition
+     * @param listingType the listing type
+     * @return message
+     */
+    String unauthorizedMessage(ListingType listingType) {
+        if (this == COMPLETE) {
+            return listingType == ListingType.LEND
+                    ? "Only the buyer can complete a lend order (return item)"
+                    : "Only the seller can complete a sell order";
+        }
+        return "You are not authorized to " + verb + " this order";
+    }
+
+    /**
+     * Error message for an order whose status does not allow this transition
+     * @param status the current order status
+     * @return message
+     */
+    String invalidStatusMessage(OrderStatus status) {
+        return "Order cannot be " + pastTense + ". Current status: " + status;
+    }
+
+    /**
+     * Set the new status and the timestamps that go with it
+     * @param order the order, detached from the persistence context
+     * @param now the transition time
+     */
+    void apply(Order order, LocalDateTime now) {
+        ListingType listingType = order.getListing().getListingType();
+        order.setStatus(to);
+        switch (this) {
+            case CONFIRM:
+                order.setConfirmedAt(now);
+                order.setFinalPrice(order.getOfferPrice()); // For simplicity, use offer price as final price
+                if (listingType == ListingType.LEND) {
+                    order.setBorrowDueDate(now.plusDays(7));
+                }
+                break;
+            case COMPLETE:
+                order.setCompletedAt(now);
+                if (listingType == ListingType.LEND) {
+                    order.setReturnedAt(now);
+                }
+                break;
+            case AUTO_COMPLETE:
+                order.setCompletedAt(now);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Listing status change that goes with this transition
+     * @param listingType the listing type
+     * @param previousStatus the order status before the transition
+     * @return the listing update, or null if the listing is left alone
+     */
+    ListingUpdate listingUpdate(ListingType listingType, OrderStatus previousStatus) {
+        switch (this) {
+            case CONFIRM:
+                // Required: if the listing is no longer available another order already took it
+                return new ListingUpdate(EnumSet.of(ListingStatus.AVAILABLE, ListingStatus.RESERVED),
+                        listingType == ListingType.LEND ? ListingStatus.BORROWED : ListingStatus.SOLD, true);
+            case CANCEL:
+                return previousStatus == OrderStatus.CONFIRMED
+                        ? new ListingUpdate(EnumSet.of(ListingStatus.SOLD, ListingStatus.BORROWED), ListingStatus.AVAILABLE, false)
+                        : null;
+            case COMPLETE:
+                return listingType == ListingType.LEND
+                        ? new ListingUpdate(EnumSet.of(ListingStatus.BORROWED), ListingStatus.AVAILABLE, false)
+                        : new ListingUpdate(EnumSet.of(ListingStatus.AVAILABLE, ListingStatus.RESERVED), ListingStatus.SOLD, false);
+            case AUTO_COMPLETE:
+                return new ListingUpdate(EnumSet.of(ListingStatus.BORROWED), ListingStatus.AVAILABLE, false);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Conditional listing status change: applied only while the listing is in one of the expected statuses
+     */
+    static final class ListingUpdate {
+
+        private final Set<ListingStatus> expected;
+        private final ListingStatus status;
+        private final boolean required;
+
+        private ListingUpdate(Set<ListingStatus> expected, ListingStatus status, boolean required) {
+            this.expected = expected;
+            this.status = status;
+            this.required = required;
+        }
+
+        Set<ListingStatus> getExpected() {
+            return expected;
+        }
+
+        ListingStatus getStatus() {
+            return status;
+        }
+
+        /**
+         * Whether the transition must fail when the listing is not in an expected status
+         * @return true if required
+         */
+        boolean isRequired() {
+            return required;
+        }
+    }
+}
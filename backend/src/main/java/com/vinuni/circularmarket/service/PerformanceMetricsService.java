@@ -0,0 +1,404 @@
+package com.vinuni.circularmarket.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Live performance telemetry for the admin analytics endpoints: per-endpoint latency
+ * percentiles and error rates from RequestMetrics, JVM memory/GC/thread/CPU figures,
+ * Hikari pool saturation and Hibernate statement counters. Everything is read on demand
+ * from lock-free recorders or MXBeans, so collecting costs nothing between scrapes.
+ */
+@Service
+public class PerformanceMetricsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PerformanceMetricsService.class);
+
+    private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+
+    // Hibernate statistics are switched on at runtime so the per-session statistics log stays off
+    @Value("${metrics.hibernate-statistics.enabled:true}")
+    private boolean hibernateStatisticsEnabled;
+
+    @Value("${metrics.health.db-timeout-seconds:2}")
+    private int dbTimeoutSeconds;
+
+    private final RequestMetrics requestMetrics;
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+    private final OptimisticRetry optimisticRetry;
+    private final OrderAdmission orderAdmission;
+
+    public PerformanceMetricsService(RequestMetrics requestMetrics,
+                                     DataSource dataSource,
+                                     EntityManagerFactory entityManagerFactory,
+                                     OptimisticRetry optimisticRetry,
+                                     OrderAdmission orderAdmission) {
+        this.requestMetrics = requestMetrics;
+        this.dataSource = dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+        this.optimisticRetry = optimisticRetry;
+        this.orderAdmission = orderAdmission;
+    }
+
+    /**
+     * Turn on Hibernate statistics once the application has started
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void enableHibernateStatistics() {
+        Statistics statistics = hibernateStatistics();
+        if (statistics != null && hibernateStatisticsEnabled && !statistics.isStatisticsEnabled()) {
+            statistics.setStatisticsEnabled(true);
+            logger.info("Hibernate statistics enabled for performance metrics");
+        }
+    }
+
+    /**
+     * Check database connectivity and report uptime
+     * @return health map; "status" is "DOWN" when the database cannot be reached
+     */
+    public Map<String, Object> getHealth() {
+        Map<String, Object> health = new HashMap<>();
+        health.put("timestamp", LocalDateTime.now());
+        health.put("version", "1.0.0");
+        health.put("uptimeSeconds", ManagementFactory.getRuntimeMXBean().getUptime() / 1000);
+
+        long start = System.nanoTime();
+        boolean connected;
+        try (Connection connection = dataSource.getConnection()) {
+            connected = connection.isValid(dbTimeoutSeconds);
+        } catch (Exception e) {
+            logger.warn("Health check could not reach the database: {}", e.getMessage());
+            connected = false;
+        }
+        health.put("database", connected ? "CONNECTED" : "DISCONNECTED");
+        health.put("databaseLatencyMs", (System.nanoTime() - start) / 1_000_000.0);
+        health.put("status", connected ? "UP" : "DOWN");
+
+        Map<String, Object> pool = getPoolMetrics();
+        if (pool != null) {
+            health.put("connectionPool", pool);
+        }
+        return health;
+    }
+
+    /**
+     * Collect all performance metrics
+     * @return metrics map with http, jvm, connectionPool, hibernate, concurrency and orderAdmission sections
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("timestamp", LocalDateTime.now());
+        metrics.put("http", getHttpMetrics());
+        metrics.put("jvm", getJvmMetrics());
+        metrics.put("connectionPool", getPoolMetrics());
+        metrics.put("hibernate", getHibernateMetrics());
+        metrics.put("concurrency", optimisticRetry.getStats());
+        metrics.put("orderAdmission", orderAdmission.getStats());
+        return metrics;
+    }
+
+    /**
+     * Render the metrics in the Prometheus text exposition format
+     * @return exposition text
+     */
+    public String getPrometheusText() {
+        StringBuilder out = new StringBuilder(8192);
+
+        List<RequestMetrics.EndpointStats> endpoints = requestMetrics.getEndpoints();
+        out.append("# TYPE http_server_requests_seconds summary\n");
+        for (RequestMetrics.EndpointStats stats : endpoints) {
+            String labels = endpointLabels(stats.getEndpoint());
+            LatencyHistogram.Snapshot latency = stats.getLatency();
+            for (double quantile : QUANTILES) {
+                sample(out, "http_server_requests_seconds", labels + ",quantile=\"" + quantile + "\"",
+                       latency.getQuantileMillis(quantile) / 1000.0);
+            }
+            sample(out, "http_server_requests_seconds_count", labels, stats.getCount());
+            sample(out, "http_server_requests_seconds_sum", labels, stats.getTotalNanos() / 1e9);
+        }
+        out.append("# TYPE http_server_requests_seconds_max gauge\n");
+        for (RequestMetrics.EndpointStats stats : endpoints) {
+            sample(out, "http_server_requests_seconds_max", endpointLabels(stats.getEndpoint()), stats.getMaxNanos() / 1e9);
+        }
+        out.append("# TYPE http_server_errors_total counter\n");
+        for (RequestMetrics.EndpointStats stats : endpoints) {
+            String labels = endpointLabels(stats.getEndpoint());
+            sample(out, "http_server_errors_total", labels + ",class=\"5xx\"", stats.getServerErrors());
+            sample(out, "http_server_errors_total", labels + ",class=\"4xx\"", stats.getClientErrors());
+        }
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        gauge(out, "jvm_memory_heap_used_bytes", memory.getHeapMemoryUsage().getUsed());
+        gauge(out, "jvm_memory_heap_committed_bytes", memory.getHeapMemoryUsage().getCommitted());
+        gauge(out, "jvm_memory_heap_max_bytes", memory.getHeapMemoryUsage().getMax());
+        gauge(out, "jvm_memory_nonheap_used_bytes", memory.getNonHeapMemoryUsage().getUsed());
+        out.append("# TYPE jvm_gc_collections_total counter\n");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            sample(out, "jvm_gc_collections_total", "gc=\"" + escape(gc.getName()) + "\"", Math.max(gc.getCollectionCount(), 0));
+        }
+        out.append("# TYPE jvm_gc_collection_seconds_total counter\n");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            sample(out, "jvm_gc_collection_seconds_total", "gc=\"" + escape(gc.getName()) + "\"", Math.max(gc.getCollectionTime(), 0) / 1000.0);
+        }
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        gauge(out, "jvm_threads_live", threads.getThreadCount());
+        gauge(out, "jvm_threads_peak", threads.getPeakThreadCount());
+        gauge(out, "jvm_threads_daemon", threads.getDaemonThreadCount());
+        double cpu = processCpuLoad();
+        if (cpu >= 0) {
+            gauge(out, "process_cpu_usage", cpu);
+        }
+        gauge(out, "process_uptime_seconds", ManagementFactory.getRuntimeMXBean().getUptime() / 1000.0);
+
+        HikariPoolMXBean pool = hikariPool();
+        if (pool != null) {
+            gauge(out, "hikaricp_connections_active", pool.getActiveConnections());
+            gauge(out, "hikaricp_connections_idle", pool.getIdleConnections());
+            gauge(out, "hikaricp_connections", pool.getTotalConnections());
+            gauge(out, "hikaricp_connections_pending", pool.getThreadsAwaitingConnection());
+            gauge(out, "hikaricp_connections_max", hikariDataSource().getMaximumPoolSize());
+        }
+
+        Statistics statistics = hibernateStatistics();
+        if (statistics != null && statistics.isStatisticsEnabled()) {
+            counter(out, "hibernate_statements_prepared_total", statistics.getPrepareStatementCount());
+            counter(out, "hibernate_queries_executed_total", statistics.getQueryExecutionCount());
+            counter(out, "hibernate_entities_loaded_total", statistics.getEntityLoadCount());
+            counter(out, "hibernate_entities_fetched_total", statistics.getEntityFetchCount());
+            counter(out, "hibernate_collections_fetched_total", statistics.getCollectionFetchCount());
+            counter(out, "hibernate_flushes_total", statistics.getFlushCount());
+            counter(out, "hibernate_transactions_total", statistics.getTransactionCount());
+            gauge(out, "hibernate_query_execution_max_seconds", statistics.getQueryExecutionMaxTime() / 1000.0);
+        }
+
+        Map<String, OptimisticRetry.OperationStats> operations = optimisticRetry.getOperations();
+        out.append("# TYPE optimistic_lock_conflicts_total counter\n");
+        for (Map.Entry<String, OptimisticRetry.OperationStats> entry : operations.entrySet()) {
+            sample(out, "optimistic_lock_conflicts_total", operationLabel(entry.getKey()), entry.getValue().getConflicts());
+        }
+        out.append("# TYPE optimistic_lock_retries_total counter\n");
+        for (Map.Entry<String, OptimisticRetry.OperationStats> entry : operations.entrySet()) {
+            sample(out, "optimistic_lock_retries_total", operationLabel(entry.getKey()), entry.getValue().getRetries());
+        }
+        out.append("# TYPE optimistic_lock_exhausted_total counter\n");
+        for (Map.Entry<String, OptimisticRetry.OperationStats> entry : operations.entrySet()) {
+            sample(out, "optimistic_lock_exhausted_total", operationLabel(entry.getKey()), entry.getValue().getExhausted());
+        }
+
+        counter(out, "order_admission_admitted_total", orderAdmission.getAdmitted());
+        out.append("# TYPE order_admission_rejected_total counter\n");
+        sample(out, "order_admission_rejected_total", "reason=\"queue_full\"", orderAdmission.getRejectedQueueFull());
+        sample(out, "order_admission_rejected_total", "reason=\"timeout\"", orderAdmission.getRejectedTimeout());
+        return out.toString();
+    }
+
+    private Map<String, Object> getHttpMetrics() {
+        List<RequestMetrics.EndpointStats> endpoints = requestMetrics.getEndpoints();
+        endpoints.sort(Comparator.comparingLong(RequestMetrics.EndpointStats::getCount).reversed());
+
+        long totalRequests = 0;
+        long totalErrors = 0;
+        List<Map<String, Object>> perEndpoint = new ArrayList<>(endpoints.size());
+        for (RequestMetrics.EndpointStats stats : endpoints) {
+            long count = stats.getCount();
+            totalRequests += count;
+            totalErrors += stats.getServerErrors();
+
+            LatencyHistogram.Snapshot latency = stats.getLatency();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("endpoint", stats.getEndpoint());
+            entry.put("count", count);
+            entry.put("serverErrors", stats.getServerErrors());
+            entry.put("clientErrors", stats.getClientErrors());
+            entry.put("meanMs", count > 0 ? stats.getTotalNanos() / 1e6 / count : 0.0);
+            entry.put("p50Ms", latency.getQuantileMillis(0.50));
+            entry.put("p95Ms", latency.getQuantileMillis(0.95));
+            entry.put("p99Ms", latency.getQuantileMillis(0.99));
+            entry.put("maxMs", stats.getMaxNanos() / 1e6);
+            perEndpoint.add(entry);
+        }
+
+        long recentRequests = requestMetrics.getRecentRequests();
+        long recentErrors = requestMetrics.getRecentErrors();
+        double uptimeSeconds = Math.max((System.currentTimeMillis() - requestMetrics.getStartedAt()) / 1000.0, 1.0);
+
+        Map<String, Object> http = new LinkedHashMap<>();
+        http.put("totalRequests", totalRequests);
+        http.put("totalServerErrors", totalErrors);
+        http.put("errorRate", totalRequests > 0 ? (double) totalErrors / totalRequests : 0.0);
+        http.put("averageThroughputPerSecond", totalRequests / uptimeSeconds);
+        http.put("recentWindowSeconds", RequestMetrics.WINDOW_SECONDS);
+        http.put("recentThroughputPerSecond", (double) recentRequests / RequestMetrics.WINDOW_SECONDS);
+        http.put("recentErrorRate", recentRequests > 0 ? (double) recentErrors / recentRequests : 0.0);
+        http.put("endpoints", perEndpoint);
+        return http;
+    }
+
+    private Map<String, Object> getJvmMetrics() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        MemoryUsage heap = memory.getHeapMemoryUsage();
+        Map<String, Object> heapMap = new LinkedHashMap<>();
+        heapMap.put("usedBytes", heap.getUsed());
+        heapMap.put("committedBytes", heap.getCommitted());
+        heapMap.put("maxBytes", heap.getMax());
+        heapMap.put("usage", heap.getMax() > 0 ? (double) heap.getUsed() / heap.getMax() : null);
+
+        List<Map<String, Object>> collectors = new ArrayList<>();
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            Map<String, Object> collector = new LinkedHashMap<>();
+            collector.put("name", gc.getName());
+            collector.put("collections", gc.getCollectionCount());
+            collector.put("timeMs", gc.getCollectionTime());
+            collectors.add(collector);
+        }
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Map<String, Object> threadMap = new LinkedHashMap<>();
+        threadMap.put("live", threads.getThreadCount());
+        threadMap.put("peak", threads.getPeakThreadCount());
+        threadMap.put("daemon", threads.getDaemonThreadCount());
+
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        Map<String, Object> cpu = new LinkedHashMap<>();
+        double processCpu = processCpuLoad();
+        cpu.put("processUsage", processCpu >= 0 ? processCpu : null);
+        cpu.put("systemLoadAverage", os.getSystemLoadAverage() >= 0 ? os.getSystemLoadAverage() : null);
+        cpu.put("availableProcessors", os.getAvailableProcessors());
+
+        Map<String, Object> jvm = new LinkedHashMap<>();
+        jvm.put("uptimeSeconds", ManagementFactory.getRuntimeMXBean().getUptime() / 1000);
+        jvm.put("heap", heapMap);
+        jvm.put("nonHeapUsedBytes", memory.getNonHeapMemoryUsage().getUsed());
+        jvm.put("garbageCollectors", collectors);
+        jvm.put("threads", threadMap);
+        jvm.put("cpu", cpu);
+        return jvm;
+    }
+
+    private Map<String, Object> getPoolMetrics() {
+        HikariPoolMXBean pool = hikariPool();
+        if (pool == null) {
+            return null;
+        }
+        int max = hikariDataSource().getMaximumPoolSize();
+        int active = pool.getActiveConnections();
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("poolName", hikariDataSource().getPoolName());
+        metrics.put("active", active);
+        metrics.put("idle", pool.getIdleConnections());
+        metrics.put("total", pool.getTotalConnections());
+        metrics.put("max", max);
+        metrics.put("threadsAwaiting", pool.getThreadsAwaitingConnection());
+        metrics.put("saturation", max > 0 ? (double) active / max : 0.0);
+        return metrics;
+    }
+
+    private Map<String, Object> getHibernateMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        Statistics statistics = hibernateStatistics();
+        boolean enabled = statistics != null && statistics.isStatisticsEnabled();
+        metrics.put("enabled", enabled);
+        if (!enabled) {
+            return metrics;
+        }
+        metrics.put("statementsPrepared", statistics.getPrepareStatementCount());
+        metrics.put("statementsClosed", statistics.getCloseStatementCount());
+        metrics.put("queriesExecuted", statistics.getQueryExecutionCount());
+        metrics.put("slowestQueryMs", statistics.getQueryExecutionMaxTime());
+        metrics.put("slowestQuery", statistics.getQueryExecutionMaxTimeQueryString());
+        metrics.put("entitiesLoaded", statistics.getEntityLoadCount());
+        metrics.put("entitiesFetched", statistics.getEntityFetchCount());
+        metrics.put("entitiesInserted", statistics.getEntityInsertCount());
+        metrics.put("entitiesUpdated", statistics.getEntityUpdateCount());
+        metrics.put("collectionsFetched", statistics.getCollectionFetchCount());
+        metrics.put("flushes", statistics.getFlushCount());
+        metrics.put("transactions", statistics.getTransactionCount());
+        metrics.put("sessionsOpened", statistics.getSessionOpenCount());
+        return metrics;
+    }
+
+    private HikariDataSource hikariDataSource() {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private HikariPoolMXBean hikariPool() {
+        HikariDataSource hikari = hikariDataSource();
+        return hikari != null ? hikari.getHikariPoolMXBean() : null;
+    }
+
+    private Statistics hibernateStatistics() {
+        try {
+            return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static double processCpuLoad() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean sunOs) {
+            return sunOs.getProcessCpuLoad();
+        }
+        return -1;
+    }
+
+    private static String endpointLabels(String endpoint) {
+        int space = endpoint.indexOf(' ');
+        String method = space > 0 ? endpoint.substring(0, space) : "";
+        String uri = space > 0 ? endpoint.substring(space + 1) : endpoint;
+        return "method=\"" + escape(method) + "\",uri=\"" + escape(uri) + "\"";
+    }
+
+    private static String operationLabel(String operation) {
+        return "operation=\"" + escape(operation) + "\"";
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static void gauge(StringBuilder out, String name, double value) {
+        out.append("# TYPE ").append(name).append(" gauge\n");
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void counter(StringBuilder out, String name, double value) {
+        out.append("# TYPE ").append(name).append(" counter\n");
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, double value) {
+        out.append(name).append('{').append(labels).append("} ").append(value).append('\n');
+    }
+}
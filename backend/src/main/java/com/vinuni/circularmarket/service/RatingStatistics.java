@@ -0,0 +1,261 @@
+package com.vinuni.circularmarket.service;
+
+import com.vinuni.circularmarket.repository.ReviewRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Running rating aggregates, overall and per listing, so rating reads are O(1).
+ * Built with one grouped query at startup, then updated from ReviewChangedEvents after commit.
+ * Besides the overall sum and count it keeps the sum of per-listing averages, which is what
+ * the admin dashboard reports as the overall average rating.
+ */
+@Component
+public class RatingStatistics {
+
+    private static final Logger logger = LoggerFactory.getLogger(RatingStatistics.class);
+
+    // Give up chasing concurrent writes after this many reloads; the next rebuild catches up
+    private static final int MAX_RELOAD_ROUNDS = 5;
+
+    @Value("${reviews.rating-stats.enabled:true}")
+    private boolean enabled;
+
+    private final ReviewRepository reviewRepository;
+
+    private final Map<Long, ListingRating> listings = new HashMap<>();
+    private long ratingSum;
+    private long ratingCount;
+    private double listingAverageSum;
+
+    // Listings changed by events while a rebuild is running; reloaded once it finishes
+    private final Set<Long> changedDuringBuild = new HashSet<>();
+    private boolean building;
+    private volatile boolean ready;
+
+    public RatingStatistics(ReviewRepository reviewRepository) {
+        this.reviewRepository = reviewRepository;
+    }
+
+    /**
+     * Build the aggregates once the application has started
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildStatistics() {
+        if (!enabled) {
+            logger.info("Rating statistics disabled");
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.error("Failed to build rating statistics, ratings are read from the database: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Rebuild the aggregates from the database to repair drift from writes that bypass ReviewService,
+     * or to build them if the startup build failed
+     */
+    @Scheduled(cron = "${reviews.rating-stats.rebuild-cron:0 30 3 * * *}")
+    public void scheduledRebuild() {
+        if (enabled) {
+            try {
+                rebuild();
+            } catch (Exception e) {
+                logger.error("Failed to rebuild rating statistics: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Apply a review change once its transaction has committed
+     * @param event the review change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        synchronized (this) {
+            if (building) {
+                changedDuringBuild.add(event.getListingId());
+            }
+            if (!ready) {
+                return;
+            }
+
+            ListingRating current = listings.get(event.getListingId());
+            long sum = current != null ? current.sum : 0;
+            long count = current != null ? current.count : 0;
+            if (event.getPreviousRating() != null) {
+                sum -= event.getPreviousRating();
+                count--;
+            }
+            if (event.getRating() != null) {
+                sum += event.getRating();
+                count++;
+            }
+            setListing(event.getListingId(), sum, count);
+        }
+    }
+
+    /**
+     * Whether the aggregates are enabled and built
+     * @return true if ready
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Total number of reviews
+     * @return review count
+     */
+    public synchronized long getReviewCount() {
+        return ratingCount;
+    }
+
+    /**
+     * Average of all ratings
+     * @return average rating, 0 if there are no reviews
+     */
+    public synchronized double getAverageRating() {
+        return ratingCount > 0 ? (double) ratingSum / ratingCount : 0.0;
+    }
+
+    /**
+     * Average of the per-listing average ratings, so each rated listing weighs the same
+     * @return average of listing averages, 0 if there are no reviews
+     */
+    public synchronized double getAverageOfListingAverages() {
+        return listings.isEmpty() ? 0.0 : listingAverageSum / listings.size();
+    }
+
+    /**
+     * Average rating of a listing
+     * @param listingId the listing ID
+     * @return average rating, or null if the listing has no reviews
+     */
+    public synchronized Double getListingAverage(Long listingId) {
+        ListingRating rating = listings.get(listingId);
+        return rating != null ? rating.average() : null;
+    }
+
+    /**
+     * Number of reviews of a listing
+     * @param listingId the listing ID
+     * @return review count
+     */
+    public synchronized long getListingReviewCount(Long listingId) {
+        ListingRating rating = listings.get(listingId);
+        return rating != null ? rating.count : 0;
+    }
+
+    private void rebuild() {
+        synchronized (this) {
+            if (building) {
+                return;
+            }
+            building = true;
+            changedDuringBuild.clear();
+        }
+
+        long start = System.currentTimeMillis();
+        Map<Long, long[]> loaded = new HashMap<>();
+        try {
+            for (Object[] row : reviewRepository.getRatingTotalsByListing()) {
+                loaded.put(((Number) row[0]).longValue(),
+                           new long[] {((Number) row[1]).longValue(), ((Number) row[2]).longValue()});
+            }
+
+            // Reviews committed while loading may or may not be in the result; reload those listings
+            for (int round = 0; ; round++) {
+                Set<Long> changed;
+                synchronized (this) {
+                    changed = new HashSet<>(changedDuringBuild);
+                    changedDuringBuild.clear();
+                    if (changed.isEmpty() || round == MAX_RELOAD_ROUNDS) {
+                        install(loaded);
+                        break;
+                    }
+                }
+                for (Long listingId : changed) {
+                    loaded.remove(listingId);
+                    for (Object[] row : reviewRepository.getRatingTotalsByListing(listingId)) {
+                        loaded.put(listingId, new long[] {((Number) row[1]).longValue(), ((Number) row[2]).longValue()});
+                    }
+                }
+            }
+        } finally {
+            synchronized (this) {
+                building = false;
+                changedDuringBuild.clear();
+            }
+        }
+        logger.info("Rating statistics built: {} reviews on {} listings in {} ms",
+                   getReviewCount(), loaded.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Replace all aggregates (caller holds the lock)
+     */
+    private void install(Map<Long, long[]> loaded) {
+        listings.clear();
+        ratingSum = 0;
+        ratingCount = 0;
+        listingAverageSum = 0;
+        loaded.forEach((listingId, totals) -> setListing(listingId, totals[0], totals[1]));
+        ready = true;
+    }
+
+    /**
+     * Replace one listing's totals, adjusting the overall aggregates (caller holds the lock)
+     */
+    private void setListing(Long listingId, long sum, long count) {
+        ListingRating previous = listings.remove(listingId);
+        if (previous != null) {
+            ratingSum -= previous.sum;
+            ratingCount -= previous.count;
+            listingAverageSum -= previous.average();
+        }
+        if (count > 0) {
+            ListingRating rating = new ListingRating(sum, count);
+            listings.put(listingId, rating);
+            ratingSum += sum;
+            ratingCount += count;
+            listingAverageSum += rating.average();
+        }
+        if (listings.isEmpty()) {
+            // Clear accumulated floating-point error
+            listingAverageSum = 0;
+        }
+    }
+
+    private static final class ListingRating {
+        private final long sum;
+        private final long count;
+
+        private ListingRating(long sum, long count) {
+            this.sum = sum;
+            this.count = count;
+        }
+
+        private double average() {
+            return (double) sum / count;
+        }
+    }
+}
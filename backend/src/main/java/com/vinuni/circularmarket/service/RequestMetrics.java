@@ -0,0 +1,182 @@
+package com.vinuni.circularmarket.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint request counters and latency histograms, fed by RequestMetricsFilter.
+ * Recording never locks: counters are LongAdders, histograms are atomic arrays, and the
+ * recent-throughput window is a ring of per-second slots.
+ */
+@Component
+public class RequestMetrics {
+
+    // Length of the sliding window used for recent throughput and error rate
+    public static final int WINDOW_SECONDS = 60;
+
+    // Endpoints beyond this many are folded into one entry so the map cannot grow without bound
+    @Value("${metrics.max-endpoints:300}")
+    private int maxEndpoints;
+
+    private final ConcurrentMap<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private final EndpointStats overflow = new EndpointStats("OTHER");
+    private final RateWindow recentRequests = new RateWindow();
+    private final RateWindow recentErrors = new RateWindow();
+    private final long startedAt = System.currentTimeMillis();
+
+    /**
+     * Record one finished request
+     * @param method the HTTP method
+     * @param route the matched route pattern, or null if no handler matched
+     * @param status the response status
+     * @param nanos time spent in the request
+     */
+    public void record(String method, String route, int status, long nanos) {
+        String key = method + " " + (route != null ? route : "UNMATCHED");
+        EndpointStats stats = endpoints.get(key);
+        if (stats == null) {
+            stats = endpoints.size() < maxEndpoints
+                    ? endpoints.computeIfAbsent(key, EndpointStats::new)
+                    : overflow;
+        }
+        stats.record(status, nanos);
+
+        long second = System.currentTimeMillis() / 1000;
+        recentRequests.increment(second);
+        if (status >= 500) {
+            recentErrors.increment(second);
+        }
+    }
+
+    /**
+     * Snapshot all endpoints
+     * @return endpoint statistics, unordered
+     */
+    public List<EndpointStats> getEndpoints() {
+        List<EndpointStats> all = new ArrayList<>(endpoints.values());
+        if (overflow.getCount() > 0) {
+            all.add(overflow);
+        }
+        return all;
+    }
+
+    /**
+     * Requests finished in the last WINDOW_SECONDS seconds
+     * @return request count
+     */
+    public long getRecentRequests() {
+        return recentRequests.sum(System.currentTimeMillis() / 1000);
+    }
+
+    /**
+     * Requests answered with a 5xx status in the last WINDOW_SECONDS seconds
+     * @return error count
+     */
+    public long getRecentErrors() {
+        return recentErrors.sum(System.currentTimeMillis() / 1000);
+    }
+
+    /**
+     * When recording started
+     * @return epoch milliseconds
+     */
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * Counters and latency histogram of one endpoint since startup
+     */
+    public static final class EndpointStats {
+
+        private final String endpoint;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder serverErrors = new LongAdder();
+        private final LongAdder clientErrors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private EndpointStats(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        private void record(int status, long nanos) {
+            count.increment();
+            if (status >= 500) {
+                serverErrors.increment();
+            } else if (status >= 400) {
+                clientErrors.increment();
+            }
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            latency.record(nanos);
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getServerErrors() {
+            return serverErrors.sum();
+        }
+
+        public long getClientErrors() {
+            return clientErrors.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        public LatencyHistogram.Snapshot getLatency() {
+            return latency.snapshot();
+        }
+    }
+
+    /**
+     * Ring of per-second counters covering the last WINDOW_SECONDS seconds.
+     * A slot is reset by the first increment of a new second; an increment racing with that
+     * reset can be lost, which is acceptable for a rate display.
+     */
+    private static final class RateWindow {
+
+        private final AtomicLongArray counts = new AtomicLongArray(WINDOW_SECONDS);
+        private final AtomicLongArray seconds = new AtomicLongArray(WINDOW_SECONDS);
+
+        private void increment(long second) {
+            int slot = (int) (second % WINDOW_SECONDS);
+            long slotSecond = seconds.get(slot);
+            if (slotSecond != second && seconds.compareAndSet(slot, slotSecond, second)) {
+                counts.set(slot, 0);
+            }
+            counts.incrementAndGet(slot);
+        }
+
+        private long sum(long now) {
+            long sum = 0;
+            for (int slot = 0; slot < WINDOW_SECONDS; slot++) {
+                if (now - seconds.get(slot) < WINDOW_SECONDS) {
+                    sum += counts.get(slot);
+                }
+            }
+            return sum;
+        }
+    }
+}
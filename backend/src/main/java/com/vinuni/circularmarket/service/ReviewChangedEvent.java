@@ -0,0 +1,36 @@
+package com.vinuni.circularmarket.service;
+
+/**
+ * Published by ReviewService whenever a review is created, re-rated or deleted.
+ * The previous rating is null for a new review and the rating is null for a deleted one.
+ */
+public class ReviewChangedEvent {
+
+    private final Long listingId;
+    private final Long sellerId;
+    private final Integer previousRating;
+    private final Integer rating;
+
+    public ReviewChangedEvent(Long listingId, Long sellerId, Integer previousRating, Integer rating) {
+        this.listingId = listingId;
+        this.sellerId = sellerId;
+        this.previousRating = previousRating;
+        this.rating = rating;
+    }
+
+    public Long getListingId() {
+        return listingId;
+    }
+
+    public Long getSellerId() {
+        return sellerId;
+    }
+
+    public Integer getPreviousRating() {
+        return previousRating;
+    }
+
+    public Integer getRating() {
+        return rating;
+    }
+}
@@ -9,6 +9,8 @@ import com.vinuni.circularmarket.model.OrderStatus;
 import com.vinuni.circularmarket.model.Review;
 import com.vinuni.circularmarket.repository.OrderRepository;
 import com.vinuni.circularmarket.repository.ReviewRepository;
+import com.vinuni.circularmarket.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -24,10 +26,18 @@ public class ReviewService {
 
     private final ReviewRepository reviewRepository;
     private final OrderRepository orderRepository;
+    private final UserRepository userRepository;
+    private final RatingStatistics ratingStatistics;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ReviewService(ReviewRepository reviewRepository, OrderRepository orderRepository) {
+    public ReviewService(ReviewRepository reviewRepository, OrderRepository orderRepository,
+                         UserRepository userRepository, RatingStatistics ratingStatistics,
+                         ApplicationEventPublisher eventPublisher) {
         this.reviewRepository = reviewRepository;
         this.orderRepository = orderRepository;
+        this.userRepository = userRepository;
+        this.ratingStatistics = ratingStatistics;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -66,8 +76,11 @@ public class ReviewService {
         Review review = new Review(order, request.getRating(), request.getComment());
         Review savedReview = reviewRepository.save(review);
 
-        // Update seller's average rating (simplified - in real implementation, this would be more sophisticated)
-        updateSellerAverageRating(order.getListing().getSeller().getUserId());
+        // Update seller's average rating
+        Long sellerId = order.getListing().getSeller().getUserId();
+        updateSellerAverageRating(sellerId);
+        eventPublisher.publishEvent(new ReviewChangedEvent(order.getListing().getListingId(), sellerId,
+                                                           null, savedReview.getRating()));
 
         return convertToDTO(savedReview);
     }
@@ -160,6 +173,9 @@ public class ReviewService {
      */
     @Transactional(readOnly = true)
     public Double getAverageRatingForListing(Long listingId) {
+        if (ratingStatistics.isReady()) {
+            return ratingStatistics.getListingAverage(listingId);
+        }
         return reviewRepository.findAverageRatingByListingId(listingId);
     }
 
@@ -180,6 +196,9 @@ public class ReviewService {
      */
     @Transactional(readOnly = true)
     public long getReviewCountForListing(Long listingId) {
+        if (ratingStatistics.isReady()) {
+            return ratingStatistics.getListingReviewCount(listingId);
+        }
         return reviewRepository.countByListingId(listingId);
     }
 
@@ -216,13 +235,17 @@ public class ReviewService {
         }
 
         // Update the review
+        Integer previousRating = review.getRating();
         review.setRating(request.getRating());
         review.setComment(request.getComment());
 
         Review savedReview = reviewRepository.save(review);
 
         // Update seller's average rating
-        updateSellerAverageRating(review.getOrder().getListing().getSeller().getUserId());
+        Long sellerId = review.getOrder().getListing().getSeller().getUserId();
+        updateSellerAverageRating(sellerId);
+        eventPublisher.publishEvent(new ReviewChangedEvent(review.getOrder().getListing().getListingId(), sellerId,
+                                                           previousRating, savedReview.getRating()));
 
         return convertToDTO(savedReview);
     }
@@ -248,24 +271,23 @@ public class ReviewService {
         }
 
         Long sellerId = review.getOrder().getListing().getSeller().getUserId();
+        Long listingId = review.getOrder().getListing().getListingId();
+        Integer rating = review.getRating();
 
         reviewRepository.delete(review);
 
         // Update seller's average rating after deletion
         updateSellerAverageRating(sellerId);
+        eventPublisher.publishEvent(new ReviewChangedEvent(listingId, sellerId, rating, null));
     }
 
     /**
-     * Update seller's average rating (simplified implementation)
+     * Update seller's stored average rating and rating count.
+     * The review triggers do this on insert and delete, but not when a rating is edited.
      * @param sellerId the seller ID
      */
-    @Transactional
     private void updateSellerAverageRating(Long sellerId) {
-        Double averageRating = reviewRepository.findAverageRatingBySellerId(sellerId);
-        if (averageRating != null) {
-            // In a real implementation, you would update the user's avg_rating field
-            // For now, we'll just calculate it when needed
-        }
+        userRepository.refreshSellerRating(sellerId);
     }
 
     /**
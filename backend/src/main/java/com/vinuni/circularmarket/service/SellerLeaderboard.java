@@ -0,0 +1,276 @@
+package com.vinuni.circularmarket.service;
+
+import com.vinuni.circularmarket.dto.TopSellerDTO;
+import com.vinuni.circularmarket.model.OrderStatus;
+import com.vinuni.circularmarket.model.User;
+import com.vinuni.circularmarket.model.UserRole;
+import com.vinuni.circularmarket.repository.OrderRepository;
+import com.vinuni.circularmarket.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Incrementally maintained ranking of sellers by completed orders (then revenue).
+ * Built with one grouped query at startup, then updated from OrderChangedEvents after commit,
+ * so reading the top sellers costs one small user lookup regardless of the number of users.
+ * A periodic rebuild repairs drift from writes that bypass OrderService.
+ */
+@Component
+public class SellerLeaderboard {
+
+    private static final Logger logger = LoggerFactory.getLogger(SellerLeaderboard.class);
+
+    // Give up chasing concurrent writes after this many reloads; the next rebuild catches up
+    private static final int MAX_RELOAD_ROUNDS = 5;
+
+    private static final Comparator<SellerStats> RANKING = Comparator
+            .comparingLong((SellerStats stats) -> stats.completedOrders).reversed()
+            .thenComparing((SellerStats stats) -> stats.revenue, Comparator.reverseOrder())
+            .thenComparingLong(stats -> stats.sellerId);
+
+    @Value("${analytics.top-sellers.incremental:false}")
+    private boolean enabled;
+
+    private final OrderRepository orderRepository;
+    private final UserRepository userRepository;
+
+    private final Map<Long, SellerStats> stats = new HashMap<>();
+    // Sellers with at least one completed order, best first
+    private final TreeSet<SellerStats> ranking = new TreeSet<>(RANKING);
+
+    // Sellers changed by events while a rebuild is running; reloaded once it finishes
+    private final Set<Long> changedDuringBuild = new HashSet<>();
+    private boolean building;
+    private volatile boolean ready;
+
+    public SellerLeaderboard(OrderRepository orderRepository, UserRepository userRepository) {
+        this.orderRepository = orderRepository;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Build the leaderboard once the application has started
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildLeaderboard() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.error("Failed to build seller leaderboard, using the ranking query: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Whether the incremental leaderboard is enabled and built (otherwise the ranking query is used)
+     * @return true if ready
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Get the top student sellers from the leaderboard
+     * @param limit number of sellers to return
+     * @return top sellers, best first
+     */
+    public List<TopSellerDTO> getTopSellers(int limit) {
+        List<TopSellerDTO> topSellers = new ArrayList<>(limit);
+        List<SellerStats> ranked = snapshotRanking();
+        // Role and rating live on User; fetch them for one window of candidates at a time
+        for (int from = 0; from < ranked.size() && topSellers.size() < limit; from += limit) {
+            List<SellerStats> window = ranked.subList(from, Math.min(from + limit, ranked.size()));
+            Map<Long, User> users = userRepository.findAllById(
+                    window.stream().map(candidate -> candidate.sellerId).collect(Collectors.toList()))
+                    .stream().collect(Collectors.toMap(User::getUserId, Function.identity()));
+
+            for (SellerStats candidate : window) {
+                User user = users.get(candidate.sellerId);
+                if (user == null || user.getRole() != UserRole.student) {
+                    continue;
+                }
+                topSellers.add(new TopSellerDTO(
+                    user.getUserId(),
+                    user.getFullName(),
+                    user.getEmail(),
+                    candidate.totalOrders,
+                    candidate.completedOrders,
+                    candidate.revenue,
+                    user.getAvgRating() != null ? user.getAvgRating().doubleValue() : 0.0,
+                    user.getRatingCount() != null ? user.getRatingCount() : 0
+                ));
+                if (topSellers.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return topSellers;
+    }
+
+    /**
+     * Apply an order change once its transaction has committed
+     * @param event the order change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        synchronized (this) {
+            if (building) {
+                changedDuringBuild.add(event.getSellerId());
+            }
+            if (!ready) {
+                return;
+            }
+
+            SellerStats current = stats.computeIfAbsent(event.getSellerId(), SellerStats::new);
+            ranking.remove(current);
+            if (event.getPreviousStatus() == null) {
+                current.totalOrders++;
+            }
+            if (event.getStatus() == OrderStatus.COMPLETED && event.getPreviousStatus() != OrderStatus.COMPLETED) {
+                current.completedOrders++;
+                if (event.getPrice() != null) {
+                    current.revenue = current.revenue.add(event.getPrice());
+                }
+            }
+            if (current.completedOrders > 0) {
+                ranking.add(current);
+            }
+        }
+    }
+
+    /**
+     * Rebuild the leaderboard from the database to repair drift, or to build it
+     * if the startup build failed
+     */
+    @Scheduled(cron = "${analytics.top-sellers.rebuild-cron:0 */30 * * * *}")
+    public void scheduledRebuild() {
+        if (enabled) {
+            try {
+                rebuild();
+            } catch (Exception e) {
+                logger.error("Failed to rebuild seller leaderboard: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void rebuild() {
+        synchronized (this) {
+            if (building) {
+                return;
+            }
+            building = true;
+            changedDuringBuild.clear();
+        }
+
+        long start = System.currentTimeMillis();
+        Map<Long, SellerStats> loaded = new HashMap<>();
+        try {
+            for (Object[] row : orderRepository.getSellerOrderTotals()) {
+                SellerStats seller = toStats(row);
+                loaded.put(seller.sellerId, seller);
+            }
+
+            // Orders committed while loading may or may not be in the result; reload those sellers
+            for (int round = 0; ; round++) {
+                Set<Long> changed;
+                synchronized (this) {
+                    changed = new HashSet<>(changedDuringBuild);
+                    changedDuringBuild.clear();
+                    if (changed.isEmpty() || round == MAX_RELOAD_ROUNDS) {
+                        install(loaded);
+                        break;
+                    }
+                }
+                for (Long sellerId : changed) {
+                    loaded.remove(sellerId);
+                    for (Object[] row : orderRepository.getSellerOrderTotals(sellerId)) {
+                        loaded.put(sellerId, toStats(row));
+                    }
+                }
+            }
+        } finally {
+            synchronized (this) {
+                building = false;
+                changedDuringBuild.clear();
+            }
+        }
+        logger.info("Seller leaderboard built: {} sellers in {} ms", loaded.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Replace the live leaderboard (caller holds the lock)
+     */
+    private void install(Map<Long, SellerStats> loaded) {
+        stats.clear();
+        ranking.clear();
+        stats.putAll(loaded);
+        for (SellerStats seller : loaded.values()) {
+            if (seller.completedOrders > 0) {
+                ranking.add(seller);
+            }
+        }
+        ready = true;
+    }
+
+    private synchronized List<SellerStats> snapshotRanking() {
+        List<SellerStats> snapshot = new ArrayList<>(ranking.size());
+        Iterator<SellerStats> it = ranking.iterator();
+        while (it.hasNext()) {
+            snapshot.add(it.next().copy());
+        }
+        return snapshot;
+    }
+
+    private static SellerStats toStats(Object[] row) {
+        SellerStats seller = new SellerStats(((Number) row[0]).longValue());
+        seller.totalOrders = ((Number) row[1]).longValue();
+        seller.completedOrders = ((Number) row[2]).longValue();
+        seller.revenue = row[3] instanceof BigDecimal decimal ? decimal : new BigDecimal(row[3].toString());
+        return seller;
+    }
+
+    private static final class SellerStats {
+        private final long sellerId;
+        private long totalOrders;
+        private long completedOrders;
+        private BigDecimal revenue = BigDecimal.ZERO;
+
+        private SellerStats(long sellerId) {
+            this.sellerId = sellerId;
+        }
+
+        private SellerStats copy() {
+            SellerStats copy = new SellerStats(sellerId);
+            copy.totalOrders = totalOrders;
+            copy.completedOrders = completedOrders;
+            copy.revenue = revenue;
+            return copy;
+        }
+    }
+}
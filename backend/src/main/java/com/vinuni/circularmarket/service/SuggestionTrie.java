@@ -0,0 +1,277 @@
+package com.vinuni.circularmarket.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Prefix trie of ranked suggestions. Each entry is reachable under one or more normalized keys
+ * (e.g. every word start of a title), and each node keeps the best score in its subtree so
+ * the top-k completions of a prefix are found best-first without walking the whole subtree.
+ * Children are stored in parallel sorted char/node arrays to keep nodes small.
+ * Not thread-safe; callers synchronize.
+ */
+class SuggestionTrie {
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    private final Node root = new Node();
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    /**
+     * Insert or replace the suggestion with the given ID
+     * @param id suggestion ID (listing or category ID)
+     * @param text text shown to the user
+     * @param keys normalized keys the suggestion is reachable under
+     * @param score ranking score (higher first)
+     */
+    void put(long id, String text, List<String> keys, double score) {
+        remove(id);
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        Entry entry = new Entry(id, text, keys.toArray(new String[0]), score);
+        entries.put(id, entry);
+        for (String key : entry.keys) {
+            insert(entry, key);
+        }
+    }
+
+    /**
+     * Change the score of a suggestion, keeping its text and keys
+     * @param id suggestion ID
+     * @param score new ranking score
+     * @return false if there is no suggestion with the ID
+     */
+    boolean rescore(long id, double score) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            return false;
+        }
+        if (entry.score != score) {
+            put(id, entry.text, Arrays.asList(entry.keys), score);
+        }
+        return true;
+    }
+
+    /**
+     * Remove the suggestion with the given ID, pruning empty nodes
+     * @param id suggestion ID
+     */
+    void remove(long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        for (String key : entry.keys) {
+            delete(root, entry, key, 0);
+        }
+    }
+
+    /**
+     * Check whether a suggestion is present
+     * @param id suggestion ID
+     * @return true if present
+     */
+    boolean contains(long id) {
+        return entries.containsKey(id);
+    }
+
+    /**
+     * Number of suggestions
+     * @return suggestion count
+     */
+    int size() {
+        return entries.size();
+    }
+
+    void clear() {
+        entries.clear();
+        root.keys = NO_KEYS;
+        root.children = NO_CHILDREN;
+        root.entries = NO_ENTRIES;
+        root.maxScore = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Best-scoring suggestions under a normalized prefix
+     * @param prefix normalized prefix
+     * @param limit maximum number of suggestions
+     * @return matching suggestions, best first, each ID at most once
+     */
+    List<Entry> complete(String prefix, int limit) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+
+        List<Entry> results = new ArrayList<>(limit);
+        if (node == null || limit <= 0) {
+            return results;
+        }
+
+        // Best-first: nodes are ranked by the best score below them, so entries come out in score order
+        PriorityQueue<Object> queue = new PriorityQueue<>(
+                (a, b) -> Double.compare(scoreOf(b), scoreOf(a)));
+        queue.add(node);
+        Set<Long> seen = new HashSet<>();
+        while (!queue.isEmpty() && results.size() < limit) {
+            Object next = queue.poll();
+            if (next instanceof Entry entry) {
+                if (seen.add(entry.id)) {
+                    results.add(entry);
+                }
+            } else {
+                Node current = (Node) next;
+                queue.addAll(Arrays.asList(current.entries));
+                queue.addAll(Arrays.asList(current.children));
+            }
+        }
+        return results;
+    }
+
+    private static double scoreOf(Object item) {
+        return item instanceof Entry entry ? entry.score : ((Node) item).maxScore;
+    }
+
+    private void insert(Entry entry, String key) {
+        Node node = root;
+        node.maxScore = Math.max(node.maxScore, entry.score);
+        for (int i = 0; i < key.length(); i++) {
+            node = node.childOrCreate(key.charAt(i));
+            node.maxScore = Math.max(node.maxScore, entry.score);
+        }
+        node.addEntry(entry);
+    }
+
+    /**
+     * Remove an entry below node along key; returns true if node became empty and can be pruned
+     */
+    private boolean delete(Node node, Entry entry, String key, int depth) {
+        if (depth == key.length()) {
+            node.removeEntry(entry);
+        } else {
+            char c = key.charAt(depth);
+            Node child = node.child(c);
+            if (child != null && delete(child, entry, key, depth + 1)) {
+                node.removeChild(c);
+            }
+        }
+        node.recomputeMaxScore();
+        return node != root && node.entries.length == 0 && node.children.length == 0;
+    }
+
+    /**
+     * A ranked suggestion
+     */
+    static final class Entry {
+        private final long id;
+        private final String text;
+        private final String[] keys;
+        private final double score;
+
+        private Entry(long id, String text, String[] keys, double score) {
+            this.id = id;
+            this.text = text;
+            this.keys = keys;
+            this.score = score;
+        }
+
+        long getId() {
+            return id;
+        }
+
+        String getText() {
+            return text;
+        }
+    }
+
+    private static final class Node {
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private Entry[] entries = NO_ENTRIES;
+        private double maxScore = Double.NEGATIVE_INFINITY;
+
+        private Node child(char c) {
+            int pos = Arrays.binarySearch(keys, c);
+            return pos >= 0 ? children[pos] : null;
+        }
+
+        private Node childOrCreate(char c) {
+            int pos = Arrays.binarySearch(keys, c);
+            if (pos >= 0) {
+                return children[pos];
+            }
+
+            pos = -pos - 1;
+            Node child = new Node();
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, pos);
+            System.arraycopy(children, 0, newChildren, 0, pos);
+            newKeys[pos] = c;
+            newChildren[pos] = child;
+            System.arraycopy(keys, pos, newKeys, pos + 1, keys.length - pos);
+            System.arraycopy(children, pos, newChildren, pos + 1, children.length - pos);
+            keys = newKeys;
+            children = newChildren;
+            return child;
+        }
+
+        private void removeChild(char c) {
+            int pos = Arrays.binarySearch(keys, c);
+            if (pos < 0) {
+                return;
+            }
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, pos);
+            System.arraycopy(children, 0, newChildren, 0, pos);
+            System.arraycopy(keys, pos + 1, newKeys, pos, keys.length - pos - 1);
+            System.arraycopy(children, pos + 1, newChildren, pos, children.length - pos - 1);
+            keys = newKeys.length == 0 ? NO_KEYS : newKeys;
+            children = newChildren.length == 0 ? NO_CHILDREN : newChildren;
+        }
+
+        private void addEntry(Entry entry) {
+            for (Entry existing : entries) {
+                if (existing == entry) {
+                    return;
+                }
+            }
+            entries = Arrays.copyOf(entries, entries.length + 1);
+            entries[entries.length - 1] = entry;
+        }
+
+        private void removeEntry(Entry entry) {
+            for (int i = 0; i < entries.length; i++) {
+                if (entries[i] == entry) {
+                    Entry[] remaining = new Entry[entries.length - 1];
+                    System.arraycopy(entries, 0, remaining, 0, i);
+                    System.arraycopy(entries, i + 1, remaining, i, entries.length - i - 1);
+                    entries = remaining.length == 0 ? NO_ENTRIES : remaining;
+                    return;
+                }
+            }
+        }
+
+        private void recomputeMaxScore() {
+            double max = Double.NEGATIVE_INFINITY;
+            for (Entry entry : entries) {
+                max = Math.max(max, entry.score);
+            }
+            for (Node child : children) {
+                max = Math.max(max, child.maxScore);
+            }
+            maxScore = max;
+        }
+    }
+}
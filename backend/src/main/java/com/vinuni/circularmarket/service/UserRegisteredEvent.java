@@ -0,0 +1,31 @@
+package com.vinuni.circularmarket.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by AuthService when a new account is registered
+ */
+public class UserRegisteredEvent {
+
+    private final Long userId;
+    private final String fullName;
+    private final LocalDateTime createdAt;
+
+    public UserRegisteredEvent(Long userId, String fullName, LocalDateTime createdAt) {
+        this.userId = userId;
+        this.fullName = fullName;
+        this.createdAt = createdAt;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
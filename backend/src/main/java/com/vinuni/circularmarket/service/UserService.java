@@ -1,5 +1,6 @@
 package com.vinuni.circularmarket.service;
 
+import com.vinuni.circularmarket.dto.BulkUserUpdateResultDTO;
 import com.vinuni.circularmarket.dto.UserDTO;
 import com.vinuni.circularmarket.model.User;
 import com.vinuni.circularmarket.model.UserRole;
@@ -7,13 +8,21 @@ import com.vinuni.circularmarket.model.UserStatus;
 import com.vinuni.circularmarket.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,10 +30,16 @@ public class UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
+    // IDs per UPDATE ... IN (...) statement in bulk operations
+    @Value("${users.bulk.chunk-size:1000}")
+    private int bulkChunkSize;
+
     private final UserRepository userRepository;
+    private final AuditLogService auditLogService;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, AuditLogService auditLogService) {
         this.userRepository = userRepository;
+        this.auditLogService = auditLogService;
     }
 
     /**
@@ -139,6 +154,7 @@ public class UserService {
             UserStatus oldStatus = user.getStatus();
             user.setStatus(status);
             User savedUser = userRepository.save(user);
+            auditLogService.record("UPDATE", "USER", userId, "Status changed from " + oldStatus + " to " + status);
 
             logger.info("UPDATE OPERATION SUCCESS: User status updated - User ID: {}, Status changed from {} to {}",
                        userId, oldStatus, status);
@@ -166,6 +182,7 @@ public class UserService {
             UserRole oldRole = user.getRole();
             user.setRole(role);
             User savedUser = userRepository.save(user);
+            auditLogService.record("UPDATE", "USER", userId, "Role changed from " + oldRole + " to " + role);
 
             logger.info("UPDATE OPERATION SUCCESS: User role updated - User ID: {}, Role changed from {} to {}",
                        userId, oldRole, role);
@@ -200,6 +217,7 @@ public class UserService {
             user.setAddress(address);
 
             User savedUser = userRepository.save(user);
+            auditLogService.record("UPDATE", "USER", userId, "Profile updated");
             logger.info("UPDATE OPERATION SUCCESS: User profile updated - User ID: {}", userId);
             return convertToDTO(savedUser);
         } catch (Exception e) {
@@ -222,6 +240,7 @@ public class UserService {
 
             user.setStatus(UserStatus.inactive);
             userRepository.save(user);
+            auditLogService.record("DELETE", "USER", userId, "User soft deleted");
             logger.info("DELETE OPERATION SUCCESS: User soft deleted - User ID: {}", userId);
         } catch (Exception e) {
             logger.error("DELETE OPERATION FAILED: Failed to delete user - User ID: {}, Error: {}",
@@ -230,6 +249,87 @@ public class UserService {
         }
     }
 
+    /**
+     * Set the status of many users with one UPDATE per chunk of IDs, all in one transaction
+     * @param userIds the user IDs (duplicates and nulls are ignored)
+     * @param status the new status
+     * @return per-ID outcome
+     */
+    @Transactional
+    public BulkUserUpdateResultDTO bulkUpdateUserStatus(List<Long> userIds, UserStatus status) {
+        BulkUserUpdateResultDTO result = bulkUpdate(userIds, row -> status.name().equals(row[1]),
+                chunk -> userRepository.updateStatusByIds(chunk, status));
+        if (!result.getUpdatedIds().isEmpty()) {
+            auditLogService.recordAll("UPDATE", "USER", result.getUpdatedIds(),
+                    "Bulk status change to " + status + " (" + result.getUpdated() + " users)");
+        }
+        logger.info("BULK UPDATE OPERATION SUCCESS: Status set to {} - Requested: {}, Updated: {}, Unchanged: {}, Not found: {}",
+                   status, result.getRequested(), result.getUpdated(), result.getUnchanged(), result.getNotFound());
+        return result;
+    }
+
+    /**
+     * Set the role of many users with one UPDATE per chunk of IDs, all in one transaction
+     * @param userIds the user IDs (duplicates and nulls are ignored)
+     * @param role the new role
+     * @return per-ID outcome
+     */
+    @Transactional
+    public BulkUserUpdateResultDTO bulkUpdateUserRole(List<Long> userIds, UserRole role) {
+        BulkUserUpdateResultDTO result = bulkUpdate(userIds, row -> role.name().equals(row[2]),
+                chunk -> userRepository.updateRoleByIds(chunk, role));
+        if (!result.getUpdatedIds().isEmpty()) {
+            auditLogService.recordAll("UPDATE", "USER", result.getUpdatedIds(),
+                    "Bulk role change to " + role + " (" + result.getUpdated() + " users)");
+        }
+        logger.info("BULK UPDATE OPERATION SUCCESS: Role set to {} - Requested: {}, Updated: {}, Unchanged: {}, Not found: {}",
+                   role, result.getRequested(), result.getUpdated(), result.getUnchanged(), result.getNotFound());
+        return result;
+    }
+
+    /**
+     * Lock each chunk of users, classify every ID, then update the chunk with one statement
+     * @param userIds the requested IDs
+     * @param alreadySet whether a locked [user_id, status, role] row already has the target value
+     * @param update the set-based update of one chunk
+     * @return per-ID outcome
+     */
+    private BulkUserUpdateResultDTO bulkUpdate(List<Long> userIds,
+                                               Predicate<Object[]> alreadySet,
+                                               Function<List<Long>, Integer> update) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(userIds));
+        ids.removeIf(Objects::isNull);
+        BulkUserUpdateResultDTO result = new BulkUserUpdateResultDTO(ids.size());
+
+        int chunkSize = Math.max(bulkChunkSize, 1);
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+
+            // Row locks keep the outcomes exact until the transaction commits
+            Map<Long, Object[]> rows = new HashMap<>();
+            for (Object[] row : userRepository.lockStatusAndRoleByIds(chunk)) {
+                rows.put(((Number) row[0]).longValue(), row);
+            }
+
+            List<Long> toUpdate = new ArrayList<>(chunk.size());
+            for (Long userId : chunk) {
+                Object[] row = rows.get(userId);
+                if (row == null) {
+                    result.getNotFoundIds().add(userId);
+                } else if (alreadySet.test(row)) {
+                    result.getUnchangedIds().add(userId);
+                } else {
+                    toUpdate.add(userId);
+                }
+            }
+            if (!toUpdate.isEmpty()) {
+                update.apply(toUpdate);
+                result.getUpdatedIds().addAll(toUpdate);
+            }
+        }
+        return result;
+    }
+
     /**
      * Get user statistics
      * @return map containing user statistics
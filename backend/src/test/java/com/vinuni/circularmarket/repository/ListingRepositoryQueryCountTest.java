@@ -0,0 +1,111 @@
+package com.vinuni.circularmarket.repository;
+
+import com.vinuni.circularmarket.config.DatabaseConfig;
+import com.vinuni.circularmarket.model.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Turning a page of listings into DTOs reads the seller, the category and the comment count of every row.
+ * Seller and category come with the page query's entity graph and the comment count is a column of the
+ * listing, so a page costs its select plus the total count, whatever its size.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(DatabaseConfig.class)
+class ListingRepositoryQueryCountTest {
+
+    // The page query and the total count
+    private static final long PAGE_STATEMENTS = 2;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ListingRepository listingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        List<User> sellers = new ArrayList<>();
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            sellers.add(userRepository.save(new User("Seller " + i, "seller" + i + "@vinuni.edu.vn", "hash")));
+            categories.add(categoryRepository.save(new Category("Category " + i, null)));
+        }
+        for (int i = 0; i < 60; i++) {
+            Listing listing = new Listing(sellers.get(i % sellers.size()), categories.get(i % categories.size()),
+                    "Listing " + i, null, ListingCondition.USED, ListingType.SELL, new BigDecimal("10.00"));
+            listing.setCommentCount(i % 4);
+            listingRepository.save(listing);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void pageStatementCountDoesNotGrowWithPageSize() {
+        assertEquals(PAGE_STATEMENTS, countStatementsToReadPage(5));
+        assertEquals(PAGE_STATEMENTS, countStatementsToReadPage(40));
+    }
+
+    @Test
+    void statusPageStatementCountDoesNotGrowWithPageSize() {
+        statistics.clear();
+        Page<Listing> page = listingRepository.findByStatus(ListingStatus.AVAILABLE, PageRequest.of(0, 50));
+        readDtoFields(page);
+
+        assertEquals(50, page.getNumberOfElements());
+        assertEquals(PAGE_STATEMENTS, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Load one page with an empty persistence context and read everything convertToDTO reads
+     * @param size page size
+     * @return number of prepared statements
+     */
+    private long countStatementsToReadPage(int size) {
+        entityManager.clear();
+        statistics.clear();
+        Page<Listing> page = listingRepository.findAll(PageRequest.of(0, size));
+        readDtoFields(page);
+        assertEquals(size, page.getNumberOfElements());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static void readDtoFields(Page<Listing> page) {
+        for (Listing listing : page) {
+            listing.getSeller().getFullName();
+            listing.getCategory().getName();
+            listing.getCommentCount();
+        }
+    }
+}
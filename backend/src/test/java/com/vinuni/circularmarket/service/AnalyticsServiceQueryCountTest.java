@@ -0,0 +1,166 @@
+package com.vinuni.circularmarket.service;
+
+import com.vinuni.circularmarket.config.DatabaseConfig;
+import com.vinuni.circularmarket.dto.AnalyticsDTO;
+import com.vinuni.circularmarket.model.*;
+import com.vinuni.circularmarket.repository.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The dashboard counters must cost a fixed number of statements, however many rows there are.
+ * Top sellers and recent activities have their own read models and are stubbed out here;
+ * rating totals come from the database because the running aggregates are not built.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(DatabaseConfig.class)
+class AnalyticsServiceQueryCountTest {
+
+    // One grouped query each for users, listings, orders and reviews, plus the comment count
+    private static final long DASHBOARD_STATEMENTS = 5;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ListingRepository listingRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private AnalyticsService analyticsService;
+    private Statistics statistics;
+    private Category category;
+    private int sequence;
+
+    @BeforeEach
+    void setUp() {
+        SellerLeaderboard sellerLeaderboard = mock(SellerLeaderboard.class);
+        when(sellerLeaderboard.isReady()).thenReturn(true);
+        when(sellerLeaderboard.getTopSellers(10)).thenReturn(List.of());
+        ActivityFeedService activityFeedService = mock(ActivityFeedService.class);
+        when(activityFeedService.getRecentActivities(20)).thenReturn(List.of());
+
+        analyticsService = new AnalyticsService(userRepository, listingRepository, orderRepository,
+                reviewRepository, commentRepository, sellerLeaderboard, new RatingStatistics(reviewRepository),
+                mock(AnalyticsRollupService.class), activityFeedService);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        category = categoryRepository.save(new Category("Books", "Textbooks and novels"));
+    }
+
+    @Test
+    void dashboardStatementCountDoesNotGrowWithData() {
+        addCompletedSales(1);
+        long fewRows = countDashboardStatements();
+
+        addCompletedSales(40);
+        long manyRows = countDashboardStatements();
+
+        assertEquals(DASHBOARD_STATEMENTS, fewRows);
+        assertEquals(DASHBOARD_STATEMENTS, manyRows);
+    }
+
+    @Test
+    void dashboardCountersMatchData() {
+        addCompletedSales(3);
+        User admin = newUser();
+        admin.setRole(UserRole.admin);
+        admin.setStatus(UserStatus.inactive);
+        userRepository.save(admin);
+        entityManager.flush();
+        entityManager.clear();
+
+        AnalyticsDTO analytics = analyticsService.getDashboardAnalytics();
+
+        // Each sale has a seller and a buyer
+        assertEquals(7, analytics.getTotalUsers());
+        assertEquals(6, analytics.getActiveUsers());
+        assertEquals(1, analytics.getInactiveUsers());
+        assertEquals(1, analytics.getAdminUsers());
+        assertEquals(6, analytics.getStudentUsers());
+        assertEquals(3, analytics.getTotalListings());
+        assertEquals(3, analytics.getSoldListings());
+        assertEquals(3, analytics.getTotalOrders());
+        assertEquals(3, analytics.getCompletedOrders());
+        assertEquals(0, new BigDecimal("150.00").compareTo(analytics.getTotalRevenue()));
+        assertEquals(3, analytics.getTotalReviews());
+        assertEquals(4.0, analytics.getAverageRating(), 0.001);
+        assertEquals(3, analytics.getTotalComments());
+    }
+
+    /**
+     * Load the dashboard with an empty persistence context and count the statements it prepares
+     * @return number of prepared statements
+     */
+    private long countDashboardStatements() {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        analyticsService.getDashboardAnalytics();
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * Add sold listings, each with a completed order, a 4-star review and a comment
+     * @param count number of sales
+     */
+    private void addCompletedSales(int count) {
+        for (int i = 0; i < count; i++) {
+            User seller = userRepository.save(newUser());
+            User buyer = userRepository.save(newUser());
+
+            Listing listing = new Listing(seller, category, "Listing " + sequence, "For the query count test",
+                    ListingCondition.USED, ListingType.SELL, new BigDecimal("50.00"));
+            listing.setStatus(ListingStatus.SOLD);
+            listingRepository.save(listing);
+
+            Order order = new Order(listing, buyer, new BigDecimal("50.00"));
+            order.setStatus(OrderStatus.COMPLETED);
+            order.setFinalPrice(new BigDecimal("50.00"));
+            order.setConfirmedAt(LocalDateTime.now());
+            order.setCompletedAt(LocalDateTime.now());
+            orderRepository.save(order);
+
+            reviewRepository.save(new Review(order, 4, "Good"));
+            commentRepository.save(new Comment(listing, buyer, "Is this still available?"));
+        }
+    }
+
+    private User newUser() {
+        sequence++;
+        return new User("User " + sequence, "user" + sequence + "@vinuni.edu.vn", "hash");
+    }
+}
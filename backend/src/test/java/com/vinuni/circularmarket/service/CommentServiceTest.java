@@ -0,0 +1,153 @@
+package com.vinuni.circularmarket.service;
+
+import com.vinuni.circularmarket.config.DatabaseConfig;
+import com.vinuni.circularmarket.dto.CommentDTO;
+import com.vinuni.circularmarket.model.*;
+import com.vinuni.circularmarket.repository.CommentRepository;
+import com.vinuni.circularmarket.repository.CategoryRepository;
+import com.vinuni.circularmarket.repository.ListingRepository;
+import com.vinuni.circularmarket.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(DatabaseConfig.class)
+class CommentServiceTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ListingRepository listingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private CommentService commentService;
+    private User user;
+    private Listing listing;
+
+    @BeforeEach
+    void setUp() {
+        commentService = new CommentService(commentRepository, listingRepository, userRepository,
+                mock(ApplicationEventPublisher.class), mock(AuditLogService.class));
+
+        user = userRepository.save(new User("Commenter", "commenter@vinuni.edu.vn", "hash"));
+        Category category = categoryRepository.save(new Category("Books", null));
+        listing = listingRepository.save(new Listing(user, category, "Calculus textbook", null,
+                ListingCondition.USED, ListingType.SELL, new BigDecimal("10.00")));
+    }
+
+    @Test
+    void threeLevelThreadIsNested() {
+        Comment root = comment("root", null);
+        Comment reply = comment("reply", root);
+        Comment nested = comment("reply to reply", reply);
+        Comment second = comment("second reply", root);
+        Comment other = comment("other thread", null);
+        entityManager.clear();
+
+        List<CommentDTO> roots = commentService.getCommentsByListingId(listing.getListingId());
+
+        assertEquals(List.of(root.getCommentId(), other.getCommentId()), ids(roots));
+        assertEquals(List.of(reply.getCommentId(), second.getCommentId()), ids(roots.get(0).getReplies()));
+        assertEquals(List.of(nested.getCommentId()), ids(roots.get(0).getReplies().get(0).getReplies()));
+        assertEquals(List.of(), ids(roots.get(0).getReplies().get(1).getReplies()));
+        assertEquals(List.of(), ids(roots.get(1).getReplies()));
+    }
+
+    @Test
+    void repliesToDeletedCommentBecomeTopLevel() {
+        Comment root = comment("root", null);
+        Comment reply = comment("reply", root);
+        Comment nested = comment("reply to reply", reply);
+        // A plain row delete, as made outside the service: fk_comment_parent sets the replies' parent to NULL
+        entityManager.createQuery("DELETE FROM Comment c WHERE c.commentId = :id")
+                .setParameter("id", root.getCommentId())
+                .executeUpdate();
+        entityManager.clear();
+
+        List<CommentDTO> roots = commentService.getCommentsByListingId(listing.getListingId());
+
+        assertEquals(List.of(reply.getCommentId()), ids(roots));
+        assertNull(roots.get(0).getParentId());
+        assertEquals(List.of(nested.getCommentId()), ids(roots.get(0).getReplies()));
+    }
+
+    @Test
+    void adminDeleteRemovesRepliesAtEveryDepth() {
+        Comment root = comment("root", null);
+        Comment reply = comment("reply", root);
+        comment("reply to reply", reply);
+        Comment other = comment("other thread", null);
+        listingRepository.syncCommentCount(listing.getListingId());
+
+        commentService.deleteCommentAsAdmin(root.getCommentId());
+
+        assertEquals(List.of(other.getCommentId()), remainingIds());
+        assertEquals(1, commentCount());
+    }
+
+    @Test
+    void adminDeleteOfReplyKeepsAncestors() {
+        Comment root = comment("root", null);
+        Comment reply = comment("reply", root);
+        comment("reply to reply", reply);
+        listingRepository.syncCommentCount(listing.getListingId());
+
+        commentService.adminDeleteComment(reply.getCommentId());
+
+        assertEquals(List.of(root.getCommentId()), remainingIds());
+        assertEquals(1, commentCount());
+    }
+
+    @Test
+    void adminDeleteOfMissingCommentFails() {
+        assertThrows(IllegalArgumentException.class, () -> commentService.deleteCommentAsAdmin(999L));
+    }
+
+    private Comment comment(String content, Comment parent) {
+        Comment comment = parent == null
+                ? new Comment(listing, user, content)
+                : new Comment(listing, user, content, parent);
+        Comment saved = commentRepository.save(comment);
+        entityManager.flush();
+        return saved;
+    }
+
+    private static List<Long> ids(List<CommentDTO> comments) {
+        return comments.stream().map(CommentDTO::getCommentId).collect(Collectors.toList());
+    }
+
+    private List<Long> remainingIds() {
+        entityManager.clear();
+        return commentRepository.findAll().stream().map(Comment::getCommentId).sorted().collect(Collectors.toList());
+    }
+
+    private int commentCount() {
+        entityManager.clear();
+        return listingRepository.findById(listing.getListingId()).orElseThrow().getCommentCount();
+    }
+}
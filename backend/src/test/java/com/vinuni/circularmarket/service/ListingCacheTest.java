@@ -0,0 +1,64 @@
+package com.vinuni.circularmarket.service;
+
+import com.vinuni.circularmarket.dto.ListingDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * A cached listing must not be sent with a validator computed after it was loaded
+ * (e.g. after a write on another instance, which evicts nothing here).
+ */
+class ListingCacheTest {
+
+    private ListingCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ListingCache(100, 60, 100, 30, 10, 300);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void sameValidatorIsServedFromCache() {
+        assertEquals("v1", title(cache.getListing(1L, "\"a\"", () -> load("v1"))));
+        assertEquals("v1", title(cache.getListing(1L, "\"a\"", () -> load("v2"))));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void movedValidatorReloadsAndReplacesEntry() {
+        cache.getListing(1L, "\"a\"", () -> load("v1"));
+
+        assertEquals("v2", title(cache.getListing(1L, "\"b\"", () -> load("v2"))));
+        assertEquals("v2", title(cache.getListing(1L, "\"b\"", () -> load("v3"))));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void requestWithoutValidatorAcceptsAnyEntry() {
+        cache.getListing(1L, "\"a\"", () -> load("v1"));
+
+        assertEquals("v1", title(cache.getListing(1L, null, () -> load("v2"))));
+        assertEquals(1, loads.get());
+    }
+
+    private Optional<ListingDTO> load(String title) {
+        loads.incrementAndGet();
+        ListingDTO dto = new ListingDTO();
+        dto.setListingId(1L);
+        dto.setTitle(title);
+        return Optional.of(dto);
+    }
+
+    private static String title(Optional<ListingDTO> listing) {
+        return listing.map(ListingDTO::getTitle).orElse(null);
+    }
+}
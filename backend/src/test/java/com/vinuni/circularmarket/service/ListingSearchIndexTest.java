@@ -0,0 +1,218 @@
+package com.vinuni.circularmarket.service;
+
+import com.vinuni.circularmarket.model.Category;
+import com.vinuni.circularmarket.model.Listing;
+import com.vinuni.circularmarket.model.ListingCondition;
+import com.vinuni.circularmarket.model.ListingStatus;
+import com.vinuni.circularmarket.model.ListingType;
+import com.vinuni.circularmarket.repository.ListingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * The search index is fed through its event listeners, exactly as it is after commit in the application.
+ */
+class ListingSearchIndexTest {
+
+    private static final PageRequest FIRST_PAGE = PageRequest.of(0, 20);
+
+    private ListingSearchIndex index;
+    private Category furniture;
+    private Category electronics;
+
+    @BeforeEach
+    void setUp() {
+        index = new ListingSearchIndex(mock(ListingRepository.class));
+        ReflectionTestUtils.setField(index, "enabled", true);
+        furniture = category(1L, "Furniture");
+        electronics = category(2L, "Electronics");
+    }
+
+    @Test
+    void postingListStaysSortedAndDuplicateFree() {
+        ListingSearchIndex.IntPostingList list = new ListingSearchIndex.IntPostingList();
+        for (int id : new int[] {5, 1, 9, 3, 5, 1}) {
+            list.add(id);
+        }
+
+        assertArrayEquals(new int[] {1, 3, 5, 9}, toArray(list));
+        assertTrue(list.contains(3));
+        assertFalse(list.contains(4));
+    }
+
+    @Test
+    void postingListShrinksAfterMostIdsAreRemoved() {
+        ListingSearchIndex.IntPostingList list = new ListingSearchIndex.IntPostingList();
+        for (int id = 1; id <= 200; id++) {
+            list.add(id);
+        }
+        int grownCapacity = capacity(list);
+
+        for (int id = 1; id <= 180; id++) {
+            list.remove(id);
+        }
+        list.remove(1000);
+
+        assertEquals(20, list.size());
+        assertTrue(capacity(list) < grownCapacity);
+        assertEquals(181, list.get(0));
+        assertEquals(200, list.get(19));
+    }
+
+    @Test
+    void unionRemovesDuplicates() {
+        ListingSearchIndex.IntPostingList first = postings(1, 4, 7);
+        ListingSearchIndex.IntPostingList second = postings(2, 4, 8);
+        ListingSearchIndex.IntPostingList third = postings(7, 8, 9);
+
+        ListingSearchIndex.IntPostingList union = ListingSearchIndex.IntPostingList.union(List.of(first, second, third));
+
+        assertArrayEquals(new int[] {1, 2, 4, 7, 8, 9}, toArray(union));
+        assertEquals(ListingSearchIndex.IntPostingList.EMPTY, ListingSearchIndex.IntPostingList.union(List.of()));
+        assertEquals(first, ListingSearchIndex.IntPostingList.union(List.of(first)));
+    }
+
+    @Test
+    void onlyLastWordMatchesAsPrefix() {
+        index(1L, "Desk lamp", furniture);
+        index(2L, "Desks lamp", furniture);
+        index(3L, "Desk lampshade", furniture);
+
+        assertEquals(List.of(3L, 1L), search("desk lamp"));
+        assertEquals(List.of(3L, 1L), search("desk la"));
+        assertEquals(List.of(2L, 1L), search("lamp desk"));
+    }
+
+    @Test
+    void categoryNameMatchesListingsInThatCategory() {
+        index(1L, "Phone charger", electronics);
+        index(2L, "Study desk", furniture);
+
+        assertEquals(List.of(1L), search("electronics"));
+        assertEquals(List.of(1L), search("charger electr"));
+        assertEquals(List.of(2L), search("furn"));
+    }
+
+    @Test
+    void categoryRenameAppliesWithoutListingChange() {
+        index(1L, "Phone charger", electronics);
+
+        electronics.setName("Gadgets");
+        index.onCategoryChanged(CategoryChangedEvent.saved(electronics));
+
+        assertEquals(List.of(1L), search("gadgets"));
+        assertEquals(List.of(), search("electronics"));
+
+        // A listing saved later must not bring the old name back
+        index.onListingChanged(ListingChangedEvent.saved(listing(2L, "USB cable", category(2L, "Electronics"))));
+        assertEquals(List.of(2L, 1L), search("gadgets"));
+        assertEquals(List.of(), search("electronics"));
+    }
+
+    @Test
+    void deletedCategoryNameIsDropped() {
+        Category empty = category(3L, "Sports");
+        index.onCategoryChanged(CategoryChangedEvent.saved(empty));
+        index.onCategoryChanged(CategoryChangedEvent.deleted(empty));
+
+        assertTrue(((Map<?, ?>) ReflectionTestUtils.getField(index, "categoryTermIndex")).isEmpty());
+    }
+
+    @Test
+    void pagesWalkBackwardsFromNewest() {
+        for (long id = 1; id <= 5; id++) {
+            index(id, "Textbook " + id, furniture);
+        }
+
+        Page<Long> first = index.search("textbook", null, null, null, null, null, PageRequest.of(0, 2));
+        Page<Long> second = index.search("textbook", null, null, null, null, null, PageRequest.of(1, 2));
+        Page<Long> last = index.search("textbook", null, null, null, null, null, PageRequest.of(2, 2));
+
+        assertEquals(List.of(5L, 4L), first.getContent());
+        assertEquals(List.of(3L, 2L), second.getContent());
+        assertEquals(List.of(1L), last.getContent());
+        assertEquals(5, first.getTotalElements());
+    }
+
+    @Test
+    void filtersIntersectWithText() {
+        index(1L, "Desk lamp", furniture);
+        Listing sold = listing(2L, "Desk chair", furniture);
+        sold.setStatus(ListingStatus.SOLD);
+        index.onListingChanged(ListingChangedEvent.saved(sold));
+
+        Page<Long> available = index.search("desk", ListingStatus.AVAILABLE, 1L, null, null, null, FIRST_PAGE);
+        Page<Long> cheap = index.search(null, null, null, ListingCondition.USED, null, new BigDecimal("5.00"), FIRST_PAGE);
+
+        assertEquals(List.of(1L), available.getContent());
+        assertEquals(List.of(), cheap.getContent());
+        assertThrows(IllegalArgumentException.class,
+                () -> index.search(" ", null, null, null, null, null, FIRST_PAGE));
+    }
+
+    @Test
+    void deletedListingIsRemovedFromEveryPosting() {
+        Listing listing = listing(1L, "Desk lamp", furniture);
+        index.onListingChanged(ListingChangedEvent.saved(listing));
+        index.onListingChanged(ListingChangedEvent.deleted(listing));
+
+        assertEquals(0, index.size());
+        assertEquals(0, index.termCount());
+        assertEquals(List.of(), search("desk"));
+    }
+
+    private List<Long> search(String text) {
+        return index.search(text, null, null, null, null, null, FIRST_PAGE).getContent();
+    }
+
+    private void index(Long listingId, String title, Category category) {
+        index.onListingChanged(ListingChangedEvent.saved(listing(listingId, title, category)));
+    }
+
+    private static Listing listing(Long listingId, String title, Category category) {
+        Listing listing = new Listing(null, category, title, null, ListingCondition.USED, ListingType.SELL,
+                new BigDecimal("10.00"));
+        listing.setListingId(listingId);
+        return listing;
+    }
+
+    private static Category category(Long categoryId, String name) {
+        Category category = new Category(name, null);
+        category.setCategoryId(categoryId);
+        return category;
+    }
+
+    private static ListingSearchIndex.IntPostingList postings(int... ids) {
+        ListingSearchIndex.IntPostingList list = new ListingSearchIndex.IntPostingList();
+        for (int id : ids) {
+            list.add(id);
+        }
+        return list;
+    }
+
+    private static int[] toArray(ListingSearchIndex.IntPostingList list) {
+        int[] ids = new int[list.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = list.get(i);
+        }
+        return ids;
+    }
+
+    private static int capacity(ListingSearchIndex.IntPostingList list) {
+        return ((int[]) ReflectionTestUtils.getField(list, "ids")).length;
+    }
+}
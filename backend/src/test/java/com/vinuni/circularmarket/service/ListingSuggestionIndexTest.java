@@ -0,0 +1,128 @@
+package com.vinuni.circularmarket.service;
+
+import com.vinuni.circularmarket.dto.SuggestionDTO;
+import com.vinuni.circularmarket.model.Category;
+import com.vinuni.circularmarket.model.Listing;
+import com.vinuni.circularmarket.model.ListingCondition;
+import com.vinuni.circularmarket.model.ListingStatus;
+import com.vinuni.circularmarket.model.ListingType;
+import com.vinuni.circularmarket.repository.CategoryRepository;
+import com.vinuni.circularmarket.repository.ListingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The suggestion index is fed through its event listeners, exactly as it is after commit in the application.
+ */
+class ListingSuggestionIndexTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2026, 1, 10, 12, 0);
+
+    private ListingRepository listingRepository;
+    private ListingSuggestionIndex index;
+    private Category books;
+
+    @BeforeEach
+    void setUp() {
+        listingRepository = mock(ListingRepository.class);
+        index = new ListingSuggestionIndex(listingRepository, mock(CategoryRepository.class));
+        ReflectionTestUtils.setField(index, "enabled", true);
+        books = category(1L, "Books");
+    }
+
+    @Test
+    void newEmptyCategoryIsSuggested() {
+        index.onCategoryChanged(CategoryChangedEvent.saved(category(2L, "Sports gear")));
+
+        assertEquals(List.of("Sports gear"), categoryNames("spo"));
+    }
+
+    @Test
+    void renamedCategoryIsSuggestedUnderNewName() {
+        index.onListingChanged(ListingChangedEvent.saved(listing(1L, "Calculus textbook", CREATED)));
+
+        books.setName("Textbooks");
+        index.onCategoryChanged(CategoryChangedEvent.saved(books));
+        // A listing saved later must not bring the old name back
+        index.onListingChanged(ListingChangedEvent.saved(listing(2L, "Physics notes", CREATED)));
+
+        assertEquals(List.of(), categoryNames("books"));
+        assertEquals(List.of("Textbooks"), categoryNames("text"));
+    }
+
+    @Test
+    void deletedCategoryIsNoLongerSuggested() {
+        Category empty = category(2L, "Sports gear");
+        index.onCategoryChanged(CategoryChangedEvent.saved(empty));
+        index.onCategoryChanged(CategoryChangedEvent.deleted(empty));
+
+        assertEquals(List.of(), categoryNames("spo"));
+    }
+
+    @Test
+    void commentActivityReRanksTitles() {
+        index.onListingChanged(ListingChangedEvent.saved(listing(1L, "Desk lamp", CREATED)));
+        index.onListingChanged(ListingChangedEvent.saved(listing(2L, "Desk chair", CREATED.plusDays(1))));
+        assertEquals(List.of(2L, 1L), titleIds("desk"));
+
+        when(listingRepository.findCommentCountByIdAndStatus(1L, ListingStatus.AVAILABLE))
+                .thenReturn(List.<Object[]>of(new Object[] {1L, 5}));
+        index.onListingCommentsChanged(new ListingCommentsChangedEvent(1L));
+
+        assertEquals(List.of(1L, 2L), titleIds("desk"));
+    }
+
+    @Test
+    void reconciliationReRanksAllTitles() {
+        index.onListingChanged(ListingChangedEvent.saved(listing(1L, "Desk lamp", CREATED)));
+        index.onListingChanged(ListingChangedEvent.saved(listing(2L, "Desk chair", CREATED.plusDays(1))));
+
+        when(listingRepository.findCommentCountsByStatus(ListingStatus.AVAILABLE))
+                .thenReturn(List.of(new Object[] {1L, 5}, new Object[] {2L, 0}));
+        index.onListingCommentsChanged(new ListingCommentsChangedEvent(null));
+
+        assertEquals(List.of(1L, 2L), titleIds("desk"));
+    }
+
+    @Test
+    void commentsOnUnsuggestedListingAreIgnored() {
+        index.onListingCommentsChanged(new ListingCommentsChangedEvent(7L));
+
+        verify(listingRepository, never()).findCommentCountByIdAndStatus(7L, ListingStatus.AVAILABLE);
+    }
+
+    private List<String> categoryNames(String prefix) {
+        return index.suggestCategories(prefix, 10).stream().map(SuggestionDTO::getText).collect(Collectors.toList());
+    }
+
+    private List<Long> titleIds(String prefix) {
+        return index.suggestTitles(prefix, 10).stream().map(SuggestionDTO::getId).collect(Collectors.toList());
+    }
+
+    private Listing listing(Long listingId, String title, LocalDateTime createdAt) {
+        Listing listing = new Listing(null, category(books.getCategoryId(), "Books"), title, null,
+                ListingCondition.USED, ListingType.SELL, new BigDecimal("10.00"));
+        listing.setListingId(listingId);
+        listing.setCreatedAt(createdAt);
+        listing.setCommentCount(0);
+        return listing;
+    }
+
+    private static Category category(Long categoryId, String name) {
+        Category category = new Category(name, null);
+        category.setCategoryId(categoryId);
+        return category;
+    }
+}
@@ -0,0 +1,80 @@
+package com.vinuni.circularmarket.service;
+
+import com.vinuni.circularmarket.dto.CreateOrderRequest;
+import com.vinuni.circularmarket.repository.ListingRepository;
+import com.vinuni.circularmarket.repository.OrderRepository;
+import com.vinuni.circularmarket.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A duplicate order caught by the uq_order_active_buyer unique key (placed by another instance) must be
+ * reported like one caught by the existence check, and other integrity errors must not be.
+ */
+class OrderServiceTest {
+
+    private OrderAdmission orderAdmission;
+    private OrderService orderService;
+
+    @BeforeEach
+    void setUp() {
+        orderAdmission = mock(OrderAdmission.class);
+        orderService = new OrderService(mock(OrderRepository.class), mock(ListingRepository.class),
+                mock(EntityManager.class), mock(OptimisticRetry.class), orderAdmission,
+                mock(PlatformTransactionManager.class), mock(UserRepository.class),
+                mock(ApplicationEventPublisher.class), mock(JdbcTemplate.class), "jpa");
+    }
+
+    @Test
+    void activeOrderKeyViolationIsDuplicateOrder() {
+        failInsert(violation("Order.uq_order_active_buyer", 1062));
+
+        assertThrows(DuplicateActiveOrderException.class, this::createOrder);
+    }
+
+    @Test
+    void duplicateKeyWithoutConstraintNameIsDuplicateOrder() {
+        failInsert(violation(null, 1062));
+
+        assertThrows(DuplicateActiveOrderException.class, this::createOrder);
+    }
+
+    @Test
+    void otherIntegrityViolationIsRethrown() {
+        DataIntegrityViolationException failure = new DataIntegrityViolationException("insert failed",
+                violation("fk_order_listing", 1452));
+        when(orderAdmission.admit(eq(1L), any())).thenThrow(failure);
+
+        assertSame(failure, assertThrows(DataIntegrityViolationException.class, this::createOrder));
+    }
+
+    private void failInsert(ConstraintViolationException cause) {
+        when(orderAdmission.admit(eq(1L), any()))
+                .thenThrow(new DataIntegrityViolationException("insert failed", cause));
+    }
+
+    private void createOrder() {
+        orderService.createOrder(2L, new CreateOrderRequest(1L, new BigDecimal("10.00")));
+    }
+
+    private static ConstraintViolationException violation(String constraintName, int errorCode) {
+        SQLException sqlException = new SQLException("constraint violated", "23000", errorCode);
+        return new ConstraintViolationException("could not execute statement", sqlException, constraintName);
+    }
+}
@@ -0,0 +1,93 @@
+package com.vinuni.circularmarket.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SuggestionTrieTest {
+
+    private SuggestionTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new SuggestionTrie();
+    }
+
+    @Test
+    void completesBestScoresFirst() {
+        trie.put(1L, "Desk lamp", List.of("desk lamp", "lamp"), 1.0);
+        trie.put(2L, "Desk chair", List.of("desk chair", "chair"), 3.0);
+        trie.put(3L, "Dentist kit", List.of("dentist kit", "kit"), 2.0);
+
+        assertEquals(List.of(2L, 3L, 1L), ids("de", 10));
+        assertEquals(List.of(2L, 1L), ids("desk", 10));
+        assertEquals(List.of(2L), ids("de", 1));
+        assertEquals(List.of(), ids("x", 10));
+        assertEquals(List.of(), ids("de", 0));
+    }
+
+    @Test
+    void entryReachableUnderSeveralKeysIsReturnedOnce() {
+        trie.put(1L, "Lamp lamp", List.of("lamp lamp", "lamp"), 1.0);
+
+        assertEquals(List.of(1L), ids("la", 10));
+    }
+
+    @Test
+    void putReplacesPreviousKeys() {
+        trie.put(1L, "Desk lamp", List.of("desk lamp", "lamp"), 1.0);
+        trie.put(1L, "Floor lamp", List.of("floor lamp", "lamp"), 1.0);
+
+        assertEquals(1, trie.size());
+        assertEquals(List.of(), ids("desk", 10));
+        assertEquals(List.of("Floor lamp"), texts("fl"));
+    }
+
+    @Test
+    void removePrunesAndRestoresRanking() {
+        trie.put(1L, "Desk lamp", List.of("desk lamp"), 1.0);
+        trie.put(2L, "Desk chair", List.of("desk chair"), 3.0);
+
+        trie.remove(2L);
+        trie.remove(99L);
+
+        assertFalse(trie.contains(2L));
+        assertEquals(List.of(1L), ids("desk", 10));
+        assertEquals(List.of(), ids("desk c", 10));
+    }
+
+    @Test
+    void rescoreChangesRankingOnly() {
+        trie.put(1L, "Desk lamp", List.of("desk lamp", "lamp"), 1.0);
+        trie.put(2L, "Desk chair", List.of("desk chair", "chair"), 3.0);
+
+        assertTrue(trie.rescore(1L, 5.0));
+        assertFalse(trie.rescore(99L, 5.0));
+
+        assertEquals(List.of(1L, 2L), ids("desk", 10));
+        assertEquals(List.of("Desk lamp"), texts("lamp"));
+    }
+
+    @Test
+    void clearEmptiesTheTrie() {
+        trie.put(1L, "Desk lamp", List.of("desk lamp"), 1.0);
+        trie.clear();
+
+        assertEquals(0, trie.size());
+        assertEquals(List.of(), ids("d", 10));
+    }
+
+    private List<Long> ids(String prefix, int limit) {
+        return trie.complete(prefix, limit).stream().map(SuggestionTrie.Entry::getId).collect(Collectors.toList());
+    }
+
+    private List<String> texts(String prefix) {
+        return trie.complete(prefix, 10).stream().map(SuggestionTrie.Entry::getText).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,125 @@
+import time
+import json
+import statistics
+import urllib.request
+import urllib.error
+
+# Running backend (see backend/src/main/resources/application.properties)
+BASE_URL = "http://localhost:8010"
+
+# Optional login for the comment/review endpoints (they require authentication);
+# leave EMAIL empty to only benchmark the public endpoints.
+EMAIL = ""
+PASSWORD = "your_password"
+
+LISTING_ID = 1
+CATEGORY_ID = 1
+ROUNDS = 200
+
+PUBLIC_ENDPOINTS = [
+    "/api/listings?page=1&size=12",
+    "/api/listings/filter?page=0&size=24",
+    f"/api/listings/{LISTING_ID}",
+    f"/api/listings/category/{CATEGORY_ID}?page=1",
+    "/api/categories",
+    "/api/categories/with-counts",
+    "/api/users/1",
+]
+
+AUTH_ENDPOINTS = [
+    f"/api/comments/listings/{LISTING_ID}",
+    f"/api/comments/listings/{LISTING_ID}/count",
+    f"/api/reviews/listings/{LISTING_ID}",
+]
+
+def login():
+    body = json.dumps({"email": EMAIL, "password": PASSWORD}).encode()
+    req = urllib.request.Request(BASE_URL + "/api/auth/login", data=body,
+                                 headers={"Content-Type": "application/json"})
+    with urllib.request.urlopen(req) as resp:
+        return json.loads(resp.read())["token"]
+
+def fetch(path, token=None, etag=None, last_modified=None):
+    headers = {"Accept": "application/json"}
+    if token:
+        headers["Authorization"] = f"Bearer {token}"
+    if etag:
+        headers["If-None-Match"] = etag
+    if last_modified:
+        headers["If-Modified-Since"] = last_modified
+
+    req = urllib.request.Request(BASE_URL + path, headers=headers)
+    t0 = time.perf_counter()
+    try:
+        with urllib.request.urlopen(req) as resp:
+            body = resp.read()
+            status, resp_headers = resp.status, resp.headers
+    except urllib.error.HTTPError as e:
+        body = e.read()
+        status, resp_headers = e.code, e.headers
+    t1 = time.perf_counter()
+    return status, len(body), resp_headers, (t1 - t0) * 1000.0  # ms
+
+def percentile(xs, p):
+    xs = sorted(xs)
+    k = int(round((p/100.0) * (len(xs)-1)))
+    return xs[k]
+
+def summarize(xs):
+    return {
+        "avg_ms": statistics.mean(xs),
+        "p95_ms": percentile(xs, 95),
+    }
+
+def bench(path, token=None):
+    status, _, headers, _ = fetch(path, token)
+    etag = headers.get("ETag")
+    last_modified = headers.get("Last-Modified")
+    if status != 200 or not etag:
+        print(f"{path:45s}  skipped (status={status}, etag={etag})")
+        return None
+
+    full_lat, full_bytes = [], 0
+    cond_lat, cond_bytes, not_modified = [], 0, 0
+    for _ in range(ROUNDS):
+        _, n, _, ms = fetch(path, token)
+        full_lat.append(ms)
+        full_bytes += n
+
+        status, n, _, ms = fetch(path, token, etag, last_modified)
+        cond_lat.append(ms)
+        cond_bytes += n
+        if status == 304:
+            not_modified += 1
+
+    f, c = summarize(full_lat), summarize(cond_lat)
+    saved = 100.0 * (1 - cond_bytes / full_bytes) if full_bytes else 0.0
+    print(f"{path:45s}  200: avg={f['avg_ms']:.2f}ms p95={f['p95_ms']:.2f}ms {full_bytes / ROUNDS:8.0f}B"
+          f"  |  conditional: avg={c['avg_ms']:.2f}ms p95={c['p95_ms']:.2f}ms {cond_bytes / ROUNDS:8.0f}B"
+          f"  304s={not_modified}/{ROUNDS}  bytes saved={saved:.1f}%")
+    return full_bytes, cond_bytes, full_lat, cond_lat
+
+def main():
+    endpoints = [(p, None) for p in PUBLIC_ENDPOINTS]
+    if EMAIL:
+        token = login()
+        endpoints += [(p, token) for p in AUTH_ENDPOINTS]
+
+    print("=== Conditional GET Benchmark (plain GET vs If-None-Match) ===")
+    totals = [0, 0, [], []]
+    for path, token in endpoints:
+        result = bench(path, token)
+        if result:
+            totals[0] += result[0]
+            totals[1] += result[1]
+            totals[2] += result[2]
+            totals[3] += result[3]
+
+    if totals[0]:
+        f, c = summarize(totals[2]), summarize(totals[3])
+        print(f"\nTOTAL  bytes: {totals[0]} -> {totals[1]} ({100.0 * (1 - totals[1] / totals[0]):.1f}% saved)"
+              f"  avg latency: {f['avg_ms']:.2f}ms -> {c['avg_ms']:.2f}ms"
+              f"  p95 latency: {f['p95_ms']:.2f}ms -> {c['p95_ms']:.2f}ms")
+
+if __name__ == "__main__":
+    main()
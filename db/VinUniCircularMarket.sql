@@ -153,4 +153,56 @@ CREATE TABLE `Comment` (
     FOREIGN KEY (parent_id) REFERENCES `Comment`(comment_id)
     ON UPDATE CASCADE
     ON DELETE SET NULL
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
\ No newline at end of file
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- 7. DailyStat (per-day analytics rollups, maintained by the backend)
+CREATE TABLE `DailyStat` (
+  daily_stat_id  BIGINT UNSIGNED NOT NULL AUTO_INCREMENT,
+  stat_date      DATE            NOT NULL,
+  metric         VARCHAR(32)     NOT NULL, -- registrations | orders | revenue
+  dimension      VARCHAR(32)     NOT NULL DEFAULT '', -- order status for metric 'orders'
+  stat_count     BIGINT          NOT NULL DEFAULT 0,
+  stat_amount    DECIMAL(14,2)   NOT NULL DEFAULT 0.00,
+
+  PRIMARY KEY (daily_stat_id),
+  UNIQUE KEY uq_daily_stat (metric, stat_date, dimension)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- 8. RollupWatermark (first day not yet rolled up, per rollup)
+CREATE TABLE `RollupWatermark` (
+  rollup_name    VARCHAR(64)     NOT NULL,
+  next_date      DATE            NOT NULL,
+  updated_at     DATETIME        NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+
+  PRIMARY KEY (rollup_name)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- 9. ActivityLog (append-only admin activity feed, written with the change it records)
+CREATE TABLE `ActivityLog` (
+  activity_id    BIGINT UNSIGNED NOT NULL AUTO_INCREMENT,
+  activity_type  VARCHAR(32)     NOT NULL, -- USER_REGISTERED | LISTING_CREATED | ORDER_<STATUS>
+  entity_id      BIGINT UNSIGNED NOT NULL,
+  actor_name     VARCHAR(100)    NULL,
+  description    VARCHAR(255)    NOT NULL,
+  details        VARCHAR(255)    NULL, -- JSON with the related IDs
+  occurred_at    DATETIME        NOT NULL,
+
+  PRIMARY KEY (activity_id),
+  KEY idx_activity_occurred (occurred_at, activity_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- 10. AuditLog (admin audit trail, batch-inserted by the backend's background writer)
+CREATE TABLE `AuditLog` (
+  audit_id       BIGINT UNSIGNED NOT NULL AUTO_INCREMENT,
+  occurred_at    DATETIME(3)     NOT NULL,
+  actor          VARCHAR(255)    NOT NULL, -- email of the authenticated user, or 'system'
+  action         VARCHAR(16)     NOT NULL, -- CREATE | UPDATE | DELETE
+  entity_type    VARCHAR(32)     NOT NULL, -- LISTING | USER | CATEGORY | COMMENT
+  entity_id      BIGINT UNSIGNED NULL,
+  details        VARCHAR(500)    NULL,
+
+  PRIMARY KEY (audit_id),
+  KEY idx_audit_occurred (occurred_at, audit_id),
+  KEY idx_audit_entity (entity_type, entity_id, occurred_at),
+  KEY idx_audit_actor (actor, occurred_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
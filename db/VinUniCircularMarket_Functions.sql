@@ -67,6 +67,51 @@ ON `Order`(buyer_id, order_date);
 CREATE INDEX idx_order_status_completed
 ON `Order`(status, completed_at);
 
+-- 2.4 Orders: at most one active (requested/confirmed) order per buyer and listing, across backend instances.
+--     active_buyer_id is buyer_id while the order is active and NULL otherwise; NULLs never collide in a
+--     unique key, so finished orders are not constrained. The ALTER fails as a whole if existing data
+--     already breaks the rule; list the offending orders with
+--       SELECT listing_id, buyer_id, GROUP_CONCAT(order_id) FROM `Order`
+--       WHERE status IN ('requested','confirmed') GROUP BY listing_id, buyer_id HAVING COUNT(*) > 1;
+--     and cancel all but one of each group before running it again.
+ALTER TABLE `Order`
+ADD COLUMN active_buyer_id BIGINT UNSIGNED
+    AS (IF(status IN ('requested','confirmed'), buyer_id, NULL)) VIRTUAL,
+ADD UNIQUE KEY uq_order_active_buyer (listing_id, active_buyer_id);
+
+-- Column migrations (2.5 onward) go through this helper: ddl-auto=update may already have added a column on
+-- an existing database, and ALTER TABLE ... ADD COLUMN has no IF NOT EXISTS in MySQL.
+DELIMITER $$
+
+DROP PROCEDURE IF EXISTS sp_add_column_if_missing$$
+CREATE PROCEDURE sp_add_column_if_missing(IN p_table VARCHAR(64), IN p_column VARCHAR(64),
+                                          IN p_definition VARCHAR(255))
+BEGIN
+  IF NOT EXISTS (SELECT 1 FROM information_schema.COLUMNS
+                 WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = p_table AND COLUMN_NAME = p_column) THEN
+    SET @ddl = CONCAT('ALTER TABLE `', p_table, '` ADD COLUMN `', p_column, '` ', p_definition);
+    PREPARE stmt FROM @ddl;
+    EXECUTE stmt;
+    DEALLOCATE PREPARE stmt;
+  END IF;
+END$$
+
+DELIMITER ;
+
+-- 2.5 Listing comment counts: denormalized COUNT(*) of each listing's comments, kept current by CommentService.
+--     The backfill recounts every listing, so it also repairs a column that ddl-auto created with all zeros;
+--     updated_at is kept as it was because no listing content changes.
+CALL sp_add_column_if_missing('Listing', 'comment_count', 'INT UNSIGNED NOT NULL DEFAULT 0 AFTER status');
+
+UPDATE `Listing` l
+SET l.comment_count = (SELECT COUNT(*) FROM `Comment` c WHERE c.listing_id = l.listing_id),
+    l.updated_at = l.updated_at;
+
+-- 2.6 Optimistic locking: Listing and Order versions, checked and bumped by JPA (@Version) on every write
+--     and bumped by the order procedures in section 3, which therefore need these columns. Existing rows start at 0.
+CALL sp_add_column_if_missing('Listing', 'version', 'BIGINT UNSIGNED NOT NULL DEFAULT 0 AFTER updated_at');
+CALL sp_add_column_if_missing('Order', 'version', 'BIGINT UNSIGNED NOT NULL DEFAULT 0 AFTER returned_at');
+
 -- 3) Stored Procedures
 -- 3.1. Refresh seller ratings: Update a seller's average rating and review count based on completed transactions
 DELIMITER $$
@@ -94,18 +139,29 @@ END$$
 
 DELIMITER ;
 
+-- Order transitions (3.2 - 3.5) come in two parts:
+--   sp_<action>_order_in_tx  locks, checks and updates without transaction control, so it joins the caller's
+--                            transaction (the backend calls it inside its own, together with its event and
+--                            activity-log writes)
+--   sp_<action>_order        standalone wrapper: runs the body in its own transaction, rolls back and re-raises
+--                            on any error
+-- Failures are SIGNAL SQLSTATE '45000' with one MYSQL_ERRNO per cause (JDBC SQLException.getErrorCode()):
+--   50001 order not found
+--   50002 order is not in a status this transition starts from
+--   50003 listing is not available
+--   50004 another order is already confirmed for the listing
+
 -- 3.2. Confirm order and prevent double-selling: Confirms a pending order and updates listing status atomically to prevent race conditions
 DELIMITER $$
 
-CREATE PROCEDURE sp_confirm_order(IN p_order_id BIGINT UNSIGNED)
+DROP PROCEDURE IF EXISTS sp_confirm_order_in_tx$$
+CREATE PROCEDURE sp_confirm_order_in_tx(IN p_order_id BIGINT UNSIGNED)
 BEGIN
   DECLARE v_listing_id BIGINT UNSIGNED;
   DECLARE v_listing_type ENUM('sell','lend');
   DECLARE v_listing_status ENUM('available','reserved','sold','borrowed');
   DECLARE v_conflicts INT DEFAULT 0;
 
-  START TRANSACTION;
-
   -- Lock the order row and get listing_id
   SELECT o.listing_id INTO v_listing_id
   FROM `Order` o
@@ -113,8 +169,7 @@ BEGIN
   FOR UPDATE;
 
   IF v_listing_id IS NULL THEN
-    ROLLBACK;
-    SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'Order not found.';
+    SIGNAL SQLSTATE '45000' SET MYSQL_ERRNO = 50001, MESSAGE_TEXT = 'Order not found.';
   END IF;
 
   -- Lock the listing row (this is the key lock to prevent race)
@@ -124,44 +179,58 @@ BEGIN
   WHERE l.listing_id = v_listing_id
   FOR UPDATE;
 
-  -- Listing must be available to confirm
-  IF v_listing_status <> 'available' THEN
-    ROLLBACK;
-    SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'Listing is not available.';
+  -- Listing must still be open (available, or reserved by the seller) to confirm
+  IF v_listing_status NOT IN ('available','reserved') THEN
+    SIGNAL SQLSTATE '45000' SET MYSQL_ERRNO = 50003, MESSAGE_TEXT = 'Listing is not available.';
   END IF;
 
-  -- Conflicts: another order still competing/active for the same listing
+  -- Conflicts: another order already confirmed for the same listing (other requests may stay open)
   SELECT COUNT(*) INTO v_conflicts
   FROM `Order` o
   WHERE o.listing_id = v_listing_id
     AND o.order_id <> p_order_id
-    AND o.status IN ('requested','confirmed');
+    AND o.status = 'confirmed';
 
   IF v_conflicts > 0 THEN
-    ROLLBACK;
-    SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'Conflict: another active order exists for this listing.';
+    SIGNAL SQLSTATE '45000' SET MYSQL_ERRNO = 50004,
+      MESSAGE_TEXT = 'Conflict: another order is already confirmed for this listing.';
   END IF;
 
-  -- Confirm this order (only from requested)
+  -- Confirm this order (only from requested); the offer price becomes the final price
   UPDATE `Order`
-  SET status = 'confirmed'
+  SET status = 'confirmed',
+      confirmed_at = NOW(),
+      final_price = offer_price,
+      borrow_due_date = IF(v_listing_type = 'lend', NOW() + INTERVAL 7 DAY, borrow_due_date),
+      version = version + 1
   WHERE order_id = p_order_id
     AND status = 'requested';
 
   IF ROW_COUNT() = 0 THEN
-    ROLLBACK;
-    SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'Order cannot be confirmed (must be requested).';
+    SIGNAL SQLSTATE '45000' SET MYSQL_ERRNO = 50002, MESSAGE_TEXT = 'Order cannot be confirmed (must be requested).';
   END IF;
 
   -- Update listing status atomically
   IF v_listing_type = 'sell' THEN
-    UPDATE Listing SET status = 'reserved'
+    UPDATE Listing SET status = 'sold', version = version + 1
     WHERE listing_id = v_listing_id;
   ELSE
-    UPDATE Listing SET status = 'borrowed'
+    UPDATE Listing SET status = 'borrowed', version = version + 1
     WHERE listing_id = v_listing_id;
   END IF;
+END$$
 
+DROP PROCEDURE IF EXISTS sp_confirm_order$$
+CREATE PROCEDURE sp_confirm_order(IN p_order_id BIGINT UNSIGNED)
+BEGIN
+  DECLARE EXIT HANDLER FOR SQLEXCEPTION
+  BEGIN
+    ROLLBACK;
+    RESIGNAL;
+  END;
+
+  START TRANSACTION;
+  CALL sp_confirm_order_in_tx(p_order_id);
   COMMIT;
 END$$
 
@@ -170,60 +239,101 @@ DELIMITER ;
 -- 3.3. Reject requested order: Rejects a requested order, preventing it from being confirmed
 DELIMITER $$
 
-CREATE PROCEDURE sp_reject_order(IN p_order_id BIGINT UNSIGNED)
+DROP PROCEDURE IF EXISTS sp_reject_order_in_tx$$
+CREATE PROCEDURE sp_reject_order_in_tx(IN p_order_id BIGINT UNSIGNED)
 BEGIN
-  START TRANSACTION;
-
   UPDATE `Order`
-  SET status = 'rejected'
+  SET status = 'rejected', version = version + 1
   WHERE order_id = p_order_id
     AND status = 'requested';
 
   IF ROW_COUNT() = 0 THEN
-    ROLLBACK;
-    SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'Order cannot be rejected (must be requested).';
+    IF NOT EXISTS (SELECT 1 FROM `Order` WHERE order_id = p_order_id) THEN
+      SIGNAL SQLSTATE '45000' SET MYSQL_ERRNO = 50001, MESSAGE_TEXT = 'Order not found.';
+    END IF;
+    SIGNAL SQLSTATE '45000' SET MYSQL_ERRNO = 50002, MESSAGE_TEXT = 'Order cannot be rejected (must be requested).';
   END IF;
+END$$
 
+DROP PROCEDURE IF EXISTS sp_reject_order$$
+CREATE PROCEDURE sp_reject_order(IN p_order_id BIGINT UNSIGNED)
+BEGIN
+  DECLARE EXIT HANDLER FOR SQLEXCEPTION
+  BEGIN
+    ROLLBACK;
+    RESIGNAL;
+  END;
+
+  START TRANSACTION;
+  CALL sp_reject_order_in_tx(p_order_id);
   COMMIT;
 END$$
 
 DELIMITER ;
 
--- 3.4. Cancel requested order: Cancels a requested order before it gets confirmed
+-- 3.4. Cancel order: Cancels a requested or confirmed order; cancelling a confirmed order releases its listing
 DELIMITER $$
 
-CREATE PROCEDURE sp_cancel_order(IN p_order_id BIGINT UNSIGNED)
+DROP PROCEDURE IF EXISTS sp_cancel_order_in_tx$$
+CREATE PROCEDURE sp_cancel_order_in_tx(IN p_order_id BIGINT UNSIGNED)
 BEGIN
-  START TRANSACTION;
+  DECLARE v_listing_id BIGINT UNSIGNED;
+  DECLARE v_status ENUM('requested','confirmed','rejected','cancelled','completed');
+
+  -- Lock the order row and remember whether it was holding the listing
+  SELECT o.listing_id, o.status INTO v_listing_id, v_status
+  FROM `Order` o
+  WHERE o.order_id = p_order_id
+  FOR UPDATE;
+
+  IF v_listing_id IS NULL THEN
+    SIGNAL SQLSTATE '45000' SET MYSQL_ERRNO = 50001, MESSAGE_TEXT = 'Order not found.';
+  END IF;
 
   UPDATE `Order`
-  SET status = 'cancelled'
+  SET status = 'cancelled', version = version + 1
   WHERE order_id = p_order_id
-    AND status IN ('requested');  -- thường chỉ cho cancel khi chưa confirmed
+    AND status IN ('requested','confirmed');
 
   IF ROW_COUNT() = 0 THEN
-    ROLLBACK;
-    SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'Order cannot be cancelled (must be requested).';
+    SIGNAL SQLSTATE '45000' SET MYSQL_ERRNO = 50002,
+      MESSAGE_TEXT = 'Order cannot be cancelled (must be requested or confirmed).';
   END IF;
 
+  -- A confirmed order took the listing: make it available again
+  IF v_status = 'confirmed' THEN
+    UPDATE Listing SET status = 'available', version = version + 1
+    WHERE listing_id = v_listing_id
+      AND status IN ('sold','borrowed');
+  END IF;
+END$$
+
+DROP PROCEDURE IF EXISTS sp_cancel_order$$
+CREATE PROCEDURE sp_cancel_order(IN p_order_id BIGINT UNSIGNED)
+BEGIN
+  DECLARE EXIT HANDLER FOR SQLEXCEPTION
+  BEGIN
+    ROLLBACK;
+    RESIGNAL;
+  END;
+
+  START TRANSACTION;
+  CALL sp_cancel_order_in_tx(p_order_id);
   COMMIT;
 END$$
 
 DELIMITER ;
 
 -- 3.5. Complete confirmed order: Marks a confirmed order as completed and handles listing status transitions
-DROP PROCEDURE IF EXISTS sp_complete_order;
-
 DELIMITER $$
 
-CREATE PROCEDURE sp_complete_order(IN p_order_id BIGINT UNSIGNED)
+DROP PROCEDURE IF EXISTS sp_complete_order_in_tx$$
+CREATE PROCEDURE sp_complete_order_in_tx(IN p_order_id BIGINT UNSIGNED)
 BEGIN
   DECLARE v_listing_id BIGINT UNSIGNED;
   DECLARE v_listing_type ENUM('sell','lend');
   DECLARE v_listing_status ENUM('available','reserved','sold','borrowed');
 
-  START TRANSACTION;
-
   -- Lock order and get listing_id
   SELECT o.listing_id INTO v_listing_id
   FROM `Order` o
@@ -231,8 +341,7 @@ BEGIN
   FOR UPDATE;
 
   IF v_listing_id IS NULL THEN
-    ROLLBACK;
-    SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'Order not found.';
+    SIGNAL SQLSTATE '45000' SET MYSQL_ERRNO = 50001, MESSAGE_TEXT = 'Order not found.';
   END IF;
 
   -- Lock listing
@@ -244,36 +353,43 @@ BEGIN
 
   -- Must be confirmed to complete
   UPDATE `Order`
-  SET status = 'completed'
+  SET status = 'completed',
+      completed_at = NOW(),
+      returned_at = IF(v_listing_type = 'lend', NOW(), returned_at),
+      version = version + 1
   WHERE order_id = p_order_id
     AND status = 'confirmed';
 
   IF ROW_COUNT() = 0 THEN
-    ROLLBACK;
-    SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'Order cannot be completed (must be confirmed).';
+    SIGNAL SQLSTATE '45000' SET MYSQL_ERRNO = 50002, MESSAGE_TEXT = 'Order cannot be completed (must be confirmed).';
   END IF;
 
   IF v_listing_type = 'sell' THEN
-    -- sell: reserved -> sold
-    IF v_listing_status <> 'reserved' THEN
-      ROLLBACK;
-      SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'Listing status mismatch for sell completion.';
+    -- sell: the listing ends up sold (confirmation normally marked it sold already)
+    IF v_listing_status IN ('available','reserved') THEN
+      UPDATE Listing SET status = 'sold', version = version + 1
+      WHERE listing_id = v_listing_id;
     END IF;
 
-    UPDATE Listing SET status = 'sold'
-    WHERE listing_id = v_listing_id;
-
   ELSE
-    -- lend: record return time, then release listing
-    UPDATE `Order`
-    SET returned_at = NOW(),
-      completed_at = NOW()
-    WHERE order_id = p_order_id;
-
-    UPDATE `Listing` SET status = 'available'
-    WHERE listing_id = v_listing_id;
+    -- lend: return recorded above, release the borrowed listing
+    UPDATE Listing SET status = 'available', version = version + 1
+    WHERE listing_id = v_listing_id
+      AND status = 'borrowed';
   END IF;
+END$$
+
+DROP PROCEDURE IF EXISTS sp_complete_order$$
+CREATE PROCEDURE sp_complete_order(IN p_order_id BIGINT UNSIGNED)
+BEGIN
+  DECLARE EXIT HANDLER FOR SQLEXCEPTION
+  BEGIN
+    ROLLBACK;
+    RESIGNAL;
+  END;
 
+  START TRANSACTION;
+  CALL sp_complete_order_in_tx(p_order_id);
   COMMIT;
 END$$
 
@@ -0,0 +1,149 @@
+import time
+import json
+import statistics
+import threading
+import urllib.request
+import urllib.error
+from collections import Counter, defaultdict
+from concurrent.futures import ThreadPoolExecutor
+
+# Running backend (see backend/src/main/resources/application.properties)
+BASE_URL = "http://localhost:8010"
+
+# Existing account that posts the hot listing (e.g. a cheap laptop in the Laptops category)
+SELLER_EMAIL = ""
+SELLER_PASSWORD = "your_password"
+CATEGORY_ID = 1
+
+# Buyer accounts are registered per run; every buyer fires REQUESTS_PER_BUYER orders at once,
+# so duplicates have to be caught by the admission layer and the duplicate check.
+BUYERS = 40
+REQUESTS_PER_BUYER = 3
+BUYER_PASSWORD = "stress123"
+
+RUN_ID = str(int(time.time()))
+
+def call(method, path, body=None, token=None):
+    headers = {"Accept": "application/json"}
+    data = None
+    if body is not None:
+        data = json.dumps(body).encode()
+        headers["Content-Type"] = "application/json"
+    if token:
+        headers["Authorization"] = f"Bearer {token}"
+
+    req = urllib.request.Request(BASE_URL + path, data=data, headers=headers, method=method)
+    t0 = time.perf_counter()
+    try:
+        with urllib.request.urlopen(req) as resp:
+            status, raw = resp.status, resp.read()
+    except urllib.error.HTTPError as e:
+        status, raw = e.code, e.read()
+    t1 = time.perf_counter()
+    try:
+        payload = json.loads(raw) if raw else None
+    except ValueError:
+        payload = None
+    return status, payload, (t1 - t0) * 1000.0  # ms
+
+def login(email, password):
+    status, payload, _ = call("POST", "/api/auth/login", {"email": email, "password": password})
+    if status != 200:
+        raise RuntimeError(f"login failed for {email}: {status} {payload}")
+    return payload["token"]
+
+def register_buyer(i):
+    email = f"stress.{RUN_ID}.{i}@vinuni.edu.vn"
+    status, payload, _ = call("POST", "/api/auth/register", {
+        "fullName": f"Stress Buyer {i}",
+        "email": email,
+        "password": BUYER_PASSWORD,
+        "confirmPassword": BUYER_PASSWORD,
+    })
+    if status in (200, 201) and payload and payload.get("token"):
+        return payload["token"]
+    return login(email, BUYER_PASSWORD)
+
+def create_hot_listing(token):
+    status, payload, _ = call("POST", "/api/listings", {
+        "categoryId": CATEGORY_ID,
+        "title": f"Stress test laptop {RUN_ID}",
+        "description": "Cheap laptop posted by order_admission_stress.py",
+        "condition": "used",
+        "listingType": "sell",
+        "listPrice": 100,
+    }, token)
+    if status not in (200, 201):
+        raise RuntimeError(f"could not create listing: {status} {payload}")
+    return payload["listingId"]
+
+def percentile(xs, p):
+    xs = sorted(xs)
+    k = int(round((p/100.0) * (len(xs)-1)))
+    return xs[k]
+
+def fetch_listing_orders(seller_token, listing_id):
+    """All active orders of the listing, read back through the seller's paged order history."""
+    orders, cursor = [], ""
+    while True:
+        status, page, _ = call("GET", f"/api/orders/sales/history?status=REQUESTED&limit=100{cursor}", token=seller_token)
+        if status != 200:
+            raise RuntimeError(f"could not read sales history: {status} {page}")
+        orders += [o for o in page["orders"] if o["listing"]["listingId"] == listing_id]
+        if not page.get("hasMore"):
+            return orders
+        cursor = f"&beforeTime={page['nextBeforeTime']}&beforeId={page['nextBeforeId']}"
+
+def main():
+    if not SELLER_EMAIL:
+        print("Set SELLER_EMAIL / SELLER_PASSWORD / CATEGORY_ID first")
+        return
+
+    seller_token = login(SELLER_EMAIL, SELLER_PASSWORD)
+    listing_id = create_hot_listing(seller_token)
+    with ThreadPoolExecutor(max_workers=16) as pool:
+        buyer_tokens = list(pool.map(register_buyer, range(BUYERS)))
+    print(f"=== Order admission stress test: listing {listing_id}, {BUYERS} buyers x {REQUESTS_PER_BUYER} requests ===")
+
+    jobs = [(b, token) for b, token in enumerate(buyer_tokens) for _ in range(REQUESTS_PER_BUYER)]
+    barrier = threading.Barrier(len(jobs))
+
+    def place(job):
+        buyer, token = job
+        barrier.wait()
+        status, payload, ms = call("POST", "/api/orders", {"listingId": listing_id, "offerPrice": 100}, token)
+        return buyer, status, payload, ms
+
+    t0 = time.perf_counter()
+    with ThreadPoolExecutor(max_workers=len(jobs)) as pool:
+        results = list(pool.map(place, jobs))
+    wall = time.perf_counter() - t0
+
+    latencies = [ms for _, _, _, ms in results]
+    statuses = Counter(status for _, status, _, _ in results)
+    print(f"requests={len(results)}  wall={wall:.2f}s  throughput={len(results) / wall:.1f} req/s")
+    print(f"latency avg={statistics.mean(latencies):.1f}ms p50={percentile(latencies, 50):.1f}ms "
+          f"p95={percentile(latencies, 95):.1f}ms p99={percentile(latencies, 99):.1f}ms")
+    print("status codes: " + ", ".join(f"{code}={n}" for code, n in sorted(statuses.items())))
+
+    # Correctness: at most one active order per buyer, and every 201 is a real order
+    created = defaultdict(int)
+    for buyer, status, _, _ in results:
+        if status == 201:
+            created[buyer] += 1
+    stored = Counter(o["buyer"]["userId"] for o in fetch_listing_orders(seller_token, listing_id))
+
+    duplicates_reported = sum(1 for n in created.values() if n > 1)
+    duplicates_stored = sum(1 for n in stored.values() if n > 1)
+    turned_away = sum(1 for b in range(BUYERS)
+                      if b not in created and all(s == 429 for bb, s, _, _ in results if bb == b))
+    lost = BUYERS - len(created) - turned_away
+
+    print(f"buyers with an order={len(created)}  turned away (429 only)={turned_away}  without order otherwise={lost}")
+    print(f"orders created (201)={sum(created.values())}  orders stored={sum(stored.values())}")
+    ok = duplicates_reported == 0 and duplicates_stored == 0 and sum(created.values()) == sum(stored.values())
+    print("CORRECT: one active order per buyer" if ok
+          else f"INCORRECT: duplicate buyers in responses={duplicates_reported}, in database={duplicates_stored}")
+
+if __name__ == "__main__":
+    main()
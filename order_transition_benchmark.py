@@ -0,0 +1,203 @@
+import time
+import json
+import statistics
+import threading
+import urllib.request
+import urllib.error
+from collections import Counter
+from concurrent.futures import ThreadPoolExecutor
+
+# Running backend (see backend/src/main/resources/application.properties)
+BASE_URL = "http://localhost:8010"
+
+# Admin account, used to switch orders.transitions.mode between runs
+ADMIN_EMAIL = ""
+ADMIN_PASSWORD = "your_password"
+
+# Existing account that posts the benchmark listings
+SELLER_EMAIL = ""
+SELLER_PASSWORD = "your_password"
+CATEGORY_ID = 1
+
+# Every mode gets LISTINGS fresh listings with BUYERS requested orders each. The seller then
+# confirms all orders of every listing at once (one may win per listing), completes the winners,
+# and the buyers cancel the orders that lost.
+MODES = ["jpa", "procedure"]
+LISTINGS = 30
+BUYERS = 4
+CONCURRENCY = 32
+BUYER_PASSWORD = "bench123"
+
+RUN_ID = str(int(time.time()))
+
+def call(method, path, body=None, token=None):
+    headers = {"Accept": "application/json"}
+    data = None
+    if body is not None:
+        data = json.dumps(body).encode()
+        headers["Content-Type"] = "application/json"
+    if token:
+        headers["Authorization"] = f"Bearer {token}"
+
+    req = urllib.request.Request(BASE_URL + path, data=data, headers=headers, method=method)
+    t0 = time.perf_counter()
+    try:
+        with urllib.request.urlopen(req) as resp:
+            status, raw = resp.status, resp.read()
+    except urllib.error.HTTPError as e:
+        status, raw = e.code, e.read()
+    t1 = time.perf_counter()
+    try:
+        payload = json.loads(raw) if raw else None
+    except ValueError:
+        payload = None
+    return status, payload, (t1 - t0) * 1000.0  # ms
+
+def login(email, password):
+    status, payload, _ = call("POST", "/api/auth/login", {"email": email, "password": password})
+    if status != 200:
+        raise RuntimeError(f"login failed for {email}: {status} {payload}")
+    return payload["token"]
+
+def register_buyer(i):
+    email = f"bench.{RUN_ID}.{i}@vinuni.edu.vn"
+    status, payload, _ = call("POST", "/api/auth/register", {
+        "fullName": f"Bench Buyer {i}",
+        "email": email,
+        "password": BUYER_PASSWORD,
+        "confirmPassword": BUYER_PASSWORD,
+    })
+    if status in (200, 201) and payload and payload.get("token"):
+        return payload["token"]
+    return login(email, BUYER_PASSWORD)
+
+def set_mode(admin_token, mode):
+    status, payload, _ = call("PUT", f"/api/admin/analytics/performance/order-transition-mode?mode={mode}",
+                              token=admin_token)
+    if status != 200:
+        raise RuntimeError(f"could not switch to {mode} mode: {status} {payload}")
+
+def get_mode(admin_token):
+    _, payload, _ = call("GET", "/api/admin/analytics/performance/order-transition-mode", token=admin_token)
+    return payload["mode"]
+
+def create_listing(seller_token, mode, i):
+    status, payload, _ = call("POST", "/api/listings", {
+        "categoryId": CATEGORY_ID,
+        "title": f"Transition benchmark {RUN_ID} {mode} #{i}",
+        "description": "Posted by order_transition_benchmark.py",
+        "condition": "used",
+        "listingType": "sell",
+        "listPrice": 50,
+    }, seller_token)
+    if status not in (200, 201):
+        raise RuntimeError(f"could not create listing: {status} {payload}")
+    return payload["listingId"]
+
+def place_order(job):
+    listing_id, buyer, token = job
+    status, payload, _ = call("POST", "/api/orders", {"listingId": listing_id, "offerPrice": 50}, token)
+    if status != 201:
+        raise RuntimeError(f"could not place order: {status} {payload}")
+    return listing_id, buyer, payload["orderId"]
+
+def percentile(xs, p):
+    xs = sorted(xs)
+    k = int(round((p/100.0) * (len(xs)-1)))
+    return xs[k]
+
+def timed_phase(name, jobs, fire):
+    """Fire all jobs at once from CONCURRENCY threads and summarize latency and throughput."""
+    start = threading.Event()
+
+    def run(job):
+        start.wait()
+        return job, fire(job)
+
+    with ThreadPoolExecutor(max_workers=CONCURRENCY) as pool:
+        futures = [pool.submit(run, job) for job in jobs]
+        t0 = time.perf_counter()
+        start.set()
+        results = [f.result() for f in futures]
+    wall = time.perf_counter() - t0
+
+    if not results:
+        return results, {"phase": name, "requests": 0, "throughput": 0.0,
+                         "avg": 0.0, "p50": 0.0, "p95": 0.0, "p99": 0.0, "statuses": Counter()}
+
+    latencies = [ms for _, (_, _, ms) in results]
+    statuses = Counter(status for _, (status, _, _) in results)
+    summary = {
+        "phase": name,
+        "requests": len(results),
+        "throughput": len(results) / wall,
+        "avg": statistics.mean(latencies),
+        "p50": percentile(latencies, 50),
+        "p95": percentile(latencies, 95),
+        "p99": percentile(latencies, 99),
+        "statuses": statuses,
+    }
+    return results, summary
+
+def run_mode(mode, admin_token, seller_token, buyer_tokens):
+    set_mode(admin_token, mode)
+
+    # Setup (not timed): fresh listings, each with one requested order per buyer
+    with ThreadPoolExecutor(max_workers=16) as pool:
+        listing_ids = list(pool.map(lambda i: create_listing(seller_token, mode, i), range(LISTINGS)))
+        jobs = [(l, b, token) for l in listing_ids for b, token in enumerate(buyer_tokens)]
+        orders = list(pool.map(place_order, jobs))
+
+    # Confirm race: every order of every listing at once, at most one winner per listing
+    confirm_results, confirm = timed_phase("confirm", orders,
+        lambda o: call("PUT", f"/api/orders/{o[2]}/confirm", token=seller_token))
+    winners = [o for o, (status, _, _) in confirm_results if status == 200]
+    losers = [o for o, (status, _, _) in confirm_results if status != 200]
+
+    _, complete = timed_phase("complete", winners,
+        lambda o: call("PUT", f"/api/orders/{o[2]}/complete", token=seller_token))
+    _, cancel = timed_phase("cancel", losers,
+        lambda o: call("PUT", f"/api/orders/{o[2]}/cancel", token=buyer_tokens[o[1]]))
+
+    per_listing = Counter(o[0] for o in winners)
+    double_sold = sum(1 for n in per_listing.values() if n > 1)
+    unsold = LISTINGS - len(per_listing)
+    return [confirm, complete, cancel], double_sold, unsold
+
+def print_summary(mode, phases, double_sold, unsold):
+    for s in phases:
+        codes = ", ".join(f"{code}={n}" for code, n in sorted(s["statuses"].items()))
+        print(f"{mode:<10} {s['phase']:<9} n={s['requests']:<4} {s['throughput']:7.1f} req/s  "
+              f"avg={s['avg']:6.1f}ms p50={s['p50']:6.1f}ms p95={s['p95']:6.1f}ms p99={s['p99']:6.1f}ms  [{codes}]")
+    print(f"{mode:<10} listings confirmed twice={double_sold}  listings never confirmed={unsold}  "
+          + ("CORRECT" if double_sold == 0 and unsold == 0 else "INCORRECT"))
+
+def main():
+    if not ADMIN_EMAIL or not SELLER_EMAIL:
+        print("Set ADMIN_EMAIL / SELLER_EMAIL (and passwords, CATEGORY_ID) first")
+        return
+
+    admin_token = login(ADMIN_EMAIL, ADMIN_PASSWORD)
+    seller_token = login(SELLER_EMAIL, SELLER_PASSWORD)
+    with ThreadPoolExecutor(max_workers=BUYERS) as pool:
+        buyer_tokens = list(pool.map(register_buyer, range(BUYERS)))
+
+    original_mode = get_mode(admin_token)
+    print(f"=== Order transition benchmark: {LISTINGS} listings x {BUYERS} orders per mode, {CONCURRENCY} threads ===")
+    try:
+        results = {mode: run_mode(mode, admin_token, seller_token, buyer_tokens) for mode in MODES}
+    finally:
+        set_mode(admin_token, original_mode)
+
+    for mode in MODES:
+        print_summary(mode, *results[mode])
+
+    # Side by side: throughput and p95 per phase
+    print("\nphase      " + "".join(f"{mode + ' req/s':>18}{mode + ' p95':>16}" for mode in MODES))
+    for i, phase in enumerate(["confirm", "complete", "cancel"]):
+        row = "".join(f"{results[mode][0][i]['throughput']:18.1f}{results[mode][0][i]['p95']:14.1f}ms"
+                      for mode in MODES)
+        print(f"{phase:<11}{row}")
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,143 @@
+import time
+import random
+import statistics
+import mysql.connector
+
+DB_CONFIG = {
+    "host": "127.0.0.1",
+    "user": "root",
+    "password": "your_password",
+    "database": "VinUniCircularMarket",
+    "port": 3306,
+}
+
+# Scratch copy of `Listing` (same columns and indexes, including ft_listing_title_desc,
+# but no foreign keys) so the benchmark never touches real data.
+BENCH_TABLE = "Listing_search_bench"
+TABLE_SIZES = [1000, 10000, 50000, 100000]
+QUERIES_PER_SIZE = 50
+INSERT_BATCH = 1000
+
+WORDS = [
+    "calculus", "textbook", "laptop", "charger", "desk", "lamp", "bicycle", "helmet",
+    "monitor", "keyboard", "mouse", "backpack", "jacket", "kettle", "fan", "chair",
+    "physics", "biology", "notes", "camera", "tripod", "guitar", "speaker", "headphones",
+    "printer", "calculator", "mattress", "pillow", "blender", "rice", "cooker", "umbrella",
+]
+
+SEARCH_TERMS = ["laptop", "calculus textbook", "desk lamp", "bicycle", "headphones", "rice cooker"]
+
+# --- Current query (leading wildcard + LOWER(), no index can be used) ---
+Q_LIKE = f"""
+SELECT l.listing_id, l.title, l.list_price, l.created_at
+FROM `{BENCH_TABLE}` l
+WHERE l.status = 'available'
+  AND (LOWER(l.title) LIKE LOWER(CONCAT('%', %s, '%'))
+       OR LOWER(l.description) LIKE LOWER(CONCAT('%', %s, '%')))
+ORDER BY l.created_at DESC
+LIMIT 12;
+"""
+
+# --- FULLTEXT query (same shape as ListingRepository.searchListingIdsFullText) ---
+Q_FULLTEXT = f"""
+SELECT l.listing_id
+FROM `{BENCH_TABLE}` l
+WHERE l.status = 'available'
+  AND MATCH(l.title, l.description) AGAINST (%s IN BOOLEAN MODE)
+ORDER BY MATCH(l.title, l.description) AGAINST (%s IN BOOLEAN MODE) DESC,
+         l.created_at DESC, l.listing_id DESC
+LIMIT 12;
+"""
+
+def to_boolean_query(term):
+    # mirrors ListingService.toBooleanModeQuery: every word required and prefix-matched
+    return " ".join(f"+{w}*" for w in term.split() if len(w) >= 3)
+
+def time_one(cursor, sql, params=None, fetch=False):
+    t0 = time.perf_counter()
+    cursor.execute(sql, params or ())
+    if fetch:
+        cursor.fetchall()
+    t1 = time.perf_counter()
+    return (t1 - t0) * 1000.0  # ms
+
+def percentile(xs, p):
+    xs = sorted(xs)
+    k = int(round((p/100.0) * (len(xs)-1)))
+    return xs[k]
+
+def random_listing():
+    title = " ".join(random.sample(WORDS, 3)).title()
+    description = " ".join(random.choice(WORDS) for _ in range(random.randint(15, 40)))
+    return (
+        random.randint(1, 50),                                   # seller_id
+        random.randint(1, 10),                                   # category_id
+        title,
+        description,
+        random.choice(["new", "like_new", "used"]),
+        random.choice(["sell", "lend"]),
+        round(random.uniform(0, 2000000), 2),
+        random.choices(["available", "sold", "reserved"], [0.7, 0.2, 0.1])[0],
+    )
+
+def grow_to(conn, cur, current, target):
+    sql = f"""
+    INSERT INTO `{BENCH_TABLE}`
+      (seller_id, category_id, title, description, `condition`, listing_type, list_price, status)
+    VALUES (%s, %s, %s, %s, %s, %s, %s, %s)
+    """
+    while current < target:
+        n = min(INSERT_BATCH, target - current)
+        cur.executemany(sql, [random_listing() for _ in range(n)])
+        conn.commit()
+        current += n
+    return current
+
+def summarize(xs):
+    return {
+        "avg_ms": statistics.mean(xs),
+        "p95_ms": percentile(xs, 95),
+        "max_ms": max(xs),
+    }
+
+def main():
+    conn = mysql.connector.connect(**DB_CONFIG)
+    cur = conn.cursor()
+
+    cur.execute(f"DROP TABLE IF EXISTS `{BENCH_TABLE}`;")
+    cur.execute(f"CREATE TABLE `{BENCH_TABLE}` LIKE `Listing`;")
+
+    cur.execute(
+        "SELECT COUNT(*) FROM information_schema.STATISTICS "
+        "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = %s AND INDEX_TYPE = 'FULLTEXT';",
+        (BENCH_TABLE,),
+    )
+    if cur.fetchone()[0] == 0:
+        # Functions.sql not applied yet: add the same index the application expects
+        cur.execute(f"ALTER TABLE `{BENCH_TABLE}` ADD FULLTEXT INDEX ft_listing_title_desc (title, description);")
+
+    rows = 0
+    print("=== Listing Search Benchmark (LIKE vs FULLTEXT) ===")
+    try:
+        for size in TABLE_SIZES:
+            rows = grow_to(conn, cur, rows, size)
+            cur.execute(f"ANALYZE TABLE `{BENCH_TABLE}`;")
+            cur.fetchall()
+
+            lat = {"like": [], "fulltext": []}
+            for _ in range(QUERIES_PER_SIZE):
+                term = random.choice(SEARCH_TERMS)
+                lat["like"].append(time_one(cur, Q_LIKE, (term, term), fetch=True))
+                bq = to_boolean_query(term)
+                lat["fulltext"].append(time_one(cur, Q_FULLTEXT, (bq, bq), fetch=True))
+
+            for k in ["like", "fulltext"]:
+                s = summarize(lat[k])
+                print(f"rows={rows:7d}  {k:8s}  avg={s['avg_ms']:.2f}ms  p95={s['p95_ms']:.2f}ms  max={s['max_ms']:.2f}ms")
+    finally:
+        cur.execute(f"DROP TABLE IF EXISTS `{BENCH_TABLE}`;")
+        cur.close()
+        conn.close()
+
+if __name__ == "__main__":
+    main()